@@ -0,0 +1,170 @@
+// Load test: compare platform-thread and virtual-thread request handling.
+//
+// Start the backend twice, once per mode, e.g.
+//   VIRTUAL_THREADS=false SERVER_PORT=8080 java -jar target/CampusAura-0.0.1-SNAPSHOT.jar
+//   VIRTUAL_THREADS=true  SERVER_PORT=8081 java -jar target/CampusAura-0.0.1-SNAPSHOT.jar
+// (Java 21 runtime needed for the virtual mode), then run
+//   node scripts/load-test.js --platform http://localhost:8080 --virtual http://localhost:8081 \
+//     --path /api/events/public/<eventId>
+//
+// Every step holds N requests in flight for --duration seconds against --path. The path
+// must be an endpoint that reads Firestore, e.g. /api/events/public/<eventId>: the catalog
+// lists (/api/events/public, /api/events/landing-page) are served from memory and would not
+// show the difference between the modes. The highest step that stays under --max-errors and
+// within --slo-ms p99 is reported as the max concurrency.
+//
+// Options:
+//   --platform <url>     base URL of the platform-thread instance
+//   --virtual <url>      base URL of the virtual-thread instance
+//   --path <path>        request path (required, see above)
+//   --token <idToken>    Firebase ID token, sent as a Bearer token (see get-admin-token.js)
+//   --steps <list>       concurrency steps (default 50,100,200,400,800,1600)
+//   --duration <s>       seconds per step (default 15)
+//   --slo-ms <ms>        p99 latency budget (default 1000)
+//   --max-errors <pct>   error rate budget in percent (default 1)
+//   --timeout-ms <ms>    per-request timeout (default 30000)
+// Only Node's standard library is used (Node 18+).
+
+const http = require('http');
+const https = require('https');
+const { performance } = require('perf_hooks');
+
+function parseArgs(argv) {
+  const options = {
+    steps: '50,100,200,400,800,1600',
+    duration: '15',
+    'slo-ms': '1000',
+    'max-errors': '1',
+    'timeout-ms': '30000',
+  };
+  for (let i = 0; i < argv.length; i++) {
+    if (argv[i].startsWith('--')) {
+      options[argv[i].slice(2)] = argv[i + 1];
+      i++;
+    }
+  }
+  return {
+    targets: [['platform', options.platform], ['virtual', options.virtual]].filter(([, url]) => url),
+    path: options.path,
+    token: options.token,
+    steps: options.steps.split(',').map(Number),
+    durationMs: Number(options.duration) * 1000,
+    sloMs: Number(options['slo-ms']),
+    maxErrorPct: Number(options['max-errors']),
+    timeoutMs: Number(options['timeout-ms']),
+  };
+}
+
+function request(url, agent, token, timeoutMs) {
+  const client = url.protocol === 'https:' ? https : http;
+  return new Promise((resolve) => {
+    const started = performance.now();
+    const req = client.get(url, {
+      agent,
+      timeout: timeoutMs,
+      headers: token ? { Authorization: `Bearer ${token}` } : {},
+    }, (res) => {
+      res.resume();
+      res.on('end', () => resolve({ ok: res.statusCode < 400, ms: performance.now() - started }));
+    });
+    req.on('timeout', () => req.destroy(new Error('timeout')));
+    req.on('error', () => resolve({ ok: false, ms: performance.now() - started }));
+  });
+}
+
+function percentile(sorted, p) {
+  if (sorted.length === 0) return NaN;
+  return sorted[Math.min(sorted.length - 1, Math.ceil((p / 100) * sorted.length) - 1)];
+}
+
+async function runStep(baseUrl, options, concurrency) {
+  const url = new URL(options.path, baseUrl);
+  const Agent = url.protocol === 'https:' ? https.Agent : http.Agent;
+  const agent = new Agent({ keepAlive: true, maxSockets: concurrency });
+  const latencies = [];
+  let errors = 0;
+  let inFlight = 0;
+  let peakInFlight = 0;
+  const deadline = performance.now() + options.durationMs;
+
+  async function worker() {
+    while (performance.now() < deadline) {
+      inFlight++;
+      peakInFlight = Math.max(peakInFlight, inFlight);
+      const result = await request(url, agent, options.token, options.timeoutMs);
+      inFlight--;
+      if (result.ok) {
+        latencies.push(result.ms);
+      } else {
+        errors++;
+      }
+    }
+  }
+
+  const started = performance.now();
+  await Promise.all(Array.from({ length: concurrency }, worker));
+  const elapsedS = (performance.now() - started) / 1000;
+  agent.destroy();
+
+  latencies.sort((a, b) => a - b);
+  const total = latencies.length + errors;
+  return {
+    concurrency,
+    peakInFlight,
+    rps: total / elapsedS,
+    p50: percentile(latencies, 50),
+    p99: percentile(latencies, 99),
+    errorPct: total === 0 ? 100 : (errors / total) * 100,
+  };
+}
+
+function withinBudget(step, options) {
+  return step.errorPct <= options.maxErrorPct && step.p99 <= options.sloMs;
+}
+
+function format(n, digits = 0) {
+  return Number.isFinite(n) ? n.toFixed(digits) : '-';
+}
+
+async function main() {
+  const options = parseArgs(process.argv.slice(2));
+  if (options.targets.length === 0) {
+    console.error('Give at least one of --platform <url> and --virtual <url>');
+    process.exit(1);
+  }
+  if (!options.path) {
+    console.error('Give --path <path> of an endpoint that reads Firestore, e.g. /api/events/public/<eventId>');
+    process.exit(1);
+  }
+
+  const summary = [];
+  for (const [mode, baseUrl] of options.targets) {
+    console.log(`\n${mode} (${baseUrl}${options.path})`);
+    console.log('concurrency  in-flight      rps   p50 ms   p99 ms  errors %');
+    let maxConcurrency = 0;
+    let p99AtMax = NaN;
+    for (const concurrency of options.steps) {
+      const step = await runStep(baseUrl, options, concurrency);
+      console.log(
+        `${String(step.concurrency).padStart(11)}  ${String(step.peakInFlight).padStart(9)}` +
+        `  ${format(step.rps).padStart(7)}  ${format(step.p50, 1).padStart(7)}` +
+        `  ${format(step.p99, 1).padStart(7)}  ${format(step.errorPct, 2).padStart(8)}`);
+      if (!withinBudget(step, options)) {
+        break;
+      }
+      maxConcurrency = step.concurrency;
+      p99AtMax = step.p99;
+    }
+    summary.push({ mode, maxConcurrency, p99AtMax });
+  }
+
+  console.log(`\nMax concurrency within p99 <= ${options.sloMs} ms and errors <= ${options.maxErrorPct}%`);
+  for (const { mode, maxConcurrency, p99AtMax } of summary) {
+    console.log(`  ${mode.padEnd(8)} ${String(maxConcurrency).padStart(6)} concurrent, p99 ${format(p99AtMax, 1)} ms`);
+  }
+}
+
+main().catch((error) => {
+  console.error('❌ Load test failed:', error.message);
+  process.exit(1);
+});
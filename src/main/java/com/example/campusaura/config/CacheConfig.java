@@ -0,0 +1,116 @@
+package com.example.campusaura.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Read-through caches for the admin, coordinator and feedback reads (@Cacheable on the
+ * service methods, @CacheEvict on every method that writes the same data).
+ *
+ * Each cache is a bounded Caffeine cache (W-TinyLFU eviction) with its own size and TTL,
+ * set by a Caffeine spec in campusaura.cache.{name}.spec (required; the defaults live in
+ * application.properties only). The manager runs in async mode
+ * so methods returning CompletableFuture are cached as well; all annotated reads use
+ * sync = true, so concurrent misses share one load and load time is recorded.
+ *
+ * Declaring a SharedCacheTier bean adds a second tier shared by all replicas. Without one,
+ * each replica caches locally and another replica's writes show up when the TTL expires.
+ *
+ * Per cache, the actuator metrics endpoint exports cache.gets (hit/miss), cache.evictions,
+ * cache.hit.ratio and cache.load.latency.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String EVENTS = "events";
+    public static final String PRODUCTS = "products";
+    public static final String COORDINATORS = "coordinators";
+    public static final String USERS = "users";
+    public static final String FEEDBACK = "feedback";
+
+    static final List<String> CACHE_NAMES = List.of(EVENTS, PRODUCTS, COORDINATORS, USERS, FEEDBACK);
+
+    @Bean
+    public CacheManager cacheManager(Environment environment, ObjectProvider<SharedCacheTier> sharedTier) {
+        return createCacheManager(name -> environment.getRequiredProperty("campusaura.cache." + name + ".spec"),
+                sharedTier.getIfAvailable());
+    }
+
+    static CaffeineCacheManager createCacheManager(Function<String, String> specs,
+                                                   SharedCacheTier sharedTier) {
+        CaffeineCacheManager manager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, AsyncCache<Object, Object> cache) {
+                Cache local = super.adaptCaffeineCache(name, cache);
+                return sharedTier == null ? local : new TieredCache((CaffeineCache) local, sharedTier.cache(name));
+            }
+        };
+        manager.setAsyncCacheMode(true);
+        // Fixed set of caches: a misspelt cache name fails instead of creating an unbounded cache
+        manager.setCacheNames(CACHE_NAMES);
+        for (String name : CACHE_NAMES) {
+            // Loads run on the calling thread: blocking Firestore reads must not tie up the common pool
+            manager.registerCustomCache(name, Caffeine.from(specs.apply(name))
+                    .executor(Runnable::run)
+                    .recordStats()
+                    .buildAsync());
+        }
+        return manager;
+    }
+
+    /**
+     * Boot binds CaffeineCache instances itself; tiered caches report their local tier
+     */
+    @Bean
+    public CacheMeterBinderProvider<TieredCache> tieredCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(cache.local().getNativeCache(), cache.getName(), tags);
+    }
+
+    /**
+     * Hit ratio and load latency per cache. Micrometer's Caffeine binder only reports loads
+     * for LoadingCache, and these caches load through @Cacheable(sync = true) instead.
+     */
+    @Bean
+    public MeterBinder cacheStatistics(CacheManager cacheManager) {
+        return registry -> {
+            for (String name : cacheManager.getCacheNames()) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = localCache(cacheManager.getCache(name));
+                Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                        .tag("cache", name)
+                        .description("Share of lookups answered from the in-process cache")
+                        .register(registry);
+                FunctionTimer.builder("cache.load.latency", cache,
+                                c -> c.stats().loadCount(),
+                                c -> c.stats().totalLoadTime(), TimeUnit.NANOSECONDS)
+                        .tag("cache", name)
+                        .description("Time spent loading values on cache misses")
+                        .register(registry);
+            }
+        };
+    }
+
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache(Cache cache) {
+        return cache instanceof TieredCache tiered
+                ? tiered.local().getNativeCache()
+                : ((CaffeineCache) cache).getNativeCache();
+    }
+}
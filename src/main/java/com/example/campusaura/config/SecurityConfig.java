@@ -1,6 +1,7 @@
 package com.example.campusaura.config;
 
 import com.example.campusaura.security.FirebaseAuthFilter;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -41,6 +42,8 @@ public class SecurityConfig {
         .cors(cors -> cors.configurationSource(corsConfigurationSource()))
         .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(auth -> auth
+            // Async controllers finish on an ASYNC dispatch; the original request was already authorized
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
             .requestMatchers("/api/public/**").permitAll()
             .requestMatchers("/api/events/landing-page").permitAll()
             .requestMatchers("/api/events/latest").permitAll()
@@ -54,6 +57,7 @@ public class SecurityConfig {
             .requestMatchers("/api/auth/validate-registration").permitAll()
             .requestMatchers("/api/auth/registration-info").permitAll()
             .requestMatchers("/actuator/health").permitAll()
+            .requestMatchers("/actuator/**").hasRole("ADMIN")
             .anyRequest().authenticated()
         )
         .exceptionHandling(exception -> exception
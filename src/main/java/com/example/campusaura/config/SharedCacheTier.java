@@ -0,0 +1,17 @@
+package com.example.campusaura.config;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Optional second cache tier shared by all replicas (e.g. a Redis-backed CacheManager:
+ * {@code name -> redisCacheManager.getCache(name)}). Declare one as a bean to enable it;
+ * cached values must then be serializable by the tier.
+ */
+@FunctionalInterface
+public interface SharedCacheTier {
+
+    /**
+     * The shared cache backing the local cache of the same name
+     */
+    Cache cache(String name);
+}
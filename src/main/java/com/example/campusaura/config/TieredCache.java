@@ -0,0 +1,146 @@
+package com.example.campusaura.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Local Caffeine cache in front of a SharedCacheTier cache.
+ *
+ * Local misses read the shared tier before loading; loaded values are written to both.
+ * Evictions and clears go to both, so a write on one replica invalidates the shared copy
+ * for everyone (other replicas' local copies still live out their TTL). The shared tier
+ * is best effort: if it fails, the cache behaves as local only.
+ */
+final class TieredCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TieredCache.class);
+
+    private final CaffeineCache local;
+    private final Cache shared;
+
+    TieredCache(CaffeineCache local, Cache shared) {
+        this.local = local;
+        this.shared = shared;
+    }
+
+    CaffeineCache local() {
+        return local;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value == null) {
+            value = sharedGet(key);
+            if (value != null) {
+                local.put(key, value.get());
+            }
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        Object result = value != null ? value.get() : null;
+        if (result != null && type != null && !type.isInstance(result)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + result);
+        }
+        return (T) result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return local.get(key, () -> {
+            ValueWrapper value = sharedGet(key);
+            if (value != null) {
+                return (T) value.get();
+            }
+            T loaded = valueLoader.call();
+            sharedPut(key, loaded);
+            return loaded;
+        });
+    }
+
+    // Plain async lookups stay local; the sync = true path below consults the shared tier
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return local.retrieve(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return local.retrieve(key, () -> {
+            ValueWrapper value = sharedGet(key);
+            if (value != null) {
+                return CompletableFuture.completedFuture((T) value.get());
+            }
+            return valueLoader.get().thenApply(loaded -> {
+                sharedPut(key, loaded);
+                return loaded;
+            });
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        local.put(key, value);
+        sharedPut(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.evict(key);
+        try {
+            shared.evict(key);
+        } catch (RuntimeException e) {
+            logger.warn("Shared cache '{}' evict failed: {}", getName(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        try {
+            shared.clear();
+        } catch (RuntimeException e) {
+            logger.warn("Shared cache '{}' clear failed: {}", getName(), e.getMessage());
+        }
+    }
+
+    private ValueWrapper sharedGet(Object key) {
+        try {
+            return shared.get(key);
+        } catch (RuntimeException e) {
+            logger.warn("Shared cache '{}' read failed: {}", getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void sharedPut(Object key, Object value) {
+        try {
+            shared.put(key, value);
+        } catch (RuntimeException e) {
+            logger.warn("Shared cache '{}' write failed: {}", getName(), e.getMessage());
+        }
+    }
+}
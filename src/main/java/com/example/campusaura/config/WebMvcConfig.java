@@ -0,0 +1,21 @@
+package com.example.campusaura.config;
+
+import com.example.campusaura.security.FirebasePrincipalArgumentResolver;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Spring MVC configuration.
+ * Lets controllers take the authenticated FirebasePrincipal as a parameter.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new FirebasePrincipalArgumentResolver());
+    }
+}
@@ -2,16 +2,26 @@ package com.example.campusaura.controller;
 
 import com.example.campusaura.dto.*;
 import com.example.campusaura.model.Product;
+import com.example.campusaura.model.Transaction;
 import com.example.campusaura.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -39,6 +49,12 @@ public class AdminController {
     @Autowired
     private SalesService salesService;
 
+    @Autowired
+    private SalesExportService salesExportService;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     // ==================== DASHBOARD SECTION ====================
 
     /**
@@ -76,13 +92,8 @@ public class AdminController {
      * GET /api/admin/coordinators
      */
     @GetMapping("/coordinators")
-    public ResponseEntity<List<CoordinatorResponseDTO>> getAllCoordinators() {
-        try {
-            List<CoordinatorResponseDTO> coordinators = coordinatorService.getAllCoordinators();
-            return ResponseEntity.ok(coordinators);
-        } catch (ExecutionException | InterruptedException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public CompletableFuture<ResponseEntity<?>> getAllCoordinators() {
+        return respond(coordinatorService::getAllCoordinatorsAsync);
     }
 
     /**
@@ -212,13 +223,21 @@ public class AdminController {
 
     /**
      * Get all events with coordinator names for admin management
-     * GET /api/admin/events
+     * GET /api/admin/events?limit=50&cursor=...  (paginated; without limit/cursor returns everything)
      */
     @GetMapping("/events")
-    public ResponseEntity<List<AdminEventDTO>> getAllEvents() {
-        try {
+    public ResponseEntity<?> getAllEvents(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        try {
+            if (isPaged(limit, cursor)) {
+                PageResponse<AdminEventDTO> page = eventService.getEventsForAdminPage(pageSize(limit), cursor);
+                return ResponseEntity.ok(page);
+            }
             List<AdminEventDTO> events = eventService.getAllEventsForAdmin();
             return ResponseEntity.ok(events);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (ExecutionException | InterruptedException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -324,16 +343,16 @@ public class AdminController {
 
     /**
      * Get all users
-     * GET /api/admin/users
+     * GET /api/admin/users?limit=50&cursor=...  (paginated; without limit/cursor returns everything)
      */
     @GetMapping("/users")
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
-        try {
-            List<UserResponseDTO> users = userManagementService.getAllUsers();
-            return ResponseEntity.ok(users);
-        } catch (ExecutionException | InterruptedException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    public CompletableFuture<ResponseEntity<?>> getAllUsers(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        if (isPaged(limit, cursor)) {
+            return respond(() -> userManagementService.getUsersPageAsync(pageSize(limit), cursor));
         }
+        return respond(userManagementService::getAllUsersAsync);
     }
 
     /**
@@ -341,13 +360,8 @@ public class AdminController {
      * GET /api/admin/users/university-students
      */
     @GetMapping("/users/university-students")
-    public ResponseEntity<List<UserResponseDTO>> getUniversityStudents() {
-        try {
-            List<UserResponseDTO> users = userManagementService.getUsersByRole("STUDENT");
-            return ResponseEntity.ok(users);
-        } catch (ExecutionException | InterruptedException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public CompletableFuture<ResponseEntity<?>> getUniversityStudents() {
+        return respond(() -> userManagementService.getUsersByRoleAsync("STUDENT"));
     }
 
     /**
@@ -355,13 +369,8 @@ public class AdminController {
      * GET /api/admin/users/external-users
      */
     @GetMapping("/users/external-users")
-    public ResponseEntity<List<UserResponseDTO>> getExternalUsers() {
-        try {
-            List<UserResponseDTO> users = userManagementService.getUsersByRole("EXTERNAL_USER");
-            return ResponseEntity.ok(users);
-        } catch (ExecutionException | InterruptedException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public CompletableFuture<ResponseEntity<?>> getExternalUsers() {
+        return respond(() -> userManagementService.getUsersByRoleAsync("EXTERNAL_USER"));
     }
 
     /**
@@ -450,16 +459,16 @@ public class AdminController {
 
     /**
      * Get all products
-     * GET /api/admin/products
+     * GET /api/admin/products?limit=50&cursor=...  (paginated; without limit/cursor returns everything)
      */
     @GetMapping("/products")
-    public ResponseEntity<List<ProductResponseDTO>> getAllProducts() {
-        try {
-            List<ProductResponseDTO> products = productService.getAllProducts();
-            return ResponseEntity.ok(products);
-        } catch (ExecutionException | InterruptedException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    public CompletableFuture<ResponseEntity<?>> getAllProducts(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        if (isPaged(limit, cursor)) {
+            return respond(() -> productService.getProductsPageAsync(pageSize(limit), cursor));
         }
+        return respond(productService::getAllProductsAsync);
     }
 
     /**
@@ -560,15 +569,105 @@ public class AdminController {
         }
     }
 
+    /**
+     * Get completed revenue per day (defaults to the last 30 days)
+     * GET /api/admin/payments/revenue/daily?from=2026-01-01&to=2026-01-31
+     */
+    @GetMapping("/payments/revenue/daily")
+    public ResponseEntity<?> getDailyRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(29);
+            List<RevenuePointDTO> series = transactionService.getDailyRevenue(start, end);
+            return ResponseEntity.ok(series);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ExecutionException | InterruptedException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Get completed revenue per month (defaults to the last 12 months)
+     * GET /api/admin/payments/revenue/monthly?from=2025-02&to=2026-01
+     */
+    @GetMapping("/payments/revenue/monthly")
+    public ResponseEntity<?> getMonthlyRevenue(
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to) {
+        try {
+            YearMonth end = to != null ? to : YearMonth.now();
+            YearMonth start = from != null ? from : end.minusMonths(11);
+            List<RevenuePointDTO> series = transactionService.getMonthlyRevenue(start, end);
+            return ResponseEntity.ok(series);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ExecutionException | InterruptedException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Recompute the revenue ledger from all transactions
+     * POST /api/admin/payments/ledger/rebuild
+     */
+    @PostMapping("/payments/ledger/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRevenueLedger() {
+        try {
+            int scanned = transactionService.rebuildRevenueLedger();
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Revenue ledger rebuilt");
+            response.put("transactions", scanned);
+            return ResponseEntity.ok(response);
+        } catch (ExecutionException | InterruptedException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Update a transaction's status (e.g. mark it REFUNDED)
+     * PATCH /api/admin/payments/transactions/{id}/status
+     * Body: { "status": "REFUNDED" }
+     */
+    @PatchMapping("/payments/transactions/{id}/status")
+    public ResponseEntity<?> updateTransactionStatus(
+            @PathVariable String id,
+            @RequestBody Map<String, String> body) {
+        Transaction.TransactionStatus status;
+        try {
+            status = Transaction.TransactionStatus.valueOf(body.get("status"));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid status: " + body.get("status")));
+        }
+        try {
+            TransactionResponseDTO updated = transactionService.updateTransactionStatus(id, status);
+            return ResponseEntity.ok(updated);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (ExecutionException | InterruptedException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Get all transactions
-     * GET /api/admin/payments/transactions
+     * GET /api/admin/payments/transactions?limit=50&cursor=...  (paginated; without limit/cursor returns everything)
      */
     @GetMapping("/payments/transactions")
-    public ResponseEntity<List<TransactionResponseDTO>> getAllTransactions() {
-        try {
+    public ResponseEntity<?> getAllTransactions(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        try {
+            if (isPaged(limit, cursor)) {
+                PageResponse<TransactionResponseDTO> page = transactionService.getTransactionsPage(pageSize(limit), cursor);
+                return ResponseEntity.ok(page);
+            }
             List<TransactionResponseDTO> transactions = transactionService.getAllTransactions();
             return ResponseEntity.ok(transactions);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (ExecutionException | InterruptedException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -593,29 +692,113 @@ public class AdminController {
 
     /**
      * Get all ticket sales
-     * GET /api/admin/sales/tickets
+     * GET /api/admin/sales/tickets?limit=50&cursor=...  (paginated; without limit/cursor returns everything)
      */
     @GetMapping("/sales/tickets")
-    public ResponseEntity<List<TicketSaleDTO>> getAllTicketSales() {
-        try {
-            List<TicketSaleDTO> sales = salesService.getAllTicketSales();
-            return ResponseEntity.ok(sales);
-        } catch (ExecutionException | InterruptedException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    public CompletableFuture<ResponseEntity<?>> getAllTicketSales(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        if (isPaged(limit, cursor)) {
+            return respond(() -> salesService.getTicketSalesPageAsync(pageSize(limit), cursor));
         }
+        return respond(salesService::getAllTicketSalesAsync);
     }
 
     /**
      * Get all product sales
-     * GET /api/admin/sales/products
+     * GET /api/admin/sales/products?limit=50&cursor=...  (paginated; without limit/cursor returns everything)
      */
     @GetMapping("/sales/products")
-    public ResponseEntity<List<ProductSaleDTO>> getAllProductSales() {
+    public CompletableFuture<ResponseEntity<?>> getAllProductSales(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        if (isPaged(limit, cursor)) {
+            return respond(() -> salesService.getProductSalesPageAsync(pageSize(limit), cursor));
+        }
+        return respond(salesService::getAllProductSalesAsync);
+    }
+
+    /**
+     * Stream every ticket sale as NDJSON or CSV
+     * GET /api/admin/sales/tickets/export?format=ndjson|csv
+     */
+    @GetMapping("/sales/tickets/export")
+    public ResponseEntity<?> exportTicketSales(@RequestParam(defaultValue = "ndjson") String format) {
         try {
-            List<ProductSaleDTO> sales = salesService.getAllProductSales();
-            return ResponseEntity.ok(sales);
-        } catch (ExecutionException | InterruptedException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            SalesExportService.Format exportFormat = SalesExportService.Format.from(format);
+            StreamingResponseBody body = out -> exportSales(() -> salesExportService.exportTicketSales(exportFormat, out));
+            return exportResponse("ticket-sales", exportFormat, body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Stream every product sale as NDJSON or CSV
+     * GET /api/admin/sales/products/export?format=ndjson|csv
+     */
+    @GetMapping("/sales/products/export")
+    public ResponseEntity<?> exportProductSales(@RequestParam(defaultValue = "ndjson") String format) {
+        try {
+            SalesExportService.Format exportFormat = SalesExportService.Format.from(format);
+            StreamingResponseBody body = out -> exportSales(() -> salesExportService.exportProductSales(exportFormat, out));
+            return exportResponse("product-sales", exportFormat, body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<StreamingResponseBody> exportResponse(String name, SalesExportService.Format format,
+                                                                        StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + "." + format.getExtension() + "\"")
+                .body(body);
+    }
+
+    @FunctionalInterface
+    private interface SalesExport {
+        void run() throws IOException, ExecutionException, InterruptedException;
+    }
+
+    // The status line is already sent once streaming starts, so Firestore failures abort the response
+    private static void exportSales(SalesExport export) throws IOException {
+        try {
+            export.run();
+        } catch (ExecutionException e) {
+            throw new IOException("Sales export failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Sales export interrupted", e);
+        }
+    }
+
+    // ==================== PAGINATION HELPERS ====================
+
+    // Admin lists are paginated when the client asks for a page size or passes a cursor
+    private static boolean isPaged(Integer limit, String cursor) {
+        return limit != null || cursor != null;
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    // ==================== ASYNC HELPERS ====================
+
+    // The servlet thread is released while the read is in flight; the response is written when it completes
+    private static CompletableFuture<ResponseEntity<?>> respond(Supplier<? extends CompletableFuture<?>> read) {
+        CompletableFuture<?> result;
+        try {
+            result = read.get();
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
         }
+        return result.<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(e -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
     }
 }
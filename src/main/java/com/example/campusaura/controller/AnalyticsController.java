@@ -0,0 +1,70 @@
+package com.example.campusaura.controller;
+
+import com.example.campusaura.dto.RevenueBucketDTO;
+import com.example.campusaura.service.SalesRollups;
+import com.example.campusaura.service.SalesService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+@RestController
+@RequestMapping("/api/admin/analytics")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    @Autowired
+    private SalesRollups salesRollups;
+
+    @Autowired
+    private SalesService salesService;
+
+    /**
+     * Get ticket and product revenue over time, optionally for one event or category
+     * GET /api/admin/analytics/revenue?granularity=day&from=2026-03-01&to=2026-03-31&eventId=...&category=...
+     * granularity: hour | day | month (defaults to day over the last 30 days)
+     */
+    @GetMapping("/revenue")
+    public ResponseEntity<?> getRevenue(
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String eventId,
+            @RequestParam(required = false) String category) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(29);
+            List<RevenueBucketDTO> series = salesRollups.getRevenue(
+                    SalesRollups.Granularity.from(granularity), start, end, eventId, category);
+            return ResponseEntity.ok(series);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ExecutionException | InterruptedException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Rebuild all revenue rollups from the sales history
+     * POST /api/admin/analytics/revenue/backfill
+     */
+    @PostMapping("/revenue/backfill")
+    public ResponseEntity<Map<String, Object>> backfillRevenue() {
+        try {
+            int scanned = salesService.rebuildSalesRollups();
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Revenue rollups rebuilt");
+            response.put("sales", scanned);
+            return ResponseEntity.ok(response);
+        } catch (ExecutionException | InterruptedException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -5,18 +5,26 @@ import com.example.campusaura.dto.EventRequestDTO;
 import com.example.campusaura.dto.EventResponseDTO;
 import com.example.campusaura.dto.LandingPageEventDTO;
 import com.example.campusaura.model.Event;
+import com.example.campusaura.security.FirebasePrincipal;
+import com.example.campusaura.service.EventCatalogIndex;
 import com.example.campusaura.service.EventService;
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseAuthException;
-import com.google.firebase.auth.FirebaseToken;
+import com.example.campusaura.service.PublicEventResponseCache;
+import com.example.campusaura.util.CompletableFutures;
+import com.google.api.gax.rpc.ApiException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 @RestController
@@ -27,17 +35,20 @@ public class EventController {
     @Autowired
     private EventService eventService;
 
+    @Autowired
+    private PublicEventResponseCache responseCache;
+
     /**
      * Create a new event
      * POST /api/events
      */
     @PostMapping
     public ResponseEntity<?> createEvent(
-            @RequestHeader("Authorization") String authHeader,
+            FirebasePrincipal principal,
             @RequestBody EventRequestDTO eventRequest) {
         try {
-            // Extract coordinator ID from Firebase token
-            String coordinatorId = extractUserIdFromToken(authHeader);
+            // Coordinator ID from the verified Firebase token
+            String coordinatorId = principal.getUid();
 
             // Create event
             Event createdEvent = eventService.createEvent(coordinatorId, eventRequest);
@@ -60,10 +71,10 @@ public class EventController {
      */
     @GetMapping("/{eventId}")
     public ResponseEntity<?> getEventById(
-            @RequestHeader("Authorization") String authHeader,
+            FirebasePrincipal principal,
             @PathVariable String eventId) {
         try {
-            String coordinatorId = extractUserIdFromToken(authHeader);
+            String coordinatorId = principal.getUid();
             Event event = eventService.getEventById(eventId);
             
             if (event == null) {
@@ -90,10 +101,10 @@ public class EventController {
      */
     @GetMapping
     public ResponseEntity<?> getAllEvents(
-            @RequestHeader("Authorization") String authHeader,
+            FirebasePrincipal principal,
             @RequestParam(required = false) String status) {
         try {
-            String coordinatorId = extractUserIdFromToken(authHeader);
+            String coordinatorId = principal.getUid();
             List<Event> events;
 
             // Filter by status (but only for the authenticated coordinator)
@@ -121,9 +132,9 @@ public class EventController {
      * GET /api/events/my-events
      */
     @GetMapping("/my-events")
-    public ResponseEntity<?> getMyEvents(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getMyEvents(FirebasePrincipal principal) {
         try {
-            String coordinatorId = extractUserIdFromToken(authHeader);
+            String coordinatorId = principal.getUid();
             List<Event> events = eventService.getEventsByCoordinator(coordinatorId);
             return ResponseEntity.ok(events);
         } catch (Exception e) {
@@ -142,6 +153,7 @@ public class EventController {
         try {
             // Enforce maximum limit of 20 events
             int effectiveLimit = Math.min(limit, 20);
+            // A fresh random sample per request, so no validators (a 304 would freeze the carousel)
             List<LandingPageEventDTO> events = eventService.getRandomOngoingEvents(effectiveLimit);
             return ResponseEntity.ok(events);
         } catch (Exception e) {
@@ -155,11 +167,11 @@ public class EventController {
      * GET /api/events/latest
      */
     @GetMapping("/latest")
-    public ResponseEntity<?> getLatestEvents() {
+    public ResponseEntity<?> getLatestEvents(WebRequest request) {
         try {
             // Get 3 latest published/ongoing events
-            List<LandingPageEventDTO> events = eventService.getLatestEvents(3);
-            return ResponseEntity.ok(events);
+            return publicList(request, new PublicEventResponseCache.Key("latest:3", null, null),
+                    () -> eventService.getLatestEvents(3));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(createErrorResponse("Failed to retrieve latest events: " + e.getMessage()));
@@ -172,11 +184,11 @@ public class EventController {
      */
     @GetMapping("/public/latest")
     public ResponseEntity<?> getPublicLatestEvents(
-            @RequestParam(defaultValue = "3") int limit) {
+            @RequestParam(defaultValue = "3") int limit, WebRequest request) {
         try {
             // Get latest published/ongoing events with specified limit
-            List<LandingPageEventDTO> events = eventService.getLatestEvents(limit);
-            return ResponseEntity.ok(events);
+            return publicList(request, new PublicEventResponseCache.Key("latest:" + limit, null, null),
+                    () -> eventService.getLatestEvents(limit));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(createErrorResponse("Failed to retrieve latest events: " + e.getMessage()));
@@ -192,11 +204,13 @@ public class EventController {
     @GetMapping("/public")
     public ResponseEntity<?> getPublicEvents(
             @RequestParam(required = false, defaultValue = "All") String category,
-            @RequestParam(required = false, defaultValue = "upcoming") String sortBy) {
+            @RequestParam(required = false, defaultValue = "upcoming") String sortBy,
+            WebRequest request) {
         try {
             // Get all published events with filtering and sorting
-            List<LandingPageEventDTO> events = eventService.getPublicEvents(category, sortBy);
-            return ResponseEntity.ok(events);
+            PublicEventResponseCache.Key key = new PublicEventResponseCache.Key("public",
+                    category.toLowerCase(Locale.ROOT), EventCatalogIndex.SortOrder.from(sortBy).name());
+            return publicList(request, key, () -> eventService.getPublicEvents(category, sortBy));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(createErrorResponse("Failed to retrieve events: " + e.getMessage()));
@@ -209,23 +223,30 @@ public class EventController {
      * @param eventId - The unique identifier of the event
      */
     @GetMapping("/public/{eventId}")
-    public ResponseEntity<?> getPublicEventById(@PathVariable String eventId) {
-        try {
-            System.out.println("Fetching event details for eventId: " + eventId);
-            // Get full event details
-            EventDetailDTO eventDetail = eventService.getEventDetailById(eventId);
-            System.out.println("Successfully fetched event: " + eventDetail.getTitle());
-            return ResponseEntity.ok(eventDetail);
-        } catch (RuntimeException e) {
-            System.err.println("Event not found: " + eventId + " - " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(createErrorResponse(e.getMessage()));
-        } catch (Exception e) {
-            System.err.println("Error fetching event: " + eventId + " - " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(createErrorResponse("Failed to retrieve event details: " + e.getMessage()));
+    public CompletableFuture<ResponseEntity<?>> getPublicEventById(@PathVariable String eventId, WebRequest request) {
+        EventService.Validators validators = eventService.publicEventValidators(eventId);
+        if (isNotModified(request, validators)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
         }
+        System.out.println("Fetching event details for eventId: " + eventId);
+        // Get full event details; the request thread is released while Firestore is read
+        return eventService.getEventDetailByIdAsync(eventId)
+                .<ResponseEntity<?>>thenApply(eventDetail -> {
+                    System.out.println("Successfully fetched event: " + eventDetail.getTitle());
+                    return ok(validators).body(eventDetail);
+                })
+                .exceptionally(error -> {
+                    Throwable e = CompletableFutures.unwrap(error);
+                    if (e instanceof RuntimeException && !(e instanceof ApiException)) {
+                        System.err.println("Event not found: " + eventId + " - " + e.getMessage());
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                .body(createErrorResponse(e.getMessage()));
+                    }
+                    System.err.println("Error fetching event: " + eventId + " - " + e.getMessage());
+                    e.printStackTrace();
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(createErrorResponse("Failed to retrieve event details: " + e.getMessage()));
+                });
     }
 
     /**
@@ -234,11 +255,11 @@ public class EventController {
      */
     @PutMapping("/{eventId}")
     public ResponseEntity<?> updateEvent(
-            @RequestHeader("Authorization") String authHeader,
+            FirebasePrincipal principal,
             @PathVariable String eventId,
             @RequestBody EventRequestDTO eventRequest) {
         try {
-            String coordinatorId = extractUserIdFromToken(authHeader);
+            String coordinatorId = principal.getUid();
             Event updatedEvent = eventService.updateEvent(eventId, coordinatorId, eventRequest);
             return ResponseEntity.ok(updatedEvent);
         } catch (IllegalArgumentException e) {
@@ -259,10 +280,10 @@ public class EventController {
      */
     @DeleteMapping("/{eventId}")
     public ResponseEntity<?> deleteEvent(
-            @RequestHeader("Authorization") String authHeader,
+            FirebasePrincipal principal,
             @PathVariable String eventId) {
         try {
-            String coordinatorId = extractUserIdFromToken(authHeader);
+            String coordinatorId = principal.getUid();
             eventService.deleteEvent(eventId, coordinatorId);
             Map<String, String> response = new HashMap<>();
             response.put("message", "Event deleted successfully");
@@ -286,11 +307,11 @@ public class EventController {
      */
     @PatchMapping("/{eventId}/status")
     public ResponseEntity<?> updateEventStatus(
-            @RequestHeader("Authorization") String authHeader,
+            FirebasePrincipal principal,
             @PathVariable String eventId,
             @RequestBody Map<String, String> statusUpdate) {
         try {
-            String coordinatorId = extractUserIdFromToken(authHeader);
+            String coordinatorId = principal.getUid();
             String newStatus = statusUpdate.get("status");
 
             if (newStatus == null || newStatus.isEmpty()) {
@@ -313,16 +334,84 @@ public class EventController {
     }
 
     /**
-     * Extract user ID from Firebase authentication token
+     * A public event list: 304 when the client's copy is current, otherwise the body from
+     * the response cache, gzip-encoded when the client accepts it. While the catalog is not
+     * live there are no validators and the body is built and serialized per request.
+     */
+    private ResponseEntity<?> publicList(WebRequest request, PublicEventResponseCache.Key key,
+                                         PublicEventResponseCache.BodyLoader loader)
+            throws ExecutionException, InterruptedException {
+        EventService.Validators catalog = eventService.publicCatalogValidators();
+        if (catalog == null) {
+            return ResponseEntity.ok(loader.load());
+        }
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        // The gzip encoding is a separate representation, so it needs its own strong ETag
+        EventService.Validators validators = gzip ? catalog.forGzip() : catalog;
+        if (isNotModified(request, validators)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        PublicEventResponseCache.Payload payload = responseCache.get(key, catalog.etag(), loader);
+        ResponseEntity.BodyBuilder ok = ok(validators)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzip());
+        }
+        return ok.body(payload.json());
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip (listed, or "*", without q=0)
      */
-    private String extractUserIdFromToken(String authHeader) throws FirebaseAuthException {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            throw new IllegalArgumentException("Invalid authorization header");
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.matches("q=0(\\.0{0,3})?")) {
+                    refused = true;
+                }
+            }
+            if (!refused) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        String token = authHeader.substring(7);
-        FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
-        return decodedToken.getUid();
+    /**
+     * Conditional GET: true when the client's copy is current (If-None-Match, else
+     * If-Modified-Since), so the caller answers 304 without reading or serializing anything
+     */
+    private static boolean isNotModified(WebRequest request, EventService.Validators validators) {
+        return validators != null && request.checkNotModified(validators.etag(), validators.lastModified());
+    }
+
+    /**
+     * 200 carrying the validators; no-cache lets browsers keep the body and revalidate it
+     * (Spring Security sends no-store otherwise)
+     */
+    private static ResponseEntity.BodyBuilder ok(EventService.Validators validators) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (validators == null) {
+            return ok;
+        }
+        ok.eTag(validators.etag()).cacheControl(CacheControl.noCache());
+        if (validators.lastModified() > 0) {
+            ok.lastModified(validators.lastModified());
+        }
+        return ok;
     }
 
     /**
@@ -2,10 +2,12 @@ package com.example.campusaura.controller;
 
 import com.example.campusaura.dto.FeedbackDTO;
 import com.example.campusaura.model.User;
+import com.example.campusaura.security.FirebasePrincipal;
 import com.example.campusaura.service.FeedbackService;
 import com.example.campusaura.service.UserService;
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseToken;
+import com.example.campusaura.util.CompletableFutures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,12 +16,15 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/events")
 @CrossOrigin(origins = "*")
 public class FeedbackController {
 
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackController.class);
+
     @Autowired
     private FeedbackService feedbackService;
 
@@ -31,15 +36,14 @@ public class FeedbackController {
      * GET /api/events/public/{eventId}/feedback
      */
     @GetMapping("/public/{eventId}/feedback")
-    public ResponseEntity<?> getEventFeedback(@PathVariable String eventId) {
-        try {
-            List<FeedbackDTO> feedback = feedbackService.getFeedbackByEventId(eventId);
-            return ResponseEntity.ok(feedback);
-        } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Failed to fetch feedback: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
-        }
+    public CompletableFuture<ResponseEntity<?>> getEventFeedback(@PathVariable String eventId) {
+        return feedbackService.getFeedbackByEventIdAsync(eventId)
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    // Feedback is optional on the event page: show none rather than an error
+                    logger.warn("Feedback query for event {} failed: {}", eventId, CompletableFutures.unwrap(e).getMessage());
+                    return ResponseEntity.ok(List.of());
+                });
     }
 
     /**
@@ -48,11 +52,11 @@ public class FeedbackController {
      */
     @PostMapping("/{eventId}/feedback")
     public ResponseEntity<?> addFeedback(
-            @RequestHeader("Authorization") String authHeader,
+            FirebasePrincipal principal,
             @PathVariable String eventId,
             @RequestBody Map<String, String> body) {
         try {
-            String uid = extractUserIdFromToken(authHeader);
+            String uid = principal.getUid();
             String text = body.get("text");
 
             if (text == null || text.trim().isEmpty()) {
@@ -73,13 +77,4 @@ public class FeedbackController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
-
-    private String extractUserIdFromToken(String authHeader) throws Exception {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            throw new IllegalArgumentException("Invalid authorization header");
-        }
-        String token = authHeader.substring(7);
-        FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
-        return decodedToken.getUid();
-    }
 }
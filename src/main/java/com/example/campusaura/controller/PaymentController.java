@@ -2,21 +2,26 @@ package com.example.campusaura.controller;
 
 import com.example.campusaura.dto.ProductSaleDTO;
 import com.example.campusaura.dto.TicketSaleDTO;
+import com.example.campusaura.model.Event;
 import com.example.campusaura.model.User;
+import com.example.campusaura.security.FirebasePrincipal;
+import com.example.campusaura.service.EventService;
 import com.example.campusaura.service.SalesService;
+import com.example.campusaura.service.SalesWriteBehind;
+import com.example.campusaura.service.TicketInventory;
 import com.example.campusaura.service.UserService;
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseToken;
 import com.stripe.Stripe;
 import com.stripe.model.PaymentIntent;
 import com.stripe.param.PaymentIntentCreateParams;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +41,12 @@ public class PaymentController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private TicketInventory ticketInventory;
+
     @PostConstruct
     public void init() {
         Stripe.apiKey = stripeSecretKey;
@@ -47,31 +58,62 @@ public class PaymentController {
      */
     @PostMapping("/create-ticket-intent")
     public ResponseEntity<?> createTicketPaymentIntent(
-            @RequestHeader("Authorization") String authHeader,
+            FirebasePrincipal principal,
             @RequestBody Map<String, Object> body) {
         try {
-            extractUserIdFromToken(authHeader); // Verify auth
-
             double amountLKR = ((Number) body.get("amount")).doubleValue();
             // Convert LKR to USD (approximate rate: 1 USD = 320 LKR)
             long amountUSD = Math.round((amountLKR / 320.0) * 100); // Stripe expects cents
             if (amountUSD < 50) amountUSD = 50; // Stripe minimum is $0.50
 
             String eventTitle = (String) body.get("eventTitle");
+            String eventId = (String) body.get("eventId");
+            String ticketCategory = (String) body.get("ticketCategory");
+            int ticketCount = body.get("ticketCount") instanceof Number n ? n.intValue() : 0;
+
+            // Seats are held for the PaymentIntent when the client says what it is buying
+            Event event = null;
+            if (ticketCategory != null && ticketCount > 0) {
+                event = eventService.getEventById(eventId);
+                if (event == null) {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Event not found with id: " + eventId);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+                }
+            }
 
             PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
                     .setAmount(amountUSD)
                     .setCurrency("usd")
                     .setDescription("Ticket purchase for: " + eventTitle)
                     .putMetadata("type", "ticket")
-                    .putMetadata("eventId", (String) body.get("eventId"))
+                    .putMetadata("eventId", eventId)
+                    .putMetadata("userId", principal.getUid())
                     .build();
 
             PaymentIntent intent = PaymentIntent.create(params);
 
+            Instant holdExpiresAt = null;
+            if (event != null) {
+                try {
+                    holdExpiresAt = ticketInventory.reserve(event, ticketCategory, ticketCount,
+                            intent.getId(), principal.getUid());
+                } catch (TicketInventory.SoldOutException | IllegalArgumentException e) {
+                    intent.cancel();
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", e.getMessage());
+                    HttpStatus status = e instanceof TicketInventory.SoldOutException
+                            ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST;
+                    return ResponseEntity.status(status).body(error);
+                }
+            }
+
             Map<String, String> response = new HashMap<>();
             response.put("clientSecret", intent.getClientSecret());
             response.put("paymentIntentId", intent.getId());
+            if (holdExpiresAt != null) {
+                response.put("holdExpiresAt", holdExpiresAt.toString());
+            }
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -84,13 +126,14 @@ public class PaymentController {
     /**
      * Confirm ticket purchase after successful payment
      * POST /api/payments/confirm-ticket
+     * Idempotent per stripePaymentId: retries return the sale already recorded
      */
     @PostMapping("/confirm-ticket")
     public ResponseEntity<?> confirmTicketPurchase(
-            @RequestHeader("Authorization") String authHeader,
+            FirebasePrincipal principal,
             @RequestBody TicketSaleDTO saleData) {
         try {
-            String uid = extractUserIdFromToken(authHeader);
+            String uid = principal.getUid();
             User user = userService.getUserByUid(uid);
 
             saleData.setUserId(uid);
@@ -98,7 +141,30 @@ public class PaymentController {
             saleData.setUserEmail(user.getEmail());
 
             TicketSaleDTO saved = salesService.saveTicketSale(saleData);
+
+            // Held seats become sold; payments made without a hold take their seats now
+            if (!ticketInventory.commit(saved.getStripePaymentId())) {
+                Event event = eventService.getEventById(saved.getEventId());
+                if (event != null) {
+                    ticketInventory.commitWithoutReservation(event, saved.getTicketCategory(),
+                            saved.getTicketCount(), saved.getStripePaymentId(), uid);
+                }
+            }
             return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (SalesWriteBehind.BacklogFullException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to confirm ticket purchase: " + e.getMessage());
@@ -106,17 +172,55 @@ public class PaymentController {
         }
     }
 
+    /**
+     * Cancel an unpaid ticket PaymentIntent and give its held seats back
+     * POST /api/payments/cancel-ticket-intent
+     */
+    @PostMapping("/cancel-ticket-intent")
+    public ResponseEntity<?> cancelTicketPaymentIntent(
+            FirebasePrincipal principal,
+            @RequestBody Map<String, Object> body) {
+        try {
+            String paymentIntentId = (String) body.get("paymentIntentId");
+            if (paymentIntentId == null || paymentIntentId.isBlank()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "paymentIntentId is required");
+                return ResponseEntity.badRequest().body(error);
+            }
+
+            PaymentIntent intent = PaymentIntent.retrieve(paymentIntentId);
+            if (!principal.getUid().equals(intent.getMetadata().get("userId"))) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Payment intent does not belong to this user");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+            }
+            if ("succeeded".equals(intent.getStatus())) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Payment already succeeded");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+            }
+            if (!"canceled".equals(intent.getStatus())) {
+                intent.cancel();
+            }
+
+            boolean released = ticketInventory.release(paymentIntentId);
+            return ResponseEntity.ok(Map.of("released", released));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to cancel payment intent: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
     /**
      * Create a Stripe PaymentIntent for product purchase
      * POST /api/payments/create-product-intent
      */
     @PostMapping("/create-product-intent")
     public ResponseEntity<?> createProductPaymentIntent(
-            @RequestHeader("Authorization") String authHeader,
+            FirebasePrincipal principal,
             @RequestBody Map<String, Object> body) {
         try {
-            extractUserIdFromToken(authHeader);
-
             double amountLKR = ((Number) body.get("amount")).doubleValue();
             long amountUSD = Math.round((amountLKR / 320.0) * 100);
             if (amountUSD < 50) amountUSD = 50;
@@ -145,13 +249,14 @@ public class PaymentController {
     /**
      * Confirm product purchase after successful payment
      * POST /api/payments/confirm-product
+     * Idempotent per stripePaymentId: retries return the sale already recorded
      */
     @PostMapping("/confirm-product")
     public ResponseEntity<?> confirmProductPurchase(
-            @RequestHeader("Authorization") String authHeader,
+            FirebasePrincipal principal,
             @RequestBody ProductSaleDTO saleData) {
         try {
-            String uid = extractUserIdFromToken(authHeader);
+            String uid = principal.getUid();
             User user = userService.getUserByUid(uid);
 
             saleData.setUserId(uid);
@@ -160,19 +265,24 @@ public class PaymentController {
 
             ProductSaleDTO saved = salesService.saveProductSale(saleData);
             return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (SalesWriteBehind.BacklogFullException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to confirm product purchase: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
-
-    private String extractUserIdFromToken(String authHeader) throws Exception {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            throw new IllegalArgumentException("Invalid authorization header");
-        }
-        String token = authHeader.substring(7);
-        FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
-        return decodedToken.getUid();
-    }
 }
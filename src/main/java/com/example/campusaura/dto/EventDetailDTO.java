@@ -26,6 +26,7 @@ public class EventDetailDTO {
     private List<TicketCategory> ticketCategories;
     private Integer totalSpots;
     private Integer availableSpots;
+    private Integer heldSpots;  // Seats held by payments in progress
     
     // Event schedule (from pastEventDetails)
     private List<ScheduleItem> schedule;
@@ -147,6 +148,14 @@ public class EventDetailDTO {
         this.availableSpots = availableSpots;
     }
 
+    public Integer getHeldSpots() {
+        return heldSpots;
+    }
+
+    public void setHeldSpots(Integer heldSpots) {
+        this.heldSpots = heldSpots;
+    }
+
     public List<ScheduleItem> getSchedule() {
         return schedule;
     }
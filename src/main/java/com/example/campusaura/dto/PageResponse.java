@@ -0,0 +1,37 @@
+package com.example.campusaura.dto;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated list.
+ * nextCursor is passed back as ?cursor= to get the following page; null on the last page.
+ */
+public class PageResponse<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    // Constructors
+    public PageResponse() {}
+
+    public PageResponse(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.campusaura.dto;
+
+/**
+ * Sales totals for one rollup bucket (an hour, day or month).
+ * period is yyyy-MM-dd'T'HH, yyyy-MM-dd or yyyy-MM depending on the granularity.
+ */
+public class RevenueBucketDTO {
+    private String period;
+    private double ticketRevenue;
+    private double productRevenue;
+    private double totalRevenue;
+    private long ticketsSold;
+    private long itemsSold;
+    private long orders;
+
+    // Constructors
+    public RevenueBucketDTO() {}
+
+    public RevenueBucketDTO(String period, double ticketRevenue, double productRevenue,
+                            long ticketsSold, long itemsSold, long orders) {
+        this.period = period;
+        this.ticketRevenue = ticketRevenue;
+        this.productRevenue = productRevenue;
+        this.totalRevenue = ticketRevenue + productRevenue;
+        this.ticketsSold = ticketsSold;
+        this.itemsSold = itemsSold;
+        this.orders = orders;
+    }
+
+    // Getters and Setters
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public double getTicketRevenue() {
+        return ticketRevenue;
+    }
+
+    public void setTicketRevenue(double ticketRevenue) {
+        this.ticketRevenue = ticketRevenue;
+    }
+
+    public double getProductRevenue() {
+        return productRevenue;
+    }
+
+    public void setProductRevenue(double productRevenue) {
+        this.productRevenue = productRevenue;
+    }
+
+    public double getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    public void setTotalRevenue(double totalRevenue) {
+        this.totalRevenue = totalRevenue;
+    }
+
+    public long getTicketsSold() {
+        return ticketsSold;
+    }
+
+    public void setTicketsSold(long ticketsSold) {
+        this.ticketsSold = ticketsSold;
+    }
+
+    public long getItemsSold() {
+        return itemsSold;
+    }
+
+    public void setItemsSold(long itemsSold) {
+        this.itemsSold = itemsSold;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public void setOrders(long orders) {
+        this.orders = orders;
+    }
+}
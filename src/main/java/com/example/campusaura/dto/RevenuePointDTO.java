@@ -0,0 +1,65 @@
+package com.example.campusaura.dto;
+
+/**
+ * Completed revenue for one period of a chart series.
+ * period is yyyy-MM-dd for daily series and yyyy-MM for monthly series.
+ */
+public class RevenuePointDTO {
+    private String period;
+    private double ticketRevenue;
+    private double marketplaceRevenue;
+    private double totalRevenue;
+    private long transactionCount;
+
+    // Constructors
+    public RevenuePointDTO() {}
+
+    public RevenuePointDTO(String period, double ticketRevenue, double marketplaceRevenue, long transactionCount) {
+        this.period = period;
+        this.ticketRevenue = ticketRevenue;
+        this.marketplaceRevenue = marketplaceRevenue;
+        this.totalRevenue = ticketRevenue + marketplaceRevenue;
+        this.transactionCount = transactionCount;
+    }
+
+    // Getters and Setters
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public double getTicketRevenue() {
+        return ticketRevenue;
+    }
+
+    public void setTicketRevenue(double ticketRevenue) {
+        this.ticketRevenue = ticketRevenue;
+    }
+
+    public double getMarketplaceRevenue() {
+        return marketplaceRevenue;
+    }
+
+    public void setMarketplaceRevenue(double marketplaceRevenue) {
+        this.marketplaceRevenue = marketplaceRevenue;
+    }
+
+    public double getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    public void setTotalRevenue(double totalRevenue) {
+        this.totalRevenue = totalRevenue;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+}
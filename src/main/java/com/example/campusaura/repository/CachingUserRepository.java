@@ -0,0 +1,139 @@
+package com.example.campusaura.repository;
+
+import com.example.campusaura.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caching decorator for FirestoreUserRepository (the primary UserRepository).
+ *
+ * Every authenticated request resolves its user in FirebaseAuthFilter, and
+ * controllers usually resolve the same user again, so lookups are served from:
+ * - the current request (the resolved User is stashed as a request attribute),
+ *   so one request reads the user document at most once
+ * - a shared cache with a short TTL and a size bound
+ *
+ * save() waits for the write, and save() and invalidate() drop both. A lookup that
+ * started before an invalidation does not cache what it read, so a role change
+ * (e.g. a demoted admin) is never masked by the old document for the TTL.
+ * Missing users are not cached, so a user created by another code path is found
+ * on the next lookup.
+ * Callers receive copies and may modify them freely.
+ */
+@Repository
+@Primary
+public class CachingUserRepository implements UserRepository {
+
+    private static final String REQUEST_ATTRIBUTE_PREFIX = CachingUserRepository.class.getName() + ".";
+
+    private final FirestoreUserRepository delegate;
+    private final long ttlMillis;
+    private final int maxSize;
+
+    private final Map<String, CachedUser> users = new ConcurrentHashMap<>();
+    // Bumped on every invalidation; reads that overlap one are not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private record CachedUser(User user, long expiresAt) {
+    }
+
+    public CachingUserRepository(FirestoreUserRepository delegate,
+                                 @Value("${campusaura.users.cache.ttl-ms:30000}") long ttlMillis,
+                                 @Value("${campusaura.users.cache.max-size:10000}") int maxSize) {
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void save(User user) {
+        invalidate(user.getUid());
+        delegate.save(user);
+        invalidate(user.getUid());
+    }
+
+    @Override
+    public Optional<User> findByUid(String uid) {
+        User stashed = fromRequest(uid);
+        if (stashed != null) {
+            return Optional.of(copy(stashed));
+        }
+
+        CachedUser cached = users.get(uid);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            stashInRequest(uid, cached.user());
+            return Optional.of(copy(cached.user()));
+        }
+
+        long generation = invalidations.get();
+        Optional<User> found = delegate.findByUid(uid);
+        found.ifPresent(user -> {
+            User snapshot = copy(user);
+            cache(uid, snapshot, generation);
+            stashInRequest(uid, snapshot);
+        });
+        return found;
+    }
+
+    @Override
+    public boolean existsByUid(String uid) {
+        return fromRequest(uid) != null || findByUid(uid).isPresent();
+    }
+
+    /**
+     * Drop a user from the cache (call after writing the user document directly)
+     */
+    public void invalidate(String uid) {
+        if (uid == null) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        users.remove(uid);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.removeAttribute(REQUEST_ATTRIBUTE_PREFIX + uid, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    // ==================== INTERNAL ====================
+
+    // Caches a read unless an invalidation happened since it started (checked atomically with the put)
+    private void cache(String uid, User user, long generation) {
+        long now = System.currentTimeMillis();
+        if (users.size() >= maxSize) {
+            users.values().removeIf(cached -> cached.expiresAt() <= now);
+            if (users.size() >= maxSize) {
+                return;
+            }
+        }
+        users.compute(uid, (key, current) -> invalidations.get() == generation
+                ? new CachedUser(user, now + ttlMillis) : current);
+    }
+
+    private static User fromRequest(String uid) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                ? (User) attributes.getAttribute(REQUEST_ATTRIBUTE_PREFIX + uid, RequestAttributes.SCOPE_REQUEST)
+                : null;
+    }
+
+    private static void stashInRequest(String uid, User user) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(REQUEST_ATTRIBUTE_PREFIX + uid, user, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static User copy(User user) {
+        return new User(user.getUid(), user.getEmail(), user.getName(), user.getRole(), user.isVerified(),
+                user.getDegreeProgram(), user.getStudentIdUrl(), user.getCreatedAt(), user.getUpdatedAt());
+    }
+}
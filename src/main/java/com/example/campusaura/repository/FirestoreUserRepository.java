@@ -30,14 +30,22 @@ public class FirestoreUserRepository implements UserRepository {
         this.firestore = firestore;
     }
 
+    /**
+     * Writes the user and waits for the commit, so a lookup after save() sees the new document
+     */
     @Override
     public void save(User user) {
         try {
             firestore.collection(COLLECTION)
                     .document(user.getUid())
-                    .set(user);
+                    .set(user)
+                    .get();
 
             logger.debug("User saved to Firestore: {}", user.getUid());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Thread interrupted while saving user: {}", user.getUid(), e);
+            throw new RuntimeException("Failed to save user", e);
         } catch (Exception e) {
             logger.error("Failed to save user: {}", user.getUid(), e);
             throw new RuntimeException("Failed to save user", e);
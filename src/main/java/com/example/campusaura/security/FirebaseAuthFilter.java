@@ -3,6 +3,7 @@ package com.example.campusaura.security;
 import com.example.campusaura.model.User;
 import com.example.campusaura.service.UserService;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
 import com.google.firebase.auth.FirebaseToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -10,6 +11,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -26,6 +28,7 @@ import java.util.List;
  *
  * PATTERN:
  * - Verifies Firebase ID token
+ * - Skips re-verification of tokens seen before (VerifiedTokenCache)
  * - Fetches user role from Firestore (single source of truth)
  * - Creates or syncs user in database
  */
@@ -34,9 +37,26 @@ public class FirebaseAuthFilter extends OncePerRequestFilter {
 
   private static final Logger logger = LoggerFactory.getLogger(FirebaseAuthFilter.class);
   private final UserService userService;
+  private final VerifiedTokenCache tokenCache;
+  private final IdTokenVerifier tokenVerifier;
 
-  public FirebaseAuthFilter(UserService userService) {
+  /**
+   * Verifies the signature of a Firebase ID token
+   */
+  @FunctionalInterface
+  interface IdTokenVerifier {
+    FirebaseToken verify(String idToken) throws FirebaseAuthException;
+  }
+
+  @Autowired
+  public FirebaseAuthFilter(UserService userService, VerifiedTokenCache tokenCache) {
+    this(userService, tokenCache, idToken -> FirebaseAuth.getInstance().verifyIdToken(idToken));
+  }
+
+  FirebaseAuthFilter(UserService userService, VerifiedTokenCache tokenCache, IdTokenVerifier tokenVerifier) {
     this.userService = userService;
+    this.tokenCache = tokenCache;
+    this.tokenVerifier = tokenVerifier;
   }
 
   @Override
@@ -59,9 +79,13 @@ public class FirebaseAuthFilter extends OncePerRequestFilter {
       String token = authHeader.substring(7);
 
       try {
-        // Verify Firebase token
-        FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
-        logger.debug("✅ Token verified for UID: {}", decodedToken.getUid());
+        // Verify Firebase token (skipped when this token was already verified and has not expired)
+        FirebaseToken decodedToken = tokenCache.get(token);
+        if (decodedToken == null) {
+          decodedToken = tokenVerifier.verify(token);
+          tokenCache.put(token, decodedToken);
+          logger.debug("✅ Token verified for UID: {}", decodedToken.getUid());
+        }
 
         // Get or create user in Firestore (single source of truth for roles)
         User user = userService.getOrCreateUser(
@@ -93,6 +117,15 @@ public class FirebaseAuthFilter extends OncePerRequestFilter {
         request.setAttribute("firebaseEmail", decodedToken.getEmail());
         request.setAttribute("firebaseName", decodedToken.getName());
 
+        // Verified identity for controllers (see FirebasePrincipalArgumentResolver)
+        request.setAttribute(FirebasePrincipal.REQUEST_ATTRIBUTE, new FirebasePrincipal(
+            decodedToken.getUid(),
+            decodedToken.getEmail(),
+            decodedToken.getName(),
+            role,
+            decodedToken.getClaims()
+        ));
+
         logger.debug("Authenticated user: {} with role: {}", decodedToken.getUid(), role);
 
       } catch (Exception e) {
@@ -10,6 +10,11 @@ import java.util.Map;
  */
 public class FirebasePrincipal {
 
+    /**
+     * Request attribute under which FirebaseAuthFilter stores the principal
+     */
+    public static final String REQUEST_ATTRIBUTE = FirebasePrincipal.class.getName();
+
     private final String uid;
     private final String email;
     private final String name;
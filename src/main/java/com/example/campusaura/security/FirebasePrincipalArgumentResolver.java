@@ -0,0 +1,37 @@
+package com.example.campusaura.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves FirebasePrincipal controller parameters.
+ *
+ * The principal is the identity FirebaseAuthFilter built after verifying the
+ * ID token, so controllers get the caller's UID, email and role without
+ * parsing the Authorization header or verifying the token a second time.
+ * Requests that were not authenticated by the filter are rejected with 401.
+ */
+public class FirebasePrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return FirebasePrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public FirebasePrincipal resolveArgument(MethodParameter parameter,
+                                             ModelAndViewContainer mavContainer,
+                                             NativeWebRequest webRequest,
+                                             WebDataBinderFactory binderFactory) {
+        Object principal = webRequest.getAttribute(FirebasePrincipal.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (principal instanceof FirebasePrincipal firebasePrincipal) {
+            return firebasePrincipal;
+        }
+        throw new AuthenticationCredentialsNotFoundException("No verified Firebase token for this request");
+    }
+}
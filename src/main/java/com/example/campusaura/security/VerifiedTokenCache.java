@@ -0,0 +1,120 @@
+package com.example.campusaura.security;
+
+import com.google.firebase.auth.FirebaseToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of Firebase ID tokens that have already been verified.
+ *
+ * A browser sends the same ID token on every request until it is refreshed
+ * (about once an hour), so FirebaseAuthFilter only needs to check the RSA
+ * signature the first time it sees a token.
+ *
+ * - Entries are keyed by a SHA-256 hash of the token; raw tokens are not retained
+ * - An entry is dropped once the token's "exp" claim has passed, so a cached
+ *   token is never accepted after it would have been rejected by Firebase
+ * - The cache holds at most campusaura.auth.token-cache.max-size tokens; when
+ *   it is full of live tokens, new tokens are verified but not cached
+ * - Hits and misses are counted in "campusaura.auth.token_cache" (tag result)
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final boolean enabled;
+    private final int maxSize;
+
+    private final Map<String, CachedToken> tokens = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    private record CachedToken(FirebaseToken token, long expiresAt) {
+    }
+
+    @Autowired
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${campusaura.auth.token-cache.enabled:true}") boolean enabled,
+                              @Value("${campusaura.auth.token-cache.max-size:10000}") int maxSize) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+
+        this.hits = Counter.builder("campusaura.auth.token_cache")
+                .description("Verified ID token cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("campusaura.auth.token_cache")
+                .description("Verified ID token cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("campusaura.auth.token_cache.size", tokens, Map::size)
+                .description("Number of cached verified ID tokens")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The decoded token if this exact token was verified before and has not expired, otherwise null
+     */
+    public FirebaseToken get(String idToken) {
+        if (!enabled) {
+            return null;
+        }
+        String key = hash(idToken);
+        CachedToken cached = tokens.get(key);
+        if (cached != null) {
+            if (cached.expiresAt() > System.currentTimeMillis()) {
+                hits.increment();
+                return cached.token();
+            }
+            tokens.remove(key, cached);
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Remember a token that has just been verified
+     */
+    public void put(String idToken, FirebaseToken decodedToken) {
+        if (!enabled) {
+            return;
+        }
+        long expiresAt = expiresAt(decodedToken);
+        long now = System.currentTimeMillis();
+        if (expiresAt <= now) {
+            return;
+        }
+        if (tokens.size() >= maxSize) {
+            tokens.values().removeIf(cached -> cached.expiresAt() <= now);
+            if (tokens.size() >= maxSize) {
+                return;
+            }
+        }
+        tokens.put(hash(idToken), new CachedToken(decodedToken, expiresAt));
+    }
+
+    // "exp" claim (seconds since epoch) in milliseconds; 0 if missing
+    private static long expiresAt(FirebaseToken decodedToken) {
+        Object exp = decodedToken.getClaims().get("exp");
+        return exp instanceof Number number ? number.longValue() * 1000 : 0;
+    }
+
+    private static String hash(String idToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(idToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.campusaura.service;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.Firestore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves coordinator display names for joins against the coordinators collection.
+ *
+ * Names are cached for a few minutes; cache misses for a whole batch of IDs are
+ * resolved with a single Firestore multi-get, so joining N events costs at most
+ * one round trip regardless of N.
+ */
+@Component
+public class CoordinatorDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoordinatorDirectory.class);
+
+    private static final String COLLECTION_NAME = "coordinators";
+    static final String UNKNOWN_COORDINATOR = "Unknown Coordinator";
+    private static final long TTL_MILLIS = 5 * 60 * 1000;
+
+    @Autowired
+    private Firestore firestore;
+
+    private final Map<String, CachedName> names = new ConcurrentHashMap<>();
+
+    private record CachedName(String name, long expiresAt) {
+    }
+
+    /**
+     * Get the display name of a single coordinator
+     */
+    public String resolveName(String coordinatorId) {
+        return resolveNames(Collections.singleton(coordinatorId)).get(coordinatorId);
+    }
+
+    /**
+     * Get display names for a set of coordinator IDs.
+     * Every requested ID is present in the result; unknown IDs map to "Unknown Coordinator".
+     */
+    public Map<String, String> resolveNames(Collection<String> coordinatorIds) {
+        Map<String, String> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        for (String id : new LinkedHashSet<>(coordinatorIds)) {
+            if (id == null || id.isEmpty()) {
+                result.put(id, UNKNOWN_COORDINATOR);
+                continue;
+            }
+            CachedName cached = names.get(id);
+            if (cached != null && cached.expiresAt() > now) {
+                result.put(id, cached.name());
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            result.putAll(fetchNames(missing));
+        }
+        return result;
+    }
+
+    /**
+     * Drop a cached name (call after a coordinator is created, updated or deleted)
+     */
+    public void invalidate(String coordinatorId) {
+        if (coordinatorId != null) {
+            names.remove(coordinatorId);
+        }
+    }
+
+    private Map<String, String> fetchNames(List<String> coordinatorIds) {
+        Map<String, String> fetched = new HashMap<>();
+        DocumentReference[] refs = coordinatorIds.stream()
+                .map(id -> firestore.collection(COLLECTION_NAME).document(id))
+                .toArray(DocumentReference[]::new);
+
+        try {
+            List<DocumentSnapshot> docs = firestore.getAll(refs, FieldMask.of("firstName", "lastName")).get();
+            long expiresAt = System.currentTimeMillis() + TTL_MILLIS;
+            for (DocumentSnapshot doc : docs) {
+                String name = doc.exists()
+                        ? doc.getString("firstName") + " " + doc.getString("lastName")
+                        : UNKNOWN_COORDINATOR;
+                names.put(doc.getId(), new CachedName(name, expiresAt));
+                fetched.put(doc.getId(), name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while resolving coordinator names");
+        } catch (Exception e) {
+            logger.warn("Failed to resolve {} coordinator names: {}", coordinatorIds.size(), e.getMessage());
+        }
+
+        for (String id : coordinatorIds) {
+            fetched.putIfAbsent(id, UNKNOWN_COORDINATOR);
+        }
+        return fetched;
+    }
+}
@@ -1,18 +1,23 @@
 package com.example.campusaura.service;
 
+import com.example.campusaura.config.CacheConfig;
 import com.example.campusaura.dto.CoordinatorRequestDTO;
 import com.example.campusaura.dto.CoordinatorResponseDTO;
 import com.example.campusaura.model.Coordinator;
 import com.example.campusaura.security.Roles;
+import com.example.campusaura.util.CompletableFutures;
 import com.google.api.core.ApiFuture;
 import com.google.cloud.firestore.*;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.UserRecord;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
@@ -28,9 +33,13 @@ public class CoordinatorService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private CoordinatorDirectory coordinatorDirectory;
+
     private static final String COLLECTION_NAME = "coordinators";
 
     // Register a new coordinator
+    @CacheEvict(cacheNames = {CacheConfig.COORDINATORS, CacheConfig.USERS}, allEntries = true)
     public CoordinatorResponseDTO registerCoordinator(CoordinatorRequestDTO request) throws ExecutionException, InterruptedException {
         String firebaseUid = null;
         
@@ -87,29 +96,42 @@ public class CoordinatorService {
         
         Map<String, Object> data = coordinatorToMap(coordinator);
         docRef.set(data).get();
+        coordinatorDirectory.invalidate(coordinator.getId());
 
         return coordinatorToDTO(coordinator, 0);
     }
 
     // Get all coordinators
     public List<CoordinatorResponseDTO> getAllCoordinators() throws ExecutionException, InterruptedException {
+        return CompletableFutures.await(getAllCoordinatorsAsync());
+    }
+
+    @Cacheable(cacheNames = CacheConfig.COORDINATORS, key = "'all'", sync = true)
+    public CompletableFuture<List<CoordinatorResponseDTO>> getAllCoordinatorsAsync() {
         ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME).get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
 
-        return documents.stream()
+        // One aggregation for all coordinators instead of one query per coordinator.
+        // Read from the catalog index while the query is in flight, on the calling thread.
+        Map<String, Integer> eventCounts;
+        try {
+            eventCounts = eventService.getEventCountsByCoordinator();
+        } catch (ExecutionException | InterruptedException e) {
+            future.cancel(false);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return CompletableFutures.of(future).thenApply(snapshot -> snapshot.getDocuments().stream()
                 .map(this::documentToCoordinator)
-                .map(coordinator -> {
-                    try {
-                        int eventCount = eventService.getEventCountByCoordinator(coordinator.getId());
-                        return coordinatorToDTO(coordinator, eventCount);
-                    } catch (ExecutionException | InterruptedException e) {
-                        return coordinatorToDTO(coordinator, 0);
-                    }
-                })
-                .collect(Collectors.toList());
+                .map(coordinator -> coordinatorToDTO(coordinator,
+                        eventCounts.getOrDefault(coordinator.getId(), 0)))
+                .collect(Collectors.toList()));
     }
 
     // Get coordinator by ID
+    @Cacheable(cacheNames = CacheConfig.COORDINATORS, key = "'id:' + #id", sync = true)
     public CoordinatorResponseDTO getCoordinatorById(String id) throws ExecutionException, InterruptedException {
         DocumentSnapshot document = firestore.collection(COLLECTION_NAME).document(id).get().get();
         
@@ -123,6 +145,7 @@ public class CoordinatorService {
     }
 
     // Update coordinator
+    @CacheEvict(cacheNames = {CacheConfig.COORDINATORS, CacheConfig.EVENTS}, allEntries = true)
     public CoordinatorResponseDTO updateCoordinator(String id, CoordinatorRequestDTO request) throws ExecutionException, InterruptedException {
         DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
         DocumentSnapshot document = docRef.get().get();
@@ -142,6 +165,7 @@ public class CoordinatorService {
         updates.put("updatedAt", LocalDateTime.now().toString());
 
         docRef.update(updates).get();
+        coordinatorDirectory.invalidate(id);
 
         Coordinator coordinator = documentToCoordinator(docRef.get().get());
         int eventCount = eventService.getEventCountByCoordinator(id);
@@ -149,6 +173,7 @@ public class CoordinatorService {
     }
 
     // Update coordinator status (active/inactive)
+    @CacheEvict(cacheNames = CacheConfig.COORDINATORS, allEntries = true)
     public CoordinatorResponseDTO updateCoordinatorStatus(String id, boolean active) throws ExecutionException, InterruptedException {
         DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
         DocumentSnapshot document = docRef.get().get();
@@ -169,6 +194,7 @@ public class CoordinatorService {
     }
 
     // Delete coordinator
+    @CacheEvict(cacheNames = {CacheConfig.COORDINATORS, CacheConfig.EVENTS}, allEntries = true)
     public void deleteCoordinator(String id) throws ExecutionException, InterruptedException {
         DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
         DocumentSnapshot document = docRef.get().get();
@@ -178,6 +204,7 @@ public class CoordinatorService {
         }
 
         docRef.delete().get();
+        coordinatorDirectory.invalidate(id);
     }
 
     // Helper methods
@@ -0,0 +1,32 @@
+package com.example.campusaura.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Description of a document count: a collection plus equality filters.
+ * Used as the cache key for counts, so two equal queries share one result.
+ */
+public record CountQuery(String collection, Map<String, Object> filters) {
+
+    public CountQuery {
+        filters = Collections.unmodifiableMap(new LinkedHashMap<>(filters));
+    }
+
+    /**
+     * Count every document in a collection
+     */
+    public static CountQuery of(String collection) {
+        return new CountQuery(collection, Map.of());
+    }
+
+    /**
+     * Add an equality filter
+     */
+    public CountQuery where(String field, Object value) {
+        Map<String, Object> next = new LinkedHashMap<>(filters);
+        next.put(field, value);
+        return new CountQuery(collection, next);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.campusaura.service;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Shared document counting for dashboard and admin count endpoints.
+ *
+ * Counts come from the DocumentCounter (server-side aggregation in production)
+ * and are cached in-process for a short TTL. Write paths call invalidate()
+ * for the collection they modified so admins see their own changes immediately.
+ */
+@Service
+public class CountService {
+
+    private final DocumentCounter counter;
+    private final long ttlMillis;
+
+    private final Map<CountQuery, CachedCount> cache = new ConcurrentHashMap<>();
+
+    private record CachedCount(long value, long expiresAt) {
+    }
+
+    public CountService(DocumentCounter counter,
+                        @Value("${campusaura.counts.ttl-ms:10000}") long ttlMillis) {
+        this.counter = counter;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Number of documents matching the query (possibly cached for up to the TTL)
+     */
+    public long count(CountQuery query) throws ExecutionException, InterruptedException {
+        CachedCount cached = cache.get(query);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.value();
+        }
+        return recount(query);
+    }
+
+    /**
+     * Count bypassing the cache, and cache the fresh result
+     */
+    public long recount(CountQuery query) throws ExecutionException, InterruptedException {
+        return recountAsync(query).get();
+    }
+
+    /**
+     * Non-blocking recount; the fresh result is cached when the future completes
+     */
+    public ApiFuture<Long> recountAsync(CountQuery query) {
+        return ApiFutures.transform(counter.countAsync(query), value -> {
+            cache.put(query, new CachedCount(value, System.currentTimeMillis() + ttlMillis));
+            return value;
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Drop every cached count of a collection
+     */
+    public void invalidate(String collection) {
+        cache.keySet().removeIf(query -> query.collection().equals(collection));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.campusaura.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live totals for the admin dashboard.
+ *
+ * Each total is a baseline taken from a periodic recount (DashboardService's
+ * refresher) plus the deltas reported by the write paths since then, so the
+ * dashboard reflects creates and deletes immediately without re-counting.
+ *
+ * Deltas are kept as a running sum: the refresher calls mark() before counting
+ * and rebase() afterwards, so writes that land while the count is in flight are
+ * still applied on top of the new baseline.
+ */
+@Component
+public class DashboardCounters {
+
+    public enum Metric {
+        EVENTS, USERS, PRODUCTS, PRODUCTS_SOLD
+    }
+
+    // Running sum of all deltas reported since startup
+    private final Map<Metric, AtomicLong> deltas = new EnumMap<>(Metric.class);
+
+    // Recounted total minus the running delta at the time of the recount
+    private final Map<Metric, AtomicLong> baselines = new EnumMap<>(Metric.class);
+
+    public DashboardCounters() {
+        for (Metric metric : Metric.values()) {
+            deltas.put(metric, new AtomicLong());
+            baselines.put(metric, new AtomicLong());
+        }
+    }
+
+    /**
+     * Report a change made by a write path (+1 on create, -1 on delete)
+     */
+    public void record(Metric metric, long delta) {
+        deltas.get(metric).addAndGet(delta);
+    }
+
+    /**
+     * Running delta to pass to rebase(); take it just before recounting
+     */
+    public long mark(Metric metric) {
+        return deltas.get(metric).get();
+    }
+
+    /**
+     * Set the baseline from a recount started after mark()
+     */
+    public void rebase(Metric metric, long counted, long mark) {
+        baselines.get(metric).set(counted - mark);
+    }
+
+    /**
+     * Current total: last recount plus every delta reported after it
+     */
+    public long current(Metric metric) {
+        return Math.max(0, baselines.get(metric).get() + deltas.get(metric).get());
+    }
+}
@@ -2,17 +2,51 @@ package com.example.campusaura.service;
 
 import com.example.campusaura.dto.DashboardStatsDTO;
 import com.example.campusaura.dto.EventResponseDTO;
+import com.example.campusaura.dto.TopCoordinatorDTO;
+import com.example.campusaura.model.Product;
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
 import com.google.cloud.firestore.*;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Admin dashboard statistics.
+ *
+ * The statistics are materialized by a background refresher (every
+ * campusaura.dashboard.refresh-ms) and the admin endpoint only reads the last
+ * snapshot. Totals are overlaid with DashboardCounters on every read, so event,
+ * user and product writes show up without waiting for the next refresh.
+ *
+ * Percentage changes compare against the totals recorded in the
+ * dashboard_history collection (one document per day) 30 days earlier.
+ *
+ * A refresh issues its Firestore reads concurrently and records the latency of
+ * each one in the "campusaura.dashboard.query" timer (tagged by query).
+ */
 @Service
 public class DashboardService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    private static final String HISTORY_COLLECTION = "dashboard_history";
+    private static final int RECENT_EVENTS_LIMIT = 5;
+    private static final int TOP_COORDINATORS_LIMIT = 5;
+    private static final int COMPARISON_DAYS = 30;
+
     @Autowired
     private Firestore firestore;
 
@@ -20,47 +54,203 @@ public class DashboardService {
     private EventService eventService;
 
     @Autowired
-    private ProductService productService;
+    private CountService countService;
+
+    @Autowired
+    private DashboardCounters counters;
+
+    @Autowired
+    private CoordinatorDirectory coordinatorDirectory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Last materialized statistics (null until the first refresh)
+    private volatile DashboardStatsDTO snapshot;
+
+    // Serializes refreshes. A lock rather than synchronized, so a virtual thread waiting on
+    // Firestore inside a refresh does not pin its carrier thread.
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    // Guarded by refreshLock: day already written to the history, and the comparison baseline
+    private LocalDate recordedDay;
+    private LocalDate baselineDay;
+    private Map<String, Object> baseline;
 
     // Get dashboard statistics
     public DashboardStatsDTO getDashboardStats() throws ExecutionException, InterruptedException {
-        DashboardStatsDTO stats = new DashboardStatsDTO();
+        DashboardStatsDTO current = snapshot;
+        if (current == null) {
+            current = refreshNow();
+        }
+        return withLiveTotals(current);
+    }
+
+    /**
+     * Background refresh of the materialized statistics
+     */
+    @Scheduled(fixedDelayString = "${campusaura.dashboard.refresh-ms:60000}",
+            initialDelayString = "${campusaura.dashboard.initial-delay-ms:5000}")
+    public void refresh() {
+        try {
+            refreshNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Failed to refresh dashboard statistics: {}", e.getMessage());
+        }
+    }
 
-        // Get total events count
-        long totalEvents = getCollectionCount("events");
-        stats.setTotalEvents(totalEvents);
+    private DashboardStatsDTO refreshNow() throws ExecutionException, InterruptedException {
+        refreshLock.lockInterruptibly();
+        try {
+            return refreshLocked();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private DashboardStatsDTO refreshLocked() throws ExecutionException, InterruptedException {
+        long started = System.nanoTime();
+        DashboardStatsDTO stats = new DashboardStatsDTO();
 
-        // Get total active users count
-        long activeUsers = getCollectionCount("users");
-        stats.setActiveUsers(activeUsers);
+        // Issue the independent Firestore reads together; latency is the slowest one, not the sum
+        Recount events = recount("events", DashboardCounters.Metric.EVENTS, CountQuery.of("events"));
+        Recount users = recount("users", DashboardCounters.Metric.USERS, CountQuery.of("users"));
+        Recount products = recount("products", DashboardCounters.Metric.PRODUCTS, CountQuery.of("products"));
+        Recount productsSold = recount("productsSold", DashboardCounters.Metric.PRODUCTS_SOLD,
+                CountQuery.of("products").where("status", Product.ProductStatus.SOLD.toString()));
+        ApiFuture<List<EventResponseDTO>> recentEvents =
+                timed("recentEvents", eventService.getRecentEventsAsync(RECENT_EVENTS_LIMIT));
 
-        // Get total products count
-        long totalProducts = getCollectionCount("products");
-        stats.setTotalProducts(totalProducts);
+        // Served from the catalog index while the reads are in flight
+        long topStarted = System.nanoTime();
+        stats.setTopCoordinators(getTopCoordinators(TOP_COORDINATORS_LIMIT));
+        queryTimer("topCoordinators").record(System.nanoTime() - topStarted, TimeUnit.NANOSECONDS);
 
-        // Get products sold count
-        long productsSold = productService.getSoldProductsCount();
-        stats.setProductsSold(productsSold);
+        ApiFutures.allAsList(List.of(events.count(), users.count(), products.count(),
+                productsSold.count(), recentEvents)).get();
 
-        // Get 5 recent events
-        List<EventResponseDTO> recentEvents = eventService.getRecentEvents(5);
-        stats.setRecentEvents(recentEvents);
+        stats.setTotalEvents(events.rebase());
+        stats.setActiveUsers(users.rebase());
+        stats.setTotalProducts(products.rebase());
+        stats.setProductsSold(productsSold.rebase());
+        stats.setRecentEvents(List.copyOf(recentEvents.get()));
 
-        // TODO: Implement percentage changes calculation
-        // stats.setEventsPercentageChange(calculatePercentageChange(...));
-        // stats.setUsersPercentageChange(calculatePercentageChange(...));
-        // stats.setProductsPercentageChange(calculatePercentageChange(...));
-        
-        // TODO: Implement top coordinators fetching
-        // List<TopCoordinatorDTO> topCoordinators = getTopCoordinators(5);
-        // stats.setTopCoordinators(topCoordinators);
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        recordHistory(today, stats);
+        Map<String, Object> previous = getBaseline(today);
+        stats.setEventsPercentageChange(calculatePercentageChange(previous, "totalEvents", stats.getTotalEvents()));
+        stats.setUsersPercentageChange(calculatePercentageChange(previous, "activeUsers", stats.getActiveUsers()));
+        stats.setProductsPercentageChange(calculatePercentageChange(previous, "totalProducts", stats.getTotalProducts()));
 
+        snapshot = stats;
+        Timer.builder("campusaura.dashboard.refresh")
+                .description("Time to rebuild the materialized dashboard statistics")
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
         return stats;
     }
 
-    // Helper method to get collection count
-    private long getCollectionCount(String collectionName) throws ExecutionException, InterruptedException {
-        ApiFuture<QuerySnapshot> future = firestore.collection(collectionName).get();
-        return future.get().getDocuments().size();
+    // A total being recounted from Firestore, re-anchored on its live counter once done
+    private record Recount(DashboardCounters counters, DashboardCounters.Metric metric, long mark, ApiFuture<Long> count) {
+
+        long rebase() throws ExecutionException, InterruptedException {
+            long counted = count.get();
+            counters.rebase(metric, counted, mark);
+            return counted;
+        }
+    }
+
+    private Recount recount(String name, DashboardCounters.Metric metric, CountQuery query) {
+        long mark = counters.mark(metric);
+        return new Recount(counters, metric, mark, timed(name, countService.recountAsync(query)));
+    }
+
+    // Record how long a sub-query takes (campusaura.dashboard.query{query=...})
+    private <T> ApiFuture<T> timed(String name, ApiFuture<T> future) {
+        long started = System.nanoTime();
+        Timer timer = queryTimer(name);
+        future.addListener(() -> timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS),
+                MoreExecutors.directExecutor());
+        return future;
+    }
+
+    private Timer queryTimer(String name) {
+        return Timer.builder("campusaura.dashboard.query")
+                .description("Latency of each dashboard sub-query")
+                .tag("query", name)
+                .register(meterRegistry);
+    }
+
+    // Top coordinators by number of events, from the catalog index counts
+    private List<TopCoordinatorDTO> getTopCoordinators(int limit) throws ExecutionException, InterruptedException {
+        List<Map.Entry<String, Integer>> top = eventService.getEventCountsByCoordinator().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .toList();
+
+        Map<String, String> names = coordinatorDirectory.resolveNames(top.stream().map(Map.Entry::getKey).toList());
+        return top.stream()
+                .map(entry -> new TopCoordinatorDTO(entry.getKey(), names.get(entry.getKey()), entry.getValue()))
+                .toList();
+    }
+
+    // Write today's totals once per day
+    private void recordHistory(LocalDate today, DashboardStatsDTO stats) throws ExecutionException, InterruptedException {
+        if (today.equals(recordedDay)) {
+            return;
+        }
+        Map<String, Object> totals = new HashMap<>();
+        totals.put("totalEvents", stats.getTotalEvents());
+        totals.put("activeUsers", stats.getActiveUsers());
+        totals.put("totalProducts", stats.getTotalProducts());
+        totals.put("productsSold", stats.getProductsSold());
+        firestore.collection(HISTORY_COLLECTION).document(today.toString()).set(totals).get();
+        recordedDay = today;
+    }
+
+    // Oldest recorded totals within the comparison window (looked up once per day)
+    private Map<String, Object> getBaseline(LocalDate today) throws ExecutionException, InterruptedException {
+        if (today.equals(baselineDay)) {
+            return baseline;
+        }
+        String since = today.minusDays(COMPARISON_DAYS).toString();
+        List<QueryDocumentSnapshot> docs = firestore.collection(HISTORY_COLLECTION)
+                .whereGreaterThanOrEqualTo(FieldPath.documentId(), since)
+                .orderBy(FieldPath.documentId())
+                .limit(1)
+                .get().get().getDocuments();
+
+        baseline = docs.isEmpty() || docs.get(0).getId().equals(today.toString()) ? null : docs.get(0).getData();
+        baselineDay = today;
+        return baseline;
+    }
+
+    private static double calculatePercentageChange(Map<String, Object> previous, String field, long current) {
+        if (previous == null || !(previous.get(field) instanceof Number number)) {
+            return 0;
+        }
+        long before = number.longValue();
+        if (before == 0) {
+            return current > 0 ? 100 : 0;
+        }
+        return Math.round((current - before) * 1000.0 / before) / 10.0;
+    }
+
+    // Copy of the snapshot with the live totals
+    private DashboardStatsDTO withLiveTotals(DashboardStatsDTO materialized) {
+        DashboardStatsDTO stats = new DashboardStatsDTO();
+        stats.setTotalEvents(counters.current(DashboardCounters.Metric.EVENTS));
+        stats.setActiveUsers(counters.current(DashboardCounters.Metric.USERS));
+        stats.setTotalProducts(counters.current(DashboardCounters.Metric.PRODUCTS));
+        stats.setProductsSold(counters.current(DashboardCounters.Metric.PRODUCTS_SOLD));
+        stats.setProductsSoldIsNew(materialized.isProductsSoldIsNew());
+        stats.setEventsPercentageChange(materialized.getEventsPercentageChange());
+        stats.setUsersPercentageChange(materialized.getUsersPercentageChange());
+        stats.setProductsPercentageChange(materialized.getProductsPercentageChange());
+        stats.setRecentEvents(materialized.getRecentEvents());
+        stats.setTopCoordinators(materialized.getTopCoordinators());
+        return stats;
     }
 }
@@ -0,0 +1,20 @@
+package com.example.campusaura.service;
+
+import com.google.api.core.ApiFuture;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Counts the documents matching a CountQuery
+ */
+public interface DocumentCounter {
+
+    /**
+     * Start counting; the future completes with the number of matching documents
+     */
+    ApiFuture<Long> countAsync(CountQuery query);
+
+    default long count(CountQuery query) throws ExecutionException, InterruptedException {
+        return countAsync(query).get();
+    }
+}
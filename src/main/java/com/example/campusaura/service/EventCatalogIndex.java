@@ -0,0 +1,454 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.dto.LandingPageEventDTO;
+import com.example.campusaura.model.Event;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Resident index of the public event catalog.
+ *
+ * Holds pre-built LandingPageEventDTOs bucketed by category (restricted to the
+ * statuses shown on the public events page) with one presorted view per sort order,
+ * so /api/events/public is answered from memory instead of a full collection scan.
+ * Published and ongoing event IDs are also kept in a dense array so the landing-page
+ * carousel can draw a random sample in O(k).
+ *
+ * The index is filled from Firestore (by EventCatalogReadModel, or by a single
+ * full read if the listener is unavailable) and kept current by the EventService
+ * write paths and by the document changes the read model receives.
+ * Readers see an immutable snapshot that is swapped atomically on every write.
+ *
+ * The version counter restarts with the process, so versionTag() prefixes it with a
+ * random epoch: tags from another process or an earlier run never match.
+ */
+@Component
+public class EventCatalogIndex {
+
+    /**
+     * Sort orders supported by the public events page
+     */
+    public enum SortOrder {
+        UPCOMING, LATEST, POPULAR;
+
+        /**
+         * Map the sortBy request parameter to a sort order.
+         * Unknown values fall back to LATEST (newest created first).
+         */
+        public static SortOrder from(String sortBy) {
+            if ("upcoming".equalsIgnoreCase(sortBy)) return UPCOMING;
+            if ("popular".equalsIgnoreCase(sortBy)) return POPULAR;
+            return LATEST;
+        }
+    }
+
+    // Statuses listed on the public page (events without a status are listed too)
+    private static final Set<String> PUBLIC_STATUSES = Set.of("PUBLISHED", "ONGOING", "DRAFT");
+    private static final String ALL_CATEGORIES = "all";
+
+    // Statuses eligible for the landing-page carousel
+    private static final Set<String> CAROUSEL_STATUSES = Set.of("PUBLISHED", "ONGOING");
+
+    private static final Comparator<Entry> BY_EVENT_ID = Comparator.comparing(Entry::eventId);
+
+    private static final Map<SortOrder, Comparator<Entry>> COMPARATORS = Map.of(
+            // dateTime ascending, events without a date last
+            SortOrder.UPCOMING, Comparator.comparing(Entry::dateTime,
+                    Comparator.nullsLast(Comparator.<String>naturalOrder())).thenComparing(BY_EVENT_ID),
+            // createdAt descending, events without a creation date last
+            SortOrder.LATEST, Comparator.comparing(Entry::createdAt,
+                    Comparator.nullsLast(Comparator.<String>reverseOrder())).thenComparing(BY_EVENT_ID),
+            // attendeeCount descending
+            SortOrder.POPULAR, Comparator.comparingInt(Entry::attendeeCount).reversed().thenComparing(BY_EVENT_ID)
+    );
+
+    private final Object lock = new Object();
+
+    // All indexed events by ID (guarded by lock)
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    // Category key -> sort order -> sorted public entries (guarded by lock)
+    private final Map<String, EnumMap<SortOrder, List<Entry>>> views = new HashMap<>();
+
+    // Coordinator ID -> number of indexed events, across all statuses (guarded by lock)
+    private final Map<String, Integer> eventCountsByCoordinator = new HashMap<>();
+
+    // Carousel-eligible event IDs in no particular order, and each ID's position (guarded by lock)
+    private final List<String> carouselIds = new ArrayList<>();
+    private final Map<String, Integer> carouselPositions = new HashMap<>();
+
+    // Events written locally before the initial load completed (guarded by lock)
+    private final Set<String> touchedBeforeLoad = new HashSet<>();
+
+    // Immutable read snapshot: category key -> sort order -> DTOs
+    private volatile Map<String, Map<SortOrder, List<LandingPageEventDTO>>> snapshot = Map.of();
+
+    private volatile boolean loaded;
+
+    private volatile long version;
+
+    private volatile long lastModified = System.currentTimeMillis();
+
+    private final String epoch = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+
+    /**
+     * Change stamp of one indexed event: tag changes whenever the event is re-indexed
+     */
+    public record EventStamp(String tag, long indexedAt, String updatedAt) {
+    }
+
+    /**
+     * Whether the initial load from Firestore has completed
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Monotonic counter incremented on every change to the index
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Opaque tag of the current version, unique across processes
+     */
+    public String versionTag() {
+        return epoch + "-" + version;
+    }
+
+    /**
+     * Time of the last change to the index (epoch millis)
+     */
+    public long lastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Change stamp of an indexed event, or null when the event is not indexed
+     */
+    public EventStamp stamp(String eventId) {
+        Entry entry;
+        synchronized (lock) {
+            entry = entries.get(eventId);
+        }
+        return entry == null ? null
+                : new EventStamp(epoch + "-" + entry.revision(), entry.indexedAt(), entry.updatedAt());
+    }
+
+    /**
+     * Fill the index from a full read of the events collection.
+     * Events written through put/remove while the read was in flight keep their
+     * locally written state. Subsequent calls are ignored once the index is loaded.
+     */
+    public void load(Collection<Event> events, Function<Event, LandingPageEventDTO> toDto) {
+        synchronized (lock) {
+            if (loaded) {
+                return;
+            }
+            for (Event event : events) {
+                if (!touchedBeforeLoad.contains(event.getEventId())) {
+                    entries.put(event.getEventId(), toEntry(event, toDto.apply(event), version + 1));
+                }
+            }
+            touchedBeforeLoad.clear();
+            rebuildViews();
+            loaded = true;
+        }
+    }
+
+    /**
+     * Replace the whole index with an authoritative snapshot of the collection
+     * (used by the read model on every initial listener snapshot)
+     */
+    public void replaceAll(Collection<Event> events, Function<Event, LandingPageEventDTO> toDto) {
+        synchronized (lock) {
+            entries.clear();
+            for (Event event : events) {
+                entries.put(event.getEventId(), toEntry(event, toDto.apply(event), version + 1));
+            }
+            touchedBeforeLoad.clear();
+            rebuildViews();
+            loaded = true;
+        }
+    }
+
+    /**
+     * Insert or replace an event
+     */
+    public void put(Event event, LandingPageEventDTO dto) {
+        synchronized (lock) {
+            Entry previous = entries.get(event.getEventId());
+            Entry entry = toEntry(event, dto, version + 1);
+            entries.put(entry.eventId(), entry);
+            if (!loaded) {
+                touchedBeforeLoad.add(entry.eventId());
+            }
+            countCoordinator(previous, -1);
+            countCoordinator(entry, 1);
+            leaveCarousel(previous);
+            joinCarousel(entry);
+            unlink(previous);
+            link(entry);
+            publish(previous, entry);
+        }
+    }
+
+    /**
+     * Remove an event
+     */
+    public void remove(String eventId) {
+        synchronized (lock) {
+            Entry previous = entries.remove(eventId);
+            if (!loaded) {
+                touchedBeforeLoad.add(eventId);
+            }
+            if (previous != null) {
+                countCoordinator(previous, -1);
+                leaveCarousel(previous);
+                unlink(previous);
+                publish(previous, null);
+            }
+        }
+    }
+
+    /**
+     * Public events for a category ("All" or empty for every category) in the given order
+     */
+    public List<LandingPageEventDTO> publicEvents(String category, SortOrder order) {
+        Map<SortOrder, List<LandingPageEventDTO>> byOrder = snapshot.get(categoryFilterKey(category));
+        return byOrder != null ? byOrder.get(order) : List.of();
+    }
+
+    /**
+     * Up to limit distinct published/ongoing events in random order.
+     * Floyd's algorithm picks the positions, so the cost is O(limit) whatever the catalog size.
+     */
+    public List<LandingPageEventDTO> randomCarouselEvents(int limit) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<LandingPageEventDTO> sample = new ArrayList<>(Math.max(0, limit));
+        synchronized (lock) {
+            int n = carouselIds.size();
+            int k = Math.min(Math.max(0, limit), n);
+            Set<Integer> picked = new HashSet<>(k * 2);
+            for (int j = n - k; j < n; j++) {
+                int t = random.nextInt(j + 1);
+                int pick = picked.add(t) ? t : j;
+                picked.add(pick);
+                sample.add(entries.get(carouselIds.get(pick)).dto());
+            }
+        }
+        // Floyd's selection order is biased (the last slot favours high positions), so shuffle the k picks
+        Collections.shuffle(sample, random);
+        return sample;
+    }
+
+    /**
+     * Number of events per coordinator ID, maintained incrementally on every write
+     */
+    public Map<String, Integer> eventCountsByCoordinator() {
+        synchronized (lock) {
+            return new HashMap<>(eventCountsByCoordinator);
+        }
+    }
+
+    // ==================== INTERNAL ====================
+
+    // revision: index version that published this entry
+    private record Entry(String eventId, String coordinatorId, String statusKey, String categoryKey,
+                         String dateTime, String createdAt, int attendeeCount, LandingPageEventDTO dto,
+                         String updatedAt, long revision, long indexedAt) {
+    }
+
+    private static Entry toEntry(Event event, LandingPageEventDTO dto, long revision) {
+        return new Entry(
+                event.getEventId(),
+                event.getCoordinatorId(),
+                event.getStatus() != null ? event.getStatus().toUpperCase(Locale.ROOT) : null,
+                event.getCategory() != null ? event.getCategory().toLowerCase(Locale.ROOT) : null,
+                event.getDateTime(),
+                event.getCreatedAt(),
+                event.getAttendeeCount() != null ? event.getAttendeeCount() : 0,
+                dto,
+                event.getUpdatedAt(),
+                revision,
+                System.currentTimeMillis());
+    }
+
+    private static boolean isPublic(Entry entry) {
+        return entry.statusKey() == null || PUBLIC_STATUSES.contains(entry.statusKey());
+    }
+
+    private static String categoryFilterKey(String category) {
+        if (category == null || category.isEmpty() || category.equalsIgnoreCase("All")) {
+            return ALL_CATEGORIES;
+        }
+        return category.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> viewKeys(Entry entry) {
+        // Events without a category only appear under "All"
+        return entry.categoryKey() == null || entry.categoryKey().equals(ALL_CATEGORIES)
+                ? List.of(ALL_CATEGORIES)
+                : List.of(ALL_CATEGORIES, entry.categoryKey());
+    }
+
+    private void link(Entry entry) {
+        if (!loaded || !isPublic(entry)) {
+            return;
+        }
+        for (String key : viewKeys(entry)) {
+            EnumMap<SortOrder, List<Entry>> byOrder = views.computeIfAbsent(key, k -> newViewSet());
+            for (SortOrder order : SortOrder.values()) {
+                List<Entry> view = byOrder.get(order);
+                int pos = Collections.binarySearch(view, entry, COMPARATORS.get(order));
+                view.add(pos < 0 ? -pos - 1 : pos, entry);
+            }
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry == null || !loaded || !isPublic(entry)) {
+            return;
+        }
+        for (String key : viewKeys(entry)) {
+            EnumMap<SortOrder, List<Entry>> byOrder = views.get(key);
+            if (byOrder == null) {
+                continue;
+            }
+            for (SortOrder order : SortOrder.values()) {
+                List<Entry> view = byOrder.get(order);
+                int pos = Collections.binarySearch(view, entry, COMPARATORS.get(order));
+                if (pos >= 0) {
+                    view.remove(pos);
+                }
+            }
+            if (byOrder.get(SortOrder.LATEST).isEmpty()) {
+                views.remove(key);
+            }
+        }
+    }
+
+    private void countCoordinator(Entry entry, int delta) {
+        if (entry == null || entry.coordinatorId() == null || !loaded) {
+            return;
+        }
+        eventCountsByCoordinator.merge(entry.coordinatorId(), delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    // Status-less events are public but never in the carousel (Set.of rejects contains(null))
+    private static boolean isCarouselStatus(String statusKey) {
+        return statusKey != null && CAROUSEL_STATUSES.contains(statusKey);
+    }
+
+    private void joinCarousel(Entry entry) {
+        if (!loaded || !isCarouselStatus(entry.statusKey())) {
+            return;
+        }
+        carouselPositions.put(entry.eventId(), carouselIds.size());
+        carouselIds.add(entry.eventId());
+    }
+
+    // Swap-remove: the last ID takes the removed ID's slot
+    private void leaveCarousel(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        Integer pos = carouselPositions.remove(entry.eventId());
+        if (pos == null) {
+            return;
+        }
+        String last = carouselIds.remove(carouselIds.size() - 1);
+        if (pos < carouselIds.size()) {
+            carouselIds.set(pos, last);
+            carouselPositions.put(last, pos);
+        }
+    }
+
+    private void rebuildViews() {
+        views.clear();
+        eventCountsByCoordinator.clear();
+        carouselIds.clear();
+        carouselPositions.clear();
+        for (Entry entry : entries.values()) {
+            if (entry.coordinatorId() != null) {
+                eventCountsByCoordinator.merge(entry.coordinatorId(), 1, Integer::sum);
+            }
+            if (isCarouselStatus(entry.statusKey())) {
+                carouselPositions.put(entry.eventId(), carouselIds.size());
+                carouselIds.add(entry.eventId());
+            }
+            if (!isPublic(entry)) {
+                continue;
+            }
+            for (String key : viewKeys(entry)) {
+                EnumMap<SortOrder, List<Entry>> byOrder = views.computeIfAbsent(key, k -> newViewSet());
+                for (SortOrder order : SortOrder.values()) {
+                    byOrder.get(order).add(entry);
+                }
+            }
+        }
+        Map<String, Map<SortOrder, List<LandingPageEventDTO>>> next = new HashMap<>();
+        for (Map.Entry<String, EnumMap<SortOrder, List<Entry>>> view : views.entrySet()) {
+            for (SortOrder order : SortOrder.values()) {
+                view.getValue().get(order).sort(COMPARATORS.get(order));
+            }
+            next.put(view.getKey(), toDtoViews(view.getValue()));
+        }
+        snapshot = Collections.unmodifiableMap(next);
+        advance();
+    }
+
+    /**
+     * Publish a new read snapshot, re-materializing only the views touched by the change
+     */
+    private void publish(Entry previous, Entry current) {
+        if (!loaded) {
+            advance();
+            return;
+        }
+        Set<String> touched = new HashSet<>();
+        if (previous != null && isPublic(previous)) touched.addAll(viewKeys(previous));
+        if (current != null && isPublic(current)) touched.addAll(viewKeys(current));
+
+        if (!touched.isEmpty()) {
+            Map<String, Map<SortOrder, List<LandingPageEventDTO>>> next = new HashMap<>(snapshot);
+            for (String key : touched) {
+                EnumMap<SortOrder, List<Entry>> byOrder = views.get(key);
+                if (byOrder == null) {
+                    next.remove(key);
+                } else {
+                    next.put(key, toDtoViews(byOrder));
+                }
+            }
+            snapshot = Collections.unmodifiableMap(next);
+        }
+        advance();
+    }
+
+    private void advance() {
+        lastModified = System.currentTimeMillis();
+        version++;
+    }
+
+    private static EnumMap<SortOrder, List<Entry>> newViewSet() {
+        EnumMap<SortOrder, List<Entry>> byOrder = new EnumMap<>(SortOrder.class);
+        for (SortOrder order : SortOrder.values()) {
+            byOrder.put(order, new ArrayList<>());
+        }
+        return byOrder;
+    }
+
+    private static Map<SortOrder, List<LandingPageEventDTO>> toDtoViews(EnumMap<SortOrder, List<Entry>> byOrder) {
+        EnumMap<SortOrder, List<LandingPageEventDTO>> dtoViews = new EnumMap<>(SortOrder.class);
+        for (Map.Entry<SortOrder, List<Entry>> view : byOrder.entrySet()) {
+            dtoViews.put(view.getKey(), view.getValue().stream().map(Entry::dto).toList());
+        }
+        return dtoViews;
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.dto.LandingPageEventDTO;
+import com.example.campusaura.model.Event;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Real-time read model of the events collection.
+ *
+ * Subscribes to the events collection through an EventChangeFeed and applies
+ * the document deltas (added / modified / removed) to the EventCatalogIndex, so
+ * the index stays in sync with edits made outside this JVM (admin scripts,
+ * other replicas) without re-reading the collection.
+ *
+ * - Readiness: isReady()/awaitReady() gate on the first full snapshot
+ * - Staleness: "campusaura.events.read_model.staleness" gauge, 0 while the
+ *   listener is healthy, otherwise seconds since it was last healthy
+ * - Recovery: on listener errors the subscription is re-created with
+ *   exponential backoff
+ */
+@Component
+public class EventCatalogReadModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventCatalogReadModel.class);
+
+    private final EventChangeFeed feed;
+    private final EventCatalogIndex index;
+    private final boolean enabled;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final CountDownLatch initialLoad = new CountDownLatch(1);
+    private final ScheduledExecutorService scheduler;
+    private final Counter resubscribes;
+
+    private BiFunction<String, Map<String, Object>, Event> decoder;
+    private Function<Event, LandingPageEventDTO> toDto;
+
+    // Not a monitor: subscribing and closing call into the Firestore client, which must
+    // not pin a virtual thread's carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private EventChangeFeed.Subscription subscription;
+    private long generation;
+    private long backoffMillis;
+    private boolean stopped;
+
+    private volatile boolean healthy;
+    private volatile long lastHealthyAt = System.currentTimeMillis();
+
+    @Autowired
+    public EventCatalogReadModel(EventChangeFeed feed,
+                                 EventCatalogIndex index,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${campusaura.events.read-model.enabled:true}") boolean enabled,
+                                 @Value("${campusaura.events.read-model.initial-backoff-ms:1000}") long initialBackoffMillis,
+                                 @Value("${campusaura.events.read-model.max-backoff-ms:60000}") long maxBackoffMillis) {
+        this.feed = feed;
+        this.index = index;
+        this.enabled = enabled;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.backoffMillis = initialBackoffMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "events-read-model");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("campusaura.events.read_model.staleness", this, model -> model.staleness().toMillis() / 1000.0)
+                .description("Seconds since the events listener was last known to be in sync")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.resubscribes = Counter.builder("campusaura.events.read_model.resubscribes")
+                .description("Number of times the events listener was re-created after an error")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start listening. Called by EventService, which owns the document mapping.
+     */
+    public void start(BiFunction<String, Map<String, Object>, Event> decoder,
+                      Function<Event, LandingPageEventDTO> toDto) {
+        if (!enabled) {
+            logger.info("Events read model disabled, catalog index will be loaded on demand");
+            return;
+        }
+        lock.lock();
+        try {
+            this.decoder = decoder;
+            this.toDto = toDto;
+            subscribe();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the first full snapshot has been applied to the index
+     */
+    public boolean isReady() {
+        return initialLoad.getCount() == 0;
+    }
+
+    /**
+     * Wait up to the given timeout for the first full snapshot
+     */
+    public boolean awaitReady(Duration timeout) throws InterruptedException {
+        return enabled && initialLoad.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Whether the index currently reflects every change to the collection, including edits
+     * made outside this JVM (listener subscribed, first snapshot applied, no error since)
+     */
+    public boolean isLive() {
+        return enabled && isReady() && healthy;
+    }
+
+    /**
+     * Time since the listener was last known to be in sync (zero while healthy)
+     */
+    public Duration staleness() {
+        if (!enabled) {
+            return Duration.ZERO;
+        }
+        return healthy ? Duration.ZERO : Duration.ofMillis(System.currentTimeMillis() - lastHealthyAt);
+    }
+
+    @PreDestroy
+    public void stop() {
+        lock.lock();
+        try {
+            stopped = true;
+            closeSubscription();
+            scheduler.shutdownNow();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ==================== INTERNAL ====================
+
+    private void subscribe() {
+        lock.lock();
+        try {
+            if (stopped) {
+                return;
+            }
+            long current = ++generation;
+            try {
+                EventChangeFeed.Subscription created = feed.subscribe(new EventChangeFeed.Listener() {
+                    @Override
+                    public void onChanges(List<EventChangeFeed.EventChange> changes, boolean fullSnapshot) {
+                        if (isCurrent(current)) {
+                            apply(changes, fullSnapshot);
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        handleFailure(current, error);
+                    }
+                });
+                if (current == generation) {
+                    subscription = created;
+                } else {
+                    // Failed while subscribing; a retry is already scheduled
+                    created.close();
+                }
+            } catch (RuntimeException e) {
+                handleFailure(current, e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isCurrent(long subscriptionGeneration) {
+        lock.lock();
+        try {
+            return subscriptionGeneration == generation && !stopped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(List<EventChangeFeed.EventChange> changes, boolean fullSnapshot) {
+        if (fullSnapshot) {
+            List<Event> events = new ArrayList<>(changes.size());
+            for (EventChangeFeed.EventChange change : changes) {
+                if (change.type() != EventChangeFeed.ChangeType.REMOVED) {
+                    events.add(decoder.apply(change.eventId(), change.data()));
+                }
+            }
+            index.replaceAll(events, toDto);
+            logger.info("Events read model synced: {} events", events.size());
+        } else {
+            for (EventChangeFeed.EventChange change : changes) {
+                if (change.type() == EventChangeFeed.ChangeType.REMOVED) {
+                    index.remove(change.eventId());
+                } else {
+                    Event event = decoder.apply(change.eventId(), change.data());
+                    index.put(event, toDto.apply(event));
+                }
+            }
+        }
+
+        lock.lock();
+        try {
+            backoffMillis = initialBackoffMillis;
+        } finally {
+            lock.unlock();
+        }
+        healthy = true;
+        lastHealthyAt = System.currentTimeMillis();
+        initialLoad.countDown();
+    }
+
+    private void handleFailure(long subscriptionGeneration, Throwable error) {
+        lock.lock();
+        try {
+            if (subscriptionGeneration != generation || stopped) {
+                return;
+            }
+            if (healthy) {
+                lastHealthyAt = System.currentTimeMillis();
+                healthy = false;
+            }
+            generation++; // ignore late callbacks from the failed subscription
+            closeSubscription();
+
+            long delay = backoffMillis;
+            backoffMillis = Math.min(backoffMillis * 2, maxBackoffMillis);
+            logger.warn("Events listener failed ({}), re-subscribing in {} ms", error.getMessage(), delay);
+
+            scheduler.schedule(() -> {
+                resubscribes.increment();
+                subscribe();
+            }, delay, TimeUnit.MILLISECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeSubscription() {
+        if (subscription != null) {
+            try {
+                subscription.close();
+            } catch (RuntimeException e) {
+                logger.debug("Failed to close events listener: {}", e.getMessage());
+            }
+            subscription = null;
+        }
+    }
+}
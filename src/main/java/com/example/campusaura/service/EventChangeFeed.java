@@ -0,0 +1,38 @@
+package com.example.campusaura.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Source of document changes for the events collection.
+ * Abstracts the Firestore snapshot listener so the read model can be
+ * exercised with a local stand-in.
+ */
+public interface EventChangeFeed {
+
+    /**
+     * Start listening. The first batch delivered to a subscription is a full
+     * snapshot of the collection; later batches contain only the deltas.
+     */
+    Subscription subscribe(Listener listener);
+
+    enum ChangeType { ADDED, MODIFIED, REMOVED }
+
+    /**
+     * A single document change (data is null for REMOVED)
+     */
+    record EventChange(ChangeType type, String eventId, Map<String, Object> data) {
+    }
+
+    interface Listener {
+
+        void onChanges(List<EventChange> changes, boolean fullSnapshot);
+
+        void onError(Throwable error);
+    }
+
+    interface Subscription {
+
+        void close();
+    }
+}
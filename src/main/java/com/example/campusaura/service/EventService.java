@@ -1,10 +1,12 @@
 package com.example.campusaura.service;
 
+import com.example.campusaura.config.CacheConfig;
 import com.example.campusaura.dto.AdminEventDTO;
 import com.example.campusaura.dto.EventDetailDTO;
 import com.example.campusaura.dto.EventRequestDTO;
 import com.example.campusaura.dto.EventResponseDTO;
 import com.example.campusaura.dto.LandingPageEventDTO;
+import com.example.campusaura.dto.PageResponse;
 import com.example.campusaura.model.Coordinator;
 import com.example.campusaura.model.Event;
 import com.example.campusaura.model.EventAccountDetails;
@@ -12,27 +14,64 @@ import com.example.campusaura.model.EventScheduleItem;
 import com.example.campusaura.model.PastEventDetail;
 import com.example.campusaura.model.SellItem;
 import com.example.campusaura.model.TicketCategory;
+import com.example.campusaura.util.CompletableFutures;
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
 import com.google.cloud.firestore.*;
+import com.google.common.util.concurrent.MoreExecutors;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 @Service
 public class EventService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EventService.class);
     private static final String COLLECTION_NAME = "events";
+    private static final Duration CATALOG_READY_TIMEOUT = Duration.ofSeconds(2);
 
     @Autowired
     private Firestore firestore;
 
+    @Autowired
+    private EventCatalogIndex catalogIndex;
+
+    @Autowired
+    private EventCatalogReadModel catalogReadModel;
+
+    @Autowired
+    private CoordinatorDirectory coordinatorDirectory;
+
+    @Autowired
+    private CountService countService;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private TicketInventory ticketInventory;
+
+    @PostConstruct
+    public void startCatalogReadModel() {
+        catalogReadModel.start(this::convertMapToEvent, this::eventToLandingPageDTO);
+    }
+
     /**
      * Create a new event
      */
+    @CacheEvict(cacheNames = {CacheConfig.EVENTS, CacheConfig.COORDINATORS}, allEntries = true)
     public Event createEvent(String coordinatorId, EventRequestDTO eventRequest) throws ExecutionException, InterruptedException {
         // Generate unique event ID
         String eventId = UUID.randomUUID().toString();
@@ -69,12 +108,16 @@ public class EventService {
                 .set(eventData);
         result.get(); // Wait for completion
 
+        countService.invalidate(COLLECTION_NAME);
+        dashboardCounters.record(DashboardCounters.Metric.EVENTS, 1);
+        catalogIndex.put(event, eventToLandingPageDTO(event));
         return event;
     }
 
     /**
      * Get event by ID (returns DTO)
      */
+    @Cacheable(cacheNames = CacheConfig.EVENTS, key = "'id:' + #eventId", sync = true)
     public EventResponseDTO getEventByIdDTO(String eventId) throws ExecutionException, InterruptedException {
         Event event = getEventById(eventId);
         if (event == null) {
@@ -87,16 +130,17 @@ public class EventService {
      * Get event by ID (returns Event object)
      */
     public Event getEventById(String eventId) throws ExecutionException, InterruptedException {
-        DocumentSnapshot document = firestore.collection(COLLECTION_NAME)
-                .document(eventId)
-                .get()
-                .get();
-
-        if (!document.exists()) {
-            return null;
-        }
+        return CompletableFutures.await(getEventByIdAsync(eventId));
+    }
 
-        return convertMapToEvent(document.getId(), document.getData());
+    /**
+     * Non-blocking variant of getEventById (completes with null when the event does not exist)
+     */
+    public CompletableFuture<Event> getEventByIdAsync(String eventId) {
+        return CompletableFutures.of(firestore.collection(COLLECTION_NAME).document(eventId).get())
+                .thenApply(document -> document.exists()
+                        ? convertMapToEvent(document.getId(), document.getData())
+                        : null);
     }
 
     /**
@@ -131,6 +175,7 @@ public class EventService {
     /**
      * Get events by category
      */
+    @Cacheable(cacheNames = CacheConfig.EVENTS, key = "'category:' + #category", sync = true)
     public List<EventResponseDTO> getEventsByCategory(String category) throws ExecutionException, InterruptedException {
         Query query = firestore.collection(COLLECTION_NAME)
                 .whereEqualTo("category", category);
@@ -146,6 +191,7 @@ public class EventService {
     /**
      * Delete event
      */
+    @CacheEvict(cacheNames = {CacheConfig.EVENTS, CacheConfig.COORDINATORS}, allEntries = true)
     public void deleteEvent(String eventId) throws ExecutionException, InterruptedException {
         DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(eventId);
         DocumentSnapshot document = docRef.get().get();
@@ -155,11 +201,15 @@ public class EventService {
         }
 
         docRef.delete().get();
+        countService.invalidate(COLLECTION_NAME);
+        dashboardCounters.record(DashboardCounters.Metric.EVENTS, -1);
+        catalogIndex.remove(eventId);
     }
 
     /**
      * Get all events by coordinator ID
      */
+    @Cacheable(cacheNames = CacheConfig.EVENTS, key = "'coordinator:' + #coordinatorId", sync = true)
     public List<Event> getEventsByCoordinator(String coordinatorId) throws ExecutionException, InterruptedException {
         Query query = firestore.collection(COLLECTION_NAME)
                 .whereEqualTo("coordinatorId", coordinatorId);
@@ -202,6 +252,7 @@ public class EventService {
     /**
      * Update event
      */
+    @CacheEvict(cacheNames = {CacheConfig.EVENTS, CacheConfig.COORDINATORS}, allEntries = true)
     public Event updateEvent(String eventId, String coordinatorId, EventRequestDTO eventRequest) 
             throws ExecutionException, InterruptedException {
         // Check if event exists and belongs to coordinator
@@ -242,12 +293,21 @@ public class EventService {
                 .set(eventData);
         result.get(); // Wait for completion
 
+        countService.invalidate(COLLECTION_NAME);
+        catalogIndex.put(existingEvent, eventToLandingPageDTO(existingEvent));
+        try {
+            ticketInventory.syncCapacity(existingEvent);
+        } catch (ExecutionException | RuntimeException e) {
+            // The edit is saved; reservations keep the old capacities until the next successful sync
+            logger.warn("Could not sync ticket capacities of event {}", eventId, e);
+        }
         return existingEvent;
     }
 
     /**
      * Delete event
      */
+    @CacheEvict(cacheNames = {CacheConfig.EVENTS, CacheConfig.COORDINATORS}, allEntries = true)
     public boolean deleteEvent(String eventId, String coordinatorId) throws ExecutionException, InterruptedException {
         // Check if event exists and belongs to coordinator
         Event existingEvent = getEventById(eventId);
@@ -265,12 +325,16 @@ public class EventService {
                 .delete();
         result.get(); // Wait for completion
 
+        countService.invalidate(COLLECTION_NAME);
+        dashboardCounters.record(DashboardCounters.Metric.EVENTS, -1);
+        catalogIndex.remove(eventId);
         return true;
     }
 
     /**
      * Update event status
      */
+    @CacheEvict(cacheNames = {CacheConfig.EVENTS, CacheConfig.COORDINATORS}, allEntries = true)
     public Event updateEventStatus(String eventId, String coordinatorId, String status) 
             throws ExecutionException, InterruptedException {
         Event existingEvent = getEventById(eventId);
@@ -294,6 +358,8 @@ public class EventService {
                 .update(updates);
         result.get();
 
+        countService.invalidate(COLLECTION_NAME);
+        catalogIndex.put(existingEvent, eventToLandingPageDTO(existingEvent));
         return existingEvent;
     }
 
@@ -470,40 +536,30 @@ public class EventService {
      * Get recent events
      */
     public List<EventResponseDTO> getRecentEvents(int limit) throws ExecutionException, InterruptedException {
+        return getRecentEventsAsync(limit).get();
+    }
+
+    /**
+     * Non-blocking variant of getRecentEvents (used by the dashboard fan-out)
+     */
+    public ApiFuture<List<EventResponseDTO>> getRecentEventsAsync(int limit) {
         Query query = firestore.collection(COLLECTION_NAME)
                 .orderBy("createdAt", Query.Direction.DESCENDING)
                 .limit(limit);
-        
-        ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
 
-        return documents.stream()
+        return ApiFutures.transform(query.get(), snapshot -> snapshot.getDocuments().stream()
                 .map(doc -> convertMapToEvent(doc.getId(), doc.getData()))
                 .map(this::eventToResponseDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()), MoreExecutors.directExecutor());
     }
 
     /**
-     * Get random ongoing events for landing page carousel
+     * Get random ongoing events for landing page carousel.
+     * Sampled from the published/ongoing events held by the catalog index (no Firestore read).
      */
     public List<LandingPageEventDTO> getRandomOngoingEvents(int limit) throws ExecutionException, InterruptedException {
-        // Query for events with status "PUBLISHED" or "ONGOING"
-        Query query = firestore.collection(COLLECTION_NAME)
-                .whereIn("status", Arrays.asList("PUBLISHED", "ONGOING"));
-        
-        List<QueryDocumentSnapshot> documents = query.get().get().getDocuments();
-        
-        // Convert to Event objects
-        List<Event> events = documents.stream()
-                .map(doc -> convertMapToEvent(doc.getId(), doc.getData()))
-                .collect(Collectors.toList());
-        
-        // Shuffle and return limited results as DTOs
-        Collections.shuffle(events);
-        return events.stream()
-                .limit(limit)
-                .map(this::eventToLandingPageDTO)
-                .collect(Collectors.toList());
+        ensureCatalogLoaded();
+        return catalogIndex.randomCarouselEvents(limit);
     }
 
     /**
@@ -532,79 +588,75 @@ public class EventService {
 
     /**
      * Get all published events for public events page
-     * Supports category filtering and sorting
+     * Supports category filtering and sorting.
+     * Served from the in-memory catalog index kept in sync by EventCatalogReadModel.
      */
     public List<LandingPageEventDTO> getPublicEvents(String category, String sortBy) throws ExecutionException, InterruptedException {
-        // Get all events (no status filter for now to include all events)
-        List<QueryDocumentSnapshot> documents = firestore.collection(COLLECTION_NAME)
-                .get()
-                .get()
-                .getDocuments();
-        
-        // Convert to Event objects
-        List<Event> events = documents.stream()
-                .map(doc -> convertMapToEvent(doc.getId(), doc.getData()))
-                .filter(event -> {
-                    // Include events with PUBLISHED, ONGOING status, or events without status (for testing)
-                    String status = event.getStatus();
-                    return status == null || 
-                           status.equalsIgnoreCase("PUBLISHED") || 
-                           status.equalsIgnoreCase("ONGOING") ||
-                           status.equalsIgnoreCase("DRAFT"); // Include DRAFT for testing
-                })
-                .collect(Collectors.toList());
-        
-        // Filter by category if specified (and not "All")
-        if (category != null && !category.isEmpty() && !category.equalsIgnoreCase("All")) {
-            events = events.stream()
-                    .filter(event -> category.equalsIgnoreCase(event.getCategory()))
-                    .collect(Collectors.toList());
+        ensureCatalogLoaded();
+        return catalogIndex.publicEvents(category, EventCatalogIndex.SortOrder.from(sortBy));
+    }
+
+    /**
+     * HTTP validators (strong ETag + Last-Modified) for a public event response
+     */
+    public record Validators(String etag, long lastModified) {
+        /** Validators of the gzip-encoded representation of the same body */
+        public Validators forGzip() {
+            return new Validators(etag + "-gzip", lastModified);
         }
-        
-        // Sort events based on sortBy parameter
-        if ("upcoming".equalsIgnoreCase(sortBy)) {
-            // Sort by dateTime ascending (upcoming first), handle nulls
-            events.sort((e1, e2) -> {
-                String date1 = e1.getDateTime();
-                String date2 = e2.getDateTime();
-                if (date1 == null && date2 == null) return 0;
-                if (date1 == null) return 1;
-                if (date2 == null) return -1;
-                return date1.compareTo(date2);
-            });
-        } else if ("latest".equalsIgnoreCase(sortBy)) {
-            // Sort by createdAt descending (latest created first)
-            events.sort((e1, e2) -> {
-                String date1 = e1.getCreatedAt();
-                String date2 = e2.getCreatedAt();
-                if (date1 == null && date2 == null) return 0;
-                if (date1 == null) return 1;
-                if (date2 == null) return -1;
-                return date2.compareTo(date1);
-            });
-        } else if ("popular".equalsIgnoreCase(sortBy)) {
-            // Sort by attendeeCount descending (most popular first)
-            events.sort((e1, e2) -> {
-                Integer count1 = e1.getAttendeeCount() != null ? e1.getAttendeeCount() : 0;
-                Integer count2 = e2.getAttendeeCount() != null ? e2.getAttendeeCount() : 0;
-                return count2.compareTo(count1);
-            });
-        } else {
-            // Default: sort by createdAt descending (newest first)
-            events.sort((e1, e2) -> {
-                String date1 = e1.getCreatedAt();
-                String date2 = e2.getCreatedAt();
-                if (date1 == null && date2 == null) return 0;
-                if (date1 == null) return 1;
-                if (date2 == null) return -1;
-                return date2.compareTo(date1);
-            });
+    }
+
+    /**
+     * Validators for the public event lists (/public, /latest): they change
+     * with every change to the catalog. Computed from memory, so a conditional GET is
+     * answered before any Firestore read. Null when the catalog is not live, as an edit
+     * made elsewhere could then go unnoticed.
+     */
+    public Validators publicCatalogValidators() {
+        if (!catalogReadModel.isLive()) {
+            return null;
+        }
+        return new Validators(catalogIndex.versionTag(), catalogIndex.lastModified());
+    }
+
+    /**
+     * Validators for one event's public detail: the event's catalog revision plus its
+     * ticket availability. Null when the catalog is not live or the availability is not
+     * in memory (answering would need a Firestore read anyway).
+     */
+    public Validators publicEventValidators(String eventId) {
+        if (!catalogReadModel.isLive()) {
+            return null;
+        }
+        EventCatalogIndex.EventStamp stamp = catalogIndex.stamp(eventId);
+        TicketInventory.CachedAvailability availability = ticketInventory.peekAvailability(eventId);
+        if (stamp == null || availability == null) {
+            return null;
+        }
+        String etag = stamp.tag() + "-" + Integer.toHexString(availability.availability().hashCode());
+        long lastModified = Math.max(Math.max(stamp.indexedAt(), availability.readAt()), parseMillis(stamp.updatedAt()));
+        return new Validators(etag, lastModified);
+    }
+
+    private static long parseMillis(String instant) {
+        try {
+            return instant != null ? Instant.parse(instant).toEpochMilli() : -1;
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Make sure the catalog index is populated: give the read model a moment to
+     * deliver its first snapshot, otherwise fall back to a single full read
+     */
+    private void ensureCatalogLoaded() throws ExecutionException, InterruptedException {
+        if (catalogIndex.isLoaded()) {
+            return;
+        }
+        if (!catalogReadModel.awaitReady(CATALOG_READY_TIMEOUT)) {
+            catalogIndex.load(getAllEventsInternal(), this::eventToLandingPageDTO);
         }
-        
-        // Convert to DTOs
-        return events.stream()
-                .map(this::eventToLandingPageDTO)
-                .collect(Collectors.toList());
     }
 
     /**
@@ -649,6 +701,7 @@ public class EventService {
     /**
      * Update event status (for admin approval/rejection)
      */
+    @CacheEvict(cacheNames = {CacheConfig.EVENTS, CacheConfig.COORDINATORS}, allEntries = true)
     public EventResponseDTO updateEventStatus(String eventId, String status) 
             throws ExecutionException, InterruptedException {
         Event existingEvent = getEventById(eventId);
@@ -668,6 +721,8 @@ public class EventService {
                 .update(updates);
         result.get();
 
+        countService.invalidate(COLLECTION_NAME);
+        catalogIndex.put(existingEvent, eventToLandingPageDTO(existingEvent));
         return eventToResponseDTO(existingEvent);
     }
 
@@ -675,72 +730,87 @@ public class EventService {
      * Get count of pending events (for admin dashboard)
      */
     public long getPendingEventsCount() throws ExecutionException, InterruptedException {
-        Query query = firestore.collection(COLLECTION_NAME)
-                .whereEqualTo("status", "PENDING");
-        ApiFuture<QuerySnapshot> future = query.get();
-        return future.get().getDocuments().size();
+        return countService.count(CountQuery.of(COLLECTION_NAME).where("status", "PENDING"));
     }
 
     /**
      * Get event count by coordinator ID
      */
     public int getEventCountByCoordinator(String coordinatorId) throws ExecutionException, InterruptedException {
-        Query query = firestore.collection(COLLECTION_NAME)
-                .whereEqualTo("coordinatorId", coordinatorId);
-        ApiFuture<QuerySnapshot> future = query.get();
-        return future.get().getDocuments().size();
+        return (int) countService.count(CountQuery.of(COLLECTION_NAME).where("coordinatorId", coordinatorId));
+    }
+
+    /**
+     * Get event counts for every coordinator in one pass.
+     * Read from the per-coordinator counters maintained by the catalog index.
+     */
+    public Map<String, Integer> getEventCountsByCoordinator() throws ExecutionException, InterruptedException {
+        ensureCatalogLoaded();
+        return catalogIndex.eventCountsByCoordinator();
     }
 
     /**
      * Get full event details for public event detail page
      */
     public EventDetailDTO getEventDetailById(String eventId) throws ExecutionException, InterruptedException {
-        Event event = getEventById(eventId);
-        if (event == null) {
-            throw new RuntimeException("Event not found with id: " + eventId);
-        }
-        return eventToDetailDTO(event);
+        return CompletableFutures.await(getEventDetailByIdAsync(eventId));
+    }
+
+    /**
+     * Non-blocking variant of getEventDetailById: the event read and the inventory read
+     * are chained without holding a thread
+     */
+    public CompletableFuture<EventDetailDTO> getEventDetailByIdAsync(String eventId) {
+        return getEventByIdAsync(eventId).thenCompose(event -> {
+            if (event == null) {
+                throw new RuntimeException("Event not found with id: " + eventId);
+            }
+            return ticketInventory.getAvailabilityAsync(event)
+                    .thenApply(availability -> eventToDetailDTO(event, availability));
+        });
     }
 
     /**
-     * Get all events for admin with coordinator names
+     * Get all events for admin with coordinator names.
+     * Coordinator names are joined in one batched lookup instead of one read per event.
      */
+    @Cacheable(cacheNames = CacheConfig.EVENTS, key = "'admin'", sync = true)
     public List<AdminEventDTO> getAllEventsForAdmin() throws ExecutionException, InterruptedException {
-        List<QueryDocumentSnapshot> documents = firestore.collection(COLLECTION_NAME)
-                .get()
-                .get()
-                .getDocuments();
+        List<Event> events = getAllEventsInternal();
+
+        Set<String> coordinatorIds = events.stream()
+                .map(Event::getCoordinatorId)
+                .collect(Collectors.toSet());
+        Map<String, String> coordinatorNames = coordinatorDirectory.resolveNames(coordinatorIds);
 
         List<AdminEventDTO> adminEvents = new ArrayList<>();
-        for (QueryDocumentSnapshot doc : documents) {
-            Event event = convertMapToEvent(doc.getId(), doc.getData());
-            String coordinatorName = getCoordinatorName(event.getCoordinatorId());
-            AdminEventDTO adminEventDTO = eventToAdminEventDTO(event, coordinatorName);
-            adminEvents.add(adminEventDTO);
+        for (Event event : events) {
+            String coordinatorName = coordinatorNames.get(event.getCoordinatorId());
+            adminEvents.add(eventToAdminEventDTO(event, coordinatorName));
         }
 
         return adminEvents;
     }
 
     /**
-     * Get coordinator name by ID
+     * Get one page of events for admin with coordinator names (ordered by event ID)
      */
-    private String getCoordinatorName(String coordinatorId) {
-        try {
-            DocumentSnapshot doc = firestore.collection("coordinators")
-                    .document(coordinatorId)
-                    .get()
-                    .get();
-            
-            if (doc.exists()) {
-                String firstName = (String) doc.getData().get("firstName");
-                String lastName = (String) doc.getData().get("lastName");
-                return firstName + " " + lastName;
-            }
-            return "Unknown Coordinator";
-        } catch (Exception e) {
-            return "Unknown Coordinator";
+    @Cacheable(cacheNames = CacheConfig.EVENTS, key = "'admin:' + #limit + ':' + #cursor", sync = true)
+    public PageResponse<AdminEventDTO> getEventsForAdminPage(int limit, String cursor)
+            throws ExecutionException, InterruptedException {
+        PageResponse<Event> events = FirestorePages.byDocumentId(firestore.collection(COLLECTION_NAME), limit, cursor,
+                doc -> convertMapToEvent(doc.getId(), doc.getData()));
+
+        Set<String> coordinatorIds = events.getItems().stream()
+                .map(Event::getCoordinatorId)
+                .collect(Collectors.toSet());
+        Map<String, String> coordinatorNames = coordinatorDirectory.resolveNames(coordinatorIds);
+
+        List<AdminEventDTO> adminEvents = new ArrayList<>();
+        for (Event event : events.getItems()) {
+            adminEvents.add(eventToAdminEventDTO(event, coordinatorNames.get(event.getCoordinatorId())));
         }
+        return new PageResponse<>(adminEvents, events.getNextCursor());
     }
 
     /**
@@ -767,7 +837,7 @@ public class EventService {
     /**
      * Convert Event to EventDetailDTO with all details for event detail page
      */
-    private EventDetailDTO eventToDetailDTO(Event event) {
+    private EventDetailDTO eventToDetailDTO(Event event, TicketInventory.Availability availability) {
         EventDetailDTO dto = new EventDetailDTO();
         
         // Basic event information
@@ -784,9 +854,12 @@ public class EventService {
         
         // Ticket information
         dto.setTicketsAvailable(event.getTicketsAvailable());
-        dto.setTicketCategories(event.getTicketCategories());
-        dto.setTotalSpots(500); // Default total spots
-        dto.setAvailableSpots(180); // Default available spots (can be calculated from actual bookings)
+        dto.setTicketCategories(remainingTickets(event.getTicketCategories(), availability));
+        if (!availability.categories().isEmpty()) {
+            dto.setTotalSpots((int) availability.capacity());
+            dto.setAvailableSpots((int) availability.remaining());
+            dto.setHeldSpots((int) availability.held());
+        }
         
         // Extract schedule from pastEventDetails if available
         List<EventDetailDTO.ScheduleItem> schedule = new ArrayList<>();
@@ -832,4 +905,21 @@ public class EventService {
         
         return dto;
     }
+
+    /**
+     * Ticket categories with availableCount set to the seats still left (capacity stays in the event)
+     */
+    private List<TicketCategory> remainingTickets(List<TicketCategory> categories,
+                                                  TicketInventory.Availability availability) {
+        if (categories == null) {
+            return null;
+        }
+        List<TicketCategory> remaining = new ArrayList<>();
+        for (TicketCategory category : categories) {
+            TicketInventory.CategoryAvailability seats = availability.categories().get(category.getCategoryName());
+            Integer count = seats != null ? Integer.valueOf((int) seats.remaining()) : category.getAvailableCount();
+            remaining.add(new TicketCategory(category.getCategoryName(), category.getPrice(), count));
+        }
+        return remaining;
+    }
 }
@@ -1,13 +1,18 @@
 package com.example.campusaura.service;
 
+import com.example.campusaura.config.CacheConfig;
 import com.example.campusaura.dto.FeedbackDTO;
+import com.example.campusaura.util.CompletableFutures;
 import com.google.api.core.ApiFuture;
 import com.google.cloud.firestore.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
@@ -23,30 +28,30 @@ public class FeedbackService {
      * Get all feedback for an event, ordered by creation time
      */
     public List<FeedbackDTO> getFeedbackByEventId(String eventId) throws ExecutionException, InterruptedException {
-        try {
-            // Simple query without orderBy to avoid composite index requirement
-            List<QueryDocumentSnapshot> documents = firestore.collection(COLLECTION_NAME)
-                    .whereEqualTo("eventId", eventId)
-                    .get().get().getDocuments();
-
-            return documents.stream()
-                    .map(this::documentToDTO)
-                    .sorted((a, b) -> {
-                        String dateA = a.getCreatedAt() != null ? a.getCreatedAt() : "";
-                        String dateB = b.getCreatedAt() != null ? b.getCreatedAt() : "";
-                        return dateA.compareTo(dateB);
-                    })
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            // If index doesn't exist or collection is empty, return empty list
-            System.err.println("Feedback query failed (likely missing index): " + e.getMessage());
-            return new ArrayList<>();
-        }
+        return CompletableFutures.await(getFeedbackByEventIdAsync(eventId));
+    }
+
+    // A failed read fails the future, so it is not cached; FeedbackController falls back to an empty list
+    @Cacheable(cacheNames = CacheConfig.FEEDBACK, key = "#eventId", sync = true)
+    public CompletableFuture<List<FeedbackDTO>> getFeedbackByEventIdAsync(String eventId) {
+        // Simple query without orderBy to avoid composite index requirement
+        Query query = firestore.collection(COLLECTION_NAME).whereEqualTo("eventId", eventId);
+
+        return CompletableFutures.of(query.get())
+                .thenApply(snapshot -> snapshot.getDocuments().stream()
+                        .map(this::documentToDTO)
+                        .sorted((a, b) -> {
+                            String dateA = a.getCreatedAt() != null ? a.getCreatedAt() : "";
+                            String dateB = b.getCreatedAt() != null ? b.getCreatedAt() : "";
+                            return dateA.compareTo(dateB);
+                        })
+                        .collect(Collectors.toList()));
     }
 
     /**
      * Add feedback for an event
      */
+    @CacheEvict(cacheNames = CacheConfig.FEEDBACK, key = "#eventId")
     public FeedbackDTO addFeedback(String eventId, String userId, String userName, String text) 
             throws ExecutionException, InterruptedException {
         String feedbackId = UUID.randomUUID().toString();
@@ -0,0 +1,33 @@
+package com.example.campusaura.service;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.AggregateQuerySnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * DocumentCounter using Firestore count() aggregation queries.
+ * The count is computed server-side; no documents are transferred.
+ */
+@Component
+public class FirestoreDocumentCounter implements DocumentCounter {
+
+    @Autowired
+    private Firestore firestore;
+
+    @Override
+    public ApiFuture<Long> countAsync(CountQuery countQuery) {
+        Query query = firestore.collection(countQuery.collection());
+        for (Map.Entry<String, Object> filter : countQuery.filters().entrySet()) {
+            query = query.whereEqualTo(filter.getKey(), filter.getValue());
+        }
+        return ApiFutures.transform(query.count().get(), AggregateQuerySnapshot::getCount,
+                MoreExecutors.directExecutor());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.campusaura.service;
+
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EventChangeFeed backed by a Firestore snapshot listener on the events collection
+ */
+@Component
+public class FirestoreEventChangeFeed implements EventChangeFeed {
+
+    private static final String COLLECTION_NAME = "events";
+
+    @Autowired
+    private Firestore firestore;
+
+    @Override
+    public Subscription subscribe(Listener listener) {
+        // The first snapshot of every registration lists all documents as ADDED
+        boolean[] first = {true};
+
+        ListenerRegistration registration = firestore.collection(COLLECTION_NAME)
+                .addSnapshotListener((snapshot, error) -> {
+                    if (error != null) {
+                        listener.onError(error);
+                        return;
+                    }
+                    if (snapshot == null) {
+                        return;
+                    }
+
+                    List<EventChange> changes = new ArrayList<>();
+                    for (DocumentChange change : snapshot.getDocumentChanges()) {
+                        String eventId = change.getDocument().getId();
+                        switch (change.getType()) {
+                            case ADDED -> changes.add(new EventChange(ChangeType.ADDED, eventId, change.getDocument().getData()));
+                            case MODIFIED -> changes.add(new EventChange(ChangeType.MODIFIED, eventId, change.getDocument().getData()));
+                            case REMOVED -> changes.add(new EventChange(ChangeType.REMOVED, eventId, null));
+                        }
+                    }
+
+                    boolean fullSnapshot = first[0];
+                    first[0] = false;
+                    listener.onChanges(changes, fullSnapshot);
+                });
+
+        return registration::remove;
+    }
+}
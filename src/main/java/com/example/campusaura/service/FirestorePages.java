@@ -0,0 +1,126 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.dto.PageResponse;
+import com.example.campusaura.util.CompletableFutures;
+import com.example.campusaura.util.PageCursor;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Cursor pagination over Firestore queries (orderBy + startAfter + limit).
+ *
+ * Each page reads limit + 1 documents: the extra one only tells whether a
+ * next page exists, so the last page never costs an empty round trip.
+ */
+final class FirestorePages {
+
+    // Cursor prefix of a sort value that is a string rather than a Timestamp
+    private static final String STRING_VALUE = "s:";
+
+    private FirestorePages() {
+    }
+
+    /**
+     * One page of a query ordered by document ID.
+     * The mapper may return null to skip a document (e.g. malformed data).
+     */
+    static <T> PageResponse<T> byDocumentId(Query query, int limit, String cursor,
+                                            Function<QueryDocumentSnapshot, T> mapper)
+            throws ExecutionException, InterruptedException {
+        return CompletableFutures.await(byDocumentIdAsync(query, limit, cursor, mapper));
+    }
+
+    /**
+     * Non-blocking variant of byDocumentId. An invalid cursor throws before any read.
+     */
+    static <T> CompletableFuture<PageResponse<T>> byDocumentIdAsync(Query query, int limit, String cursor,
+                                                                   Function<QueryDocumentSnapshot, T> mapper) {
+        Query page = query.orderBy(FieldPath.documentId()).limit(limit + 1);
+        if (cursor != null) {
+            page = page.startAfter(PageCursor.decode(cursor, 1).get(0));
+        }
+        return CompletableFutures.of(page.get()).thenApply(snapshot -> toPage(snapshot.getDocuments(), limit, mapper,
+                last -> PageCursor.encode(last.getId())));
+    }
+
+    /**
+     * One page of a query ordered by a Timestamp field, newest first (ties broken
+     * by document ID). Documents without the field are not returned. Firestore orders
+     * values by type first, so documents still holding the time as a legacy ISO string
+     * (see SalesTimestampMigration) come before every Timestamp, newest string first.
+     */
+    static <T> PageResponse<T> byTimestampDescending(Query query, String field, int limit, String cursor,
+                                                     Function<QueryDocumentSnapshot, T> mapper)
+            throws ExecutionException, InterruptedException {
+        return CompletableFutures.await(byTimestampDescendingAsync(query, field, limit, cursor, mapper));
+    }
+
+    /**
+     * Non-blocking variant of byTimestampDescending. An invalid cursor throws before any read.
+     */
+    static <T> CompletableFuture<PageResponse<T>> byTimestampDescendingAsync(
+            Query query, String field, int limit, String cursor, Function<QueryDocumentSnapshot, T> mapper) {
+        Query page = query.orderBy(field, Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING)
+                .limit(limit + 1);
+        if (cursor != null) {
+            List<String> values = PageCursor.decode(cursor, 2);
+            page = page.startAfter(parseSortValue(values.get(0)), values.get(1));
+        }
+        return CompletableFutures.of(page.get()).thenApply(snapshot -> toPage(snapshot.getDocuments(), limit, mapper,
+                last -> PageCursor.encode(sortValueOf(last, field), last.getId())));
+    }
+
+    // Keeps the value's type, so the next page resumes among strings or among Timestamps
+    private static String sortValueOf(QueryDocumentSnapshot doc, String field) {
+        Object value = doc.get(field);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toString();
+        }
+        if (value instanceof String string) {
+            return STRING_VALUE + string;
+        }
+        throw new IllegalStateException("Unsupported " + field + " value in document " + doc.getId());
+    }
+
+    private static Object parseSortValue(String value) {
+        if (value.startsWith(STRING_VALUE)) {
+            return value.substring(STRING_VALUE.length());
+        }
+        return parseTimestamp(value);
+    }
+
+    private static <T> PageResponse<T> toPage(List<QueryDocumentSnapshot> docs, int limit,
+                                              Function<QueryDocumentSnapshot, T> mapper,
+                                              Function<QueryDocumentSnapshot, String> cursorOf) {
+        boolean hasMore = docs.size() > limit;
+        List<QueryDocumentSnapshot> pageDocs = hasMore ? docs.subList(0, limit) : docs;
+
+        List<T> items = new ArrayList<>(pageDocs.size());
+        for (QueryDocumentSnapshot doc : pageDocs) {
+            T item = mapper.apply(doc);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        String nextCursor = hasMore ? cursorOf.apply(pageDocs.get(pageDocs.size() - 1)) : null;
+        return new PageResponse<>(items, nextCursor);
+    }
+
+    private static Timestamp parseTimestamp(String value) {
+        try {
+            return Timestamp.parseTimestamp(value);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.campusaura.service;
 
+import com.example.campusaura.config.CacheConfig;
+import com.example.campusaura.repository.CachingUserRepository;
 import com.google.api.core.ApiFuture;
 import com.google.cloud.firestore.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
@@ -16,13 +20,32 @@ public class FirestoreService {
     @Autowired
     private Firestore firestore;
 
+    @Autowired
+    private CachingUserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CountService countService;
+
+    // Read-through caches holding data of each collection (same sets the owning services evict)
+    private static final Map<String, List<String>> CACHES_BY_COLLECTION = Map.of(
+            "events", List.of(CacheConfig.EVENTS, CacheConfig.COORDINATORS),
+            "coordinators", List.of(CacheConfig.COORDINATORS, CacheConfig.EVENTS),
+            "users", List.of(CacheConfig.USERS, CacheConfig.COORDINATORS),
+            "products", List.of(CacheConfig.PRODUCTS),
+            "event_feedback", List.of(CacheConfig.FEEDBACK));
+
     // Create or Update
     public String saveDocument(String collection, String documentId, Map<String, Object> data) 
             throws ExecutionException, InterruptedException {
         ApiFuture<WriteResult> result = firestore.collection(collection)
                 .document(documentId)
                 .set(data);
-        return result.get().getUpdateTime().toString();
+        String updateTime = result.get().getUpdateTime().toString();
+        invalidate(collection, documentId);
+        return updateTime;
     }
 
     // Read
@@ -41,7 +64,9 @@ public class FirestoreService {
         ApiFuture<WriteResult> result = firestore.collection(collection)
                 .document(documentId)
                 .delete();
-        return result.get().getUpdateTime().toString();
+        String updateTime = result.get().getUpdateTime().toString();
+        invalidate(collection, documentId);
+        return updateTime;
     }
 
     public String saveUser(String uid, Map<String, Object> userObject) 
@@ -49,9 +74,25 @@ public class FirestoreService {
         ApiFuture<WriteResult> result = firestore.collection("users")
                 .document(uid)
                 .set(userObject);
-        return result.get().getUpdateTime().toString();
+        String updateTime = result.get().getUpdateTime().toString();
+        invalidate("users", uid);
+        return updateTime;
 }
 
+    // Keep the caches and counts consistent with generic writes to any collection
+    private void invalidate(String collection, String documentId) {
+        if ("users".equals(collection)) {
+            userRepository.invalidate(documentId);
+        }
+        for (String name : CACHES_BY_COLLECTION.getOrDefault(collection, List.of())) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        countService.invalidate(collection);
+    }
+
     // Get all documents
     public List<QueryDocumentSnapshot> getAllDocuments(String collection) 
             throws ExecutionException, InterruptedException {
@@ -0,0 +1,112 @@
+package com.example.campusaura.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel: deadlines are hashed into a ring of buckets by tick, so
+ * scheduling and cancelling are O(1) and each tick only looks at one bucket.
+ * Deadlines further away than one turn of the wheel carry a rounds count that is
+ * decremented each time their bucket comes around. Expiry is never early, and at
+ * most one tick late.
+ *
+ * Not thread-safe; callers guard it with a lock.
+ */
+final class HashedTimingWheel<K> {
+
+    private static final class Timeout<K> {
+        final K key;
+        final long deadline;
+        long rounds;
+        boolean cancelled;
+
+        Timeout(K key, long deadline, long rounds) {
+            this.key = key;
+            this.deadline = deadline;
+            this.rounds = rounds;
+        }
+    }
+
+    private final long tickMs;
+    private final long startMs;
+    private final int mask;
+    private final List<List<Timeout<K>>> buckets;
+    private final Map<K, Timeout<K>> pending = new HashMap<>();
+    // Number of ticks already processed
+    private long tick;
+
+    HashedTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize a power of two");
+        }
+        this.tickMs = tickMs;
+        this.startMs = startMs;
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedule key to expire at deadlineMs, replacing any earlier schedule for it
+     */
+    void schedule(K key, long deadlineMs) {
+        cancel(key);
+        long calculated = Math.max(0, deadlineMs - startMs) / tickMs;
+        long ticks = Math.max(calculated, tick);
+        Timeout<K> timeout = new Timeout<>(key, deadlineMs, (ticks - tick) / buckets.size());
+        buckets.get((int) (ticks & mask)).add(timeout);
+        pending.put(key, timeout);
+    }
+
+    /**
+     * Cancel key's schedule. The entry is dropped from its bucket when that bucket is next processed.
+     */
+    boolean cancel(K key) {
+        Timeout<K> timeout = pending.remove(key);
+        if (timeout == null) {
+            return false;
+        }
+        timeout.cancelled = true;
+        return true;
+    }
+
+    /**
+     * Process every tick that has fully elapsed by nowMs and return the keys that expired
+     */
+    List<K> advanceTo(long nowMs) {
+        List<K> expired = new ArrayList<>();
+        while (startMs + (tick + 1) * tickMs <= nowMs) {
+            Iterator<Timeout<K>> bucket = buckets.get((int) (tick & mask)).iterator();
+            while (bucket.hasNext()) {
+                Timeout<K> timeout = bucket.next();
+                if (timeout.cancelled) {
+                    bucket.remove();
+                } else if (timeout.rounds <= 0) {
+                    bucket.remove();
+                    pending.remove(timeout.key);
+                    expired.add(timeout.key);
+                } else {
+                    timeout.rounds--;
+                }
+            }
+            tick++;
+        }
+        return expired;
+    }
+
+    /**
+     * When the next tick is due
+     */
+    long nextTickAt() {
+        return startMs + (tick + 1) * tickMs;
+    }
+
+    int size() {
+        return pending.size();
+    }
+}
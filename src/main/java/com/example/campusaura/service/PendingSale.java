@@ -0,0 +1,43 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.dto.ProductSaleDTO;
+import com.example.campusaura.dto.TicketSaleDTO;
+
+/**
+ * A sale accepted by the write-behind pipeline but not yet in Firestore.
+ * Exactly one of ticket / product is set, depending on kind.
+ */
+record PendingSale(Kind kind, TicketSaleDTO ticket, ProductSaleDTO product) {
+
+    enum Kind { TICKET, PRODUCT }
+
+    static PendingSale ticket(TicketSaleDTO sale) {
+        return new PendingSale(Kind.TICKET, sale, null);
+    }
+
+    static PendingSale product(ProductSaleDTO sale) {
+        return new PendingSale(Kind.PRODUCT, null, sale);
+    }
+
+    String saleId() {
+        return kind == Kind.TICKET ? ticket.getSaleId() : product.getSaleId();
+    }
+
+    String userId() {
+        return kind == Kind.TICKET ? ticket.getUserId() : product.getUserId();
+    }
+
+    String collection() {
+        return kind == Kind.TICKET ? SalesService.TICKET_SALES_COLLECTION : SalesService.PRODUCT_SALES_COLLECTION;
+    }
+
+    String stripePaymentId() {
+        return kind == Kind.TICKET ? ticket.getStripePaymentId() : product.getStripePaymentId();
+    }
+
+    // Replays and retries are deduplicated on the Stripe payment, falling back to the sale ID
+    String idempotencyKey() {
+        String paymentId = stripePaymentId();
+        return paymentId != null ? kind + ":" + paymentId : kind + ":sale:" + saleId();
+    }
+}
@@ -1,18 +1,24 @@
 package com.example.campusaura.service;
 
+import com.example.campusaura.config.CacheConfig;
+import com.example.campusaura.dto.PageResponse;
 import com.example.campusaura.dto.ProductResponseDTO;
 import com.example.campusaura.model.Product;
+import com.example.campusaura.util.CompletableFutures;
 import com.google.api.core.ApiFuture;
 import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
@@ -24,26 +30,55 @@ public class ProductService {
     @Autowired
     private Firestore firestore;
 
+    @Autowired
+    private CountService countService;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
     private static final String COLLECTION_NAME = "products";
 
     // Get all products
     public List<ProductResponseDTO> getAllProducts() throws ExecutionException, InterruptedException {
-        ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME).get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
+        return CompletableFutures.await(getAllProductsAsync());
+    }
 
-        List<ProductResponseDTO> result = new ArrayList<>();
-        for (QueryDocumentSnapshot doc : documents) {
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "'all'", sync = true)
+    public CompletableFuture<List<ProductResponseDTO>> getAllProductsAsync() {
+        return CompletableFutures.of(firestore.collection(COLLECTION_NAME).get()).thenApply(snapshot -> {
+            List<ProductResponseDTO> result = new ArrayList<>();
+            for (QueryDocumentSnapshot doc : snapshot.getDocuments()) {
+                try {
+                    Product product = documentToProduct(doc);
+                    result.add(productToDTO(product));
+                } catch (Exception e) {
+                    logger.error("Skipping malformed product document '{}': {}", doc.getId(), e.getMessage());
+                }
+            }
+            return result;
+        });
+    }
+
+    // Get one page of products (ordered by product ID, malformed documents skipped)
+    public PageResponse<ProductResponseDTO> getProductsPage(int limit, String cursor)
+            throws ExecutionException, InterruptedException {
+        return CompletableFutures.await(getProductsPageAsync(limit, cursor));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "'page:' + #limit + ':' + #cursor", sync = true)
+    public CompletableFuture<PageResponse<ProductResponseDTO>> getProductsPageAsync(int limit, String cursor) {
+        return FirestorePages.byDocumentIdAsync(firestore.collection(COLLECTION_NAME), limit, cursor, doc -> {
             try {
-                Product product = documentToProduct(doc);
-                result.add(productToDTO(product));
+                return productToDTO(documentToProduct(doc));
             } catch (Exception e) {
                 logger.error("Skipping malformed product document '{}': {}", doc.getId(), e.getMessage());
+                return null;
             }
-        }
-        return result;
+        });
     }
 
     // Get product by ID
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "'id:' + #id", sync = true)
     public ProductResponseDTO getProductById(String id) throws ExecutionException, InterruptedException {
         DocumentSnapshot document = firestore.collection(COLLECTION_NAME).document(id).get().get();
         
@@ -69,13 +104,12 @@ public class ProductService {
 
     // Get count of sold products
     public long getSoldProductsCount() throws ExecutionException, InterruptedException {
-        Query query = firestore.collection(COLLECTION_NAME)
-                .whereEqualTo("status", Product.ProductStatus.SOLD.toString());
-        ApiFuture<QuerySnapshot> future = query.get();
-        return future.get().getDocuments().size();
+        return countService.count(CountQuery.of(COLLECTION_NAME)
+                .where("status", Product.ProductStatus.SOLD.toString()));
     }
 
     // Delete product (soft delete by updating status)
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)
     public void deleteProduct(String id) throws ExecutionException, InterruptedException {
         DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
         DocumentSnapshot document = docRef.get().get();
@@ -85,9 +119,13 @@ public class ProductService {
         }
 
         docRef.delete().get();
+        countService.invalidate(COLLECTION_NAME);
+        dashboardCounters.record(DashboardCounters.Metric.PRODUCTS, -1);
+        recordSoldTransition(document.getString("status"), null);
     }
 
     // Soft delete product (marks as deleted without removing)
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)
     public void softDeleteProduct(String id) throws ExecutionException, InterruptedException {
         DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
         DocumentSnapshot document = docRef.get().get();
@@ -101,9 +139,21 @@ public class ProductService {
         updates.put("updatedAt", LocalDateTime.now().toString());
 
         docRef.update(updates).get();
+        countService.invalidate(COLLECTION_NAME);
+        recordSoldTransition(document.getString("status"), Product.ProductStatus.DELETED);
     }
 
     // Helper methods
+
+    // Keep the dashboard's live "products sold" total in step with status changes
+    private void recordSoldTransition(String previousStatus, Product.ProductStatus newStatus) {
+        boolean wasSold = Product.ProductStatus.SOLD.toString().equalsIgnoreCase(previousStatus);
+        boolean isSold = newStatus == Product.ProductStatus.SOLD;
+        if (wasSold != isSold) {
+            dashboardCounters.record(DashboardCounters.Metric.PRODUCTS_SOLD, isSold ? 1 : -1);
+        }
+    }
+
     private Product documentToProduct(DocumentSnapshot document) {
         Product product = new Product();
         product.setId(document.getId());
@@ -188,6 +238,7 @@ public class ProductService {
     /**
      * Update product status (for admin approval/rejection)
      */
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)
     public ProductResponseDTO updateProductStatus(String id, Product.ProductStatus status) 
             throws ExecutionException, InterruptedException {
         DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
@@ -202,6 +253,8 @@ public class ProductService {
         updates.put("updatedAt", LocalDateTime.now().toString());
 
         docRef.update(updates).get();
+        countService.invalidate(COLLECTION_NAME);
+        recordSoldTransition(document.getString("status"), status);
 
         // Return updated product
         Product product = documentToProduct(docRef.get().get());
@@ -212,9 +265,7 @@ public class ProductService {
      * Get count of pending products (for admin dashboard)
      */
     public long getPendingProductsCount() throws ExecutionException, InterruptedException {
-        Query query = firestore.collection(COLLECTION_NAME)
-                .whereEqualTo("status", Product.ProductStatus.PENDING.toString());
-        ApiFuture<QuerySnapshot> future = query.get();
-        return future.get().getDocuments().size();
+        return countService.count(CountQuery.of(COLLECTION_NAME)
+                .where("status", Product.ProductStatus.PENDING.toString()));
     }
 }
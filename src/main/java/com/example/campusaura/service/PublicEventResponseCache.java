@@ -0,0 +1,124 @@
+package com.example.campusaura.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded response bodies of the public event lists, so repeat requests skip Jackson
+ * and compression: each entry holds the JSON bytes and their gzip encoding.
+ *
+ * Entries belong to one catalog version (EventService.publicCatalogValidators). The
+ * first request that sees a new version swaps in an empty generation, so bodies built
+ * from an older catalog are dropped in one step. Each generation holds at most
+ * max-entries bodies (request parameters are client-controlled); past that, bodies are
+ * encoded per request and not kept.
+ */
+@Component
+public class PublicEventResponseCache {
+
+    /**
+     * Request that produced a body, with parameters normalized by the caller
+     */
+    public record Key(String endpoint, String category, String sortBy) {
+    }
+
+    /**
+     * JSON body and its gzip encoding
+     */
+    public record Payload(byte[] json, byte[] gzip) {
+    }
+
+    /**
+     * Produces the body object on a miss
+     */
+    @FunctionalInterface
+    public interface BodyLoader {
+        Object load() throws ExecutionException, InterruptedException;
+    }
+
+    private record Generation(String version, Map<Key, Payload> payloads) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final AtomicReference<Generation> current = new AtomicReference<>(new Generation(null, Map.of()));
+
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public PublicEventResponseCache(ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${campusaura.events.response-cache.max-entries:256}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("campusaura.events.response_cache")
+                .description("Public event list bodies served pre-encoded")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("campusaura.events.response_cache")
+                .description("Public event list bodies served pre-encoded")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The encoded body for the key at the given catalog version, loading and encoding it on a miss
+     */
+    public Payload get(Key key, String version, BodyLoader loader) throws ExecutionException, InterruptedException {
+        Generation generation = generation(version);
+        Payload payload = generation.payloads().get(key);
+        if (payload != null) {
+            hits.increment();
+            return payload;
+        }
+        misses.increment();
+        payload = encode(loader.load());
+        if (generation.payloads().size() < maxEntries) {
+            Payload raced = generation.payloads().putIfAbsent(key, payload);
+            if (raced != null) {
+                return raced;
+            }
+        }
+        return payload;
+    }
+
+    private Generation generation(String version) {
+        while (true) {
+            Generation generation = current.get();
+            if (version.equals(generation.version())) {
+                return generation;
+            }
+            Generation next = new Generation(version, new ConcurrentHashMap<>());
+            if (current.compareAndSet(generation, next)) {
+                return next;
+            }
+        }
+    }
+
+    private Payload encode(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream gzip = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+                out.write(json);
+            }
+            return new Payload(json, gzip.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.campusaura.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sales confirmed recently on this instance, keyed by kind and sale ID (the Stripe
+ * PaymentIntent ID). A client retrying a confirm is answered from here without a
+ * Firestore read. Least recently used entries are evicted past max-size, and
+ * entries expire after ttl-ms.
+ */
+@Component
+public class RecentSaleConfirmations {
+
+    private final long ttlMs;
+    private final int maxSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    private record Entry(Object sale, long expiresAt) {
+    }
+
+    @Autowired
+    public RecentSaleConfirmations(MeterRegistry meterRegistry,
+                                   @Value("${campusaura.sales.confirmations.ttl-ms:600000}") long ttlMs,
+                                   @Value("${campusaura.sales.confirmations.max-size:10000}") int maxSize) {
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > RecentSaleConfirmations.this.maxSize;
+            }
+        };
+        this.hits = Counter.builder("campusaura.sales.confirmations")
+                .description("Recent sale confirmation lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("campusaura.sales.confirmations")
+                .description("Recent sale confirmation lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The confirmed sale if it was seen recently, otherwise null
+     */
+    <T> T get(PendingSale.Kind kind, String saleId, Class<T> type) {
+        String key = kind + ":" + saleId;
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+                hits.increment();
+                return type.cast(entry.sale());
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        return null;
+    }
+
+    void put(PendingSale.Kind kind, String saleId, Object sale) {
+        lock.lock();
+        try {
+            entries.put(kind + ":" + saleId, new Entry(sale, System.currentTimeMillis() + ttlMs));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.dto.RevenuePointDTO;
+import com.example.campusaura.model.Transaction;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.WriteBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Pre-aggregated revenue for the payments dashboard.
+ *
+ * - revenue_ledger/totals: amount and count per {type}.{status}
+ * - revenue_ledger_daily/{yyyy-MM-dd} and revenue_ledger_monthly/{yyyy-MM}:
+ *   completed amount and count per {type}, bucketed by completion date
+ *
+ * Every transaction write stages increments here in the same Firestore
+ * transaction, so payment stats are a single document read. Transactions written
+ * by other clients are picked up by TransactionService.refreshRevenueLedger.
+ */
+@Service
+public class RevenueLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueLedger.class);
+
+    static final String TOTALS_COLLECTION = "revenue_ledger";
+    static final String TOTALS_DOCUMENT = "totals";
+    static final String DAILY_COLLECTION = "revenue_ledger_daily";
+    static final String MONTHLY_COLLECTION = "revenue_ledger_monthly";
+
+    private static final int MAX_DAYS = 366;
+    private static final int MAX_MONTHS = 120;
+    private static final int BATCH_SIZE = 400;
+
+    @Autowired
+    private Firestore firestore;
+
+    // Stage the ledger changes for one transaction write; previous is null for a new transaction
+    public void apply(com.google.cloud.firestore.Transaction tx, Transaction previous, Transaction next) {
+        Delta delta = new Delta();
+        delta.add(previous, -1);
+        delta.add(next, 1);
+        delta.documents().forEach((path, fields) ->
+                tx.set(firestore.document(path), Delta.toNestedMap(fields, true), SetOptions.merge()));
+    }
+
+    public ApiFuture<DocumentSnapshot> getTotalsAsync() {
+        return firestore.collection(TOTALS_COLLECTION).document(TOTALS_DOCUMENT).get();
+    }
+
+    public static double amount(DocumentSnapshot totals, Transaction.TransactionType type,
+                                Transaction.TransactionStatus status) {
+        Object value = totals.get(FieldPath.of(type.name(), status.name(), "amount"));
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    public static long count(DocumentSnapshot totals, Transaction.TransactionType type,
+                             Transaction.TransactionStatus status) {
+        Object value = totals.get(FieldPath.of(type.name(), status.name(), "count"));
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    // ==================== SERIES ====================
+
+    public List<RevenuePointDTO> getDailySeries(LocalDate from, LocalDate to)
+            throws ExecutionException, InterruptedException {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("Daily range must cover 1 to " + MAX_DAYS + " days");
+        }
+        Map<String, DocumentSnapshot> buckets = readBuckets(DAILY_COLLECTION, from.toString(), to.toString());
+
+        List<RevenuePointDTO> series = new ArrayList<>((int) days);
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            series.add(toPoint(day.toString(), buckets.get(day.toString())));
+        }
+        return series;
+    }
+
+    public List<RevenuePointDTO> getMonthlySeries(YearMonth from, YearMonth to)
+            throws ExecutionException, InterruptedException {
+        long months = ChronoUnit.MONTHS.between(from, to) + 1;
+        if (months < 1 || months > MAX_MONTHS) {
+            throw new IllegalArgumentException("Monthly range must cover 1 to " + MAX_MONTHS + " months");
+        }
+        Map<String, DocumentSnapshot> buckets = readBuckets(MONTHLY_COLLECTION, from.toString(), to.toString());
+
+        List<RevenuePointDTO> series = new ArrayList<>((int) months);
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            series.add(toPoint(month.toString(), buckets.get(month.toString())));
+        }
+        return series;
+    }
+
+    // Bucket IDs sort chronologically, so a document ID range reads only the buckets asked for
+    private Map<String, DocumentSnapshot> readBuckets(String collection, String fromId, String toId)
+            throws ExecutionException, InterruptedException {
+        List<QueryDocumentSnapshot> docs = firestore.collection(collection)
+                .whereGreaterThanOrEqualTo(FieldPath.documentId(), fromId)
+                .whereLessThanOrEqualTo(FieldPath.documentId(), toId)
+                .get().get().getDocuments();
+        Map<String, DocumentSnapshot> buckets = new HashMap<>();
+        for (QueryDocumentSnapshot doc : docs) {
+            buckets.put(doc.getId(), doc);
+        }
+        return buckets;
+    }
+
+    private static RevenuePointDTO toPoint(String period, DocumentSnapshot bucket) {
+        if (bucket == null) {
+            return new RevenuePointDTO(period, 0, 0, 0);
+        }
+        double ticket = number(bucket, Transaction.TransactionType.TICKET, "amount");
+        double marketplace = number(bucket, Transaction.TransactionType.MARKETPLACE, "amount");
+        long count = (long) (number(bucket, Transaction.TransactionType.TICKET, "count")
+                + number(bucket, Transaction.TransactionType.MARKETPLACE, "count"));
+        return new RevenuePointDTO(period, ticket, marketplace, count);
+    }
+
+    private static double number(DocumentSnapshot bucket, Transaction.TransactionType type, String field) {
+        Object value = bucket.get(FieldPath.of(type.name(), field));
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    // ==================== REBUILD ====================
+
+    /**
+     * Replaces the whole ledger with totals computed from scratch (first run, or
+     * after transactions were written outside TransactionService).
+     */
+    void replaceWith(Delta rebuilt) throws ExecutionException, InterruptedException {
+        Map<String, Map<String, Double>> documents = rebuilt.documents();
+
+        List<DocumentReference> stale = new ArrayList<>();
+        for (String collection : List.of(DAILY_COLLECTION, MONTHLY_COLLECTION)) {
+            for (DocumentReference ref : firestore.collection(collection).listDocuments()) {
+                if (!documents.containsKey(ref.getPath())) {
+                    stale.add(ref);
+                }
+            }
+        }
+
+        WriteBatch batch = firestore.batch();
+        int pending = 0;
+        for (DocumentReference ref : stale) {
+            batch.delete(ref);
+            if (++pending == BATCH_SIZE) {
+                batch.commit().get();
+                batch = firestore.batch();
+                pending = 0;
+            }
+        }
+        for (Map.Entry<String, Map<String, Double>> entry : documents.entrySet()) {
+            if (!entry.getKey().equals(Delta.TOTALS_PATH)) {
+                batch.set(firestore.document(entry.getKey()), Delta.toNestedMap(entry.getValue(), false));
+                if (++pending == BATCH_SIZE) {
+                    batch.commit().get();
+                    batch = firestore.batch();
+                    pending = 0;
+                }
+            }
+        }
+        // Always written, so an empty ledger is distinguishable from a missing one
+        Map<String, Object> totals = Delta.toNestedMap(documents.getOrDefault(Delta.TOTALS_PATH, Map.of()), false);
+        totals.put("rebuiltAt", Timestamp.now());
+        batch.set(firestore.document(Delta.TOTALS_PATH), totals);
+        batch.commit().get();
+
+        logger.info("Revenue ledger rebuilt: {} buckets written, {} stale buckets removed",
+                documents.size() - (documents.containsKey(Delta.TOTALS_PATH) ? 1 : 0), stale.size());
+    }
+
+    /**
+     * Per-document field deltas ("TICKET.COMPLETED.amount" → 120.0) for a set of
+     * transaction states. Used for single writes (increments) and full rebuilds.
+     */
+    static final class Delta {
+
+        static final String TOTALS_PATH = TOTALS_COLLECTION + "/" + TOTALS_DOCUMENT;
+
+        private final Map<String, Map<String, Double>> documents = new LinkedHashMap<>();
+
+        void add(Transaction transaction, int sign) {
+            if (transaction == null || transaction.getType() == null || transaction.getStatus() == null) {
+                return;
+            }
+            String type = transaction.getType().name();
+            double amount = sign * transaction.getAmount();
+
+            String totalsPrefix = type + "." + transaction.getStatus().name();
+            add(TOTALS_PATH, totalsPrefix + ".amount", amount);
+            add(TOTALS_PATH, totalsPrefix + ".count", sign);
+
+            if (transaction.getStatus() != Transaction.TransactionStatus.COMPLETED) {
+                return;
+            }
+            LocalDateTime completedAt = transaction.getCompletedAt() != null
+                    ? transaction.getCompletedAt() : transaction.getCreatedAt();
+            if (completedAt == null) {
+                return;
+            }
+            String day = DAILY_COLLECTION + "/" + completedAt.toLocalDate();
+            String month = MONTHLY_COLLECTION + "/" + YearMonth.from(completedAt);
+            for (String bucket : List.of(day, month)) {
+                add(bucket, type + ".amount", amount);
+                add(bucket, type + ".count", sign);
+            }
+        }
+
+        private void add(String path, String field, double delta) {
+            documents.computeIfAbsent(path, p -> new LinkedHashMap<>()).merge(field, delta, Double::sum);
+        }
+
+        // Document path → non-zero field deltas (a status change that cancels out writes nothing)
+        Map<String, Map<String, Double>> documents() {
+            Map<String, Map<String, Double>> nonZero = new LinkedHashMap<>();
+            documents.forEach((path, fields) -> {
+                Map<String, Double> changed = new LinkedHashMap<>();
+                fields.forEach((field, value) -> {
+                    if (value != 0) {
+                        changed.put(field, value);
+                    }
+                });
+                if (!changed.isEmpty()) {
+                    nonZero.put(path, changed);
+                }
+            });
+            return nonZero;
+        }
+
+        // Dotted field paths → nested maps; counts are stored as integers
+        @SuppressWarnings("unchecked")
+        static Map<String, Object> toNestedMap(Map<String, Double> fields, boolean increments) {
+            Map<String, Object> root = new HashMap<>();
+            fields.forEach((field, value) -> {
+                String[] parts = field.split("\\.");
+                Map<String, Object> node = root;
+                for (int i = 0; i < parts.length - 1; i++) {
+                    node = (Map<String, Object>) node.computeIfAbsent(parts[i], k -> new HashMap<String, Object>());
+                }
+                boolean count = parts[parts.length - 1].equals("count");
+                Object stored;
+                if (increments) {
+                    stored = count ? FieldValue.increment(value.longValue()) : FieldValue.increment(value);
+                } else {
+                    stored = count ? (Object) value.longValue() : value;
+                }
+                node.put(parts[parts.length - 1], stored);
+            });
+            return root;
+        }
+    }
+}
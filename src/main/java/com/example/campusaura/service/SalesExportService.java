@@ -0,0 +1,168 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.dto.ProductSaleDTO;
+import com.example.campusaura.dto.TicketSaleDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Streams full sales exports (NDJSON or CSV) straight to an output stream.
+ * Sales are read from Firestore a page at a time and each page is flushed as soon
+ * as it is written, so memory stays flat and the client gets bytes immediately.
+ */
+@Service
+public class SalesExportService {
+
+    private static final int PAGE_SIZE = 500;
+
+    @Autowired
+    private SalesService salesService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    public void exportTicketSales(Format format, OutputStream out)
+            throws IOException, ExecutionException, InterruptedException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writeCsvRow(writer, "saleId", "purchasedAt", "eventId", "eventTitle", "userId", "userName",
+                    "userEmail", "ticketCategory", "ticketCount", "pricePerTicket", "totalAmount", "stripePaymentId");
+            writer.flush();
+        }
+        salesService.forEachTicketSalePage(PAGE_SIZE, page -> {
+            for (TicketSaleDTO sale : page) {
+                if (format == Format.NDJSON) {
+                    writeJsonLine(writer, sale);
+                } else {
+                    writeCsvRow(writer, sale.getSaleId(), sale.getPurchasedAt(), sale.getEventId(),
+                            sale.getEventTitle(), sale.getUserId(), sale.getUserName(), sale.getUserEmail(),
+                            sale.getTicketCategory(), String.valueOf(sale.getTicketCount()),
+                            String.valueOf(sale.getPricePerTicket()), String.valueOf(sale.getTotalAmount()),
+                            sale.getStripePaymentId());
+                }
+            }
+            writer.flush();
+        });
+        writer.flush();
+    }
+
+    // CSV has one row per purchased item; sale-level columns repeat on each row
+    public void exportProductSales(Format format, OutputStream out)
+            throws IOException, ExecutionException, InterruptedException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writeCsvRow(writer, "saleId", "purchasedAt", "userId", "userName", "userEmail", "totalAmount",
+                    "stripePaymentId", "productId", "productName", "quantity", "price");
+            writer.flush();
+        }
+        salesService.forEachProductSalePage(PAGE_SIZE, page -> {
+            for (ProductSaleDTO sale : page) {
+                if (format == Format.NDJSON) {
+                    writeJsonLine(writer, sale);
+                    continue;
+                }
+                List<ProductSaleDTO.SaleItem> items = sale.getItems();
+                if (items == null || items.isEmpty()) {
+                    writeProductSaleRow(writer, sale, null);
+                } else {
+                    for (ProductSaleDTO.SaleItem item : items) {
+                        writeProductSaleRow(writer, sale, item);
+                    }
+                }
+            }
+            writer.flush();
+        });
+        writer.flush();
+    }
+
+    private void writeProductSaleRow(Writer writer, ProductSaleDTO sale, ProductSaleDTO.SaleItem item)
+            throws IOException {
+        writeCsvRow(writer, sale.getSaleId(), sale.getPurchasedAt(), sale.getUserId(), sale.getUserName(),
+                sale.getUserEmail(), String.valueOf(sale.getTotalAmount()), sale.getStripePaymentId(),
+                item != null ? item.getProductId() : null,
+                item != null ? item.getProductName() : null,
+                item != null ? String.valueOf(item.getQuantity()) : null,
+                item != null ? String.valueOf(item.getPrice()) : null);
+    }
+
+    private void writeJsonLine(Writer writer, Object value) throws IOException {
+        writer.write(objectMapper.writeValueAsString(value));
+        writer.write('\n');
+    }
+
+    static void writeCsvRow(Writer writer, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180 quoting; a leading =, +, - or @ is prefixed so spreadsheets don't run it as a formula
+    static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String field = value;
+        char first = field.charAt(0);
+        if (first == '=' || first == '+' || first == '@' || (first == '-' && !isNumber(field))) {
+            field = "'" + field;
+        }
+        if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0
+                || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+            return '"' + field.replace("\"", "\"\"") + '"';
+        }
+        return field;
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
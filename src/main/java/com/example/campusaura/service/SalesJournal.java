@@ -0,0 +1,154 @@
+package com.example.campusaura.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local append-only journal (one JSON entry per line) for the sales write-behind pipeline.
+ *
+ * A SALE entry is appended before a sale is acknowledged to the client and a COMMIT
+ * entry once it is in Firestore; on start-up every SALE without a COMMIT is replayed.
+ * A torn last line from a crash mid-append is ignored.
+ *
+ * The same format is used for the dead-letter file: DEAD_LETTER entries carry a sale
+ * Firestore rejected for good, with the error, for an operator to fix and re-enter.
+ */
+final class SalesJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesJournal.class);
+
+    record Entry(String op, PendingSale sale, List<String> saleIds, String error) {
+        static final String SALE = "SALE";
+        static final String COMMIT = "COMMIT";
+        static final String DEAD_LETTER = "DEAD_LETTER";
+    }
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final boolean fsync;
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel channel;
+
+    SalesJournal(Path path, ObjectMapper objectMapper, boolean fsync) throws IOException {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.fsync = fsync;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = open();
+    }
+
+    void appendSale(PendingSale sale) throws IOException {
+        append(new Entry(Entry.SALE, sale, null, null));
+    }
+
+    void appendCommit(Collection<String> saleIds) throws IOException {
+        append(new Entry(Entry.COMMIT, null, new ArrayList<>(saleIds), null));
+    }
+
+    void appendDeadLetter(PendingSale sale, String error) throws IOException {
+        append(new Entry(Entry.DEAD_LETTER, sale, null, error));
+    }
+
+    // Sales that were journaled but never committed, in the order they were accepted
+    List<PendingSale> uncommitted() throws IOException {
+        Map<String, PendingSale> pending = new LinkedHashMap<>();
+        lock.lock();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Entry entry;
+                try {
+                    entry = objectMapper.readValue(line, Entry.class);
+                } catch (IOException e) {
+                    logger.warn("Ignoring unreadable sales journal line {} in {}", lineNumber, path);
+                    continue;
+                }
+                if (Entry.SALE.equals(entry.op()) && entry.sale() != null) {
+                    pending.put(entry.sale().saleId(), entry.sale());
+                } else if (Entry.COMMIT.equals(entry.op()) && entry.saleIds() != null) {
+                    entry.saleIds().forEach(pending::remove);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * Empties the journal if nothing is in flight. The check runs under the journal lock,
+     * so a sale registered as in flight before it is appended can never be truncated away.
+     */
+    boolean truncateIfIdle(BooleanSupplier idle) throws IOException {
+        lock.lock();
+        try {
+            if (channel.size() == 0 || !idle.getAsBoolean()) {
+                return false;
+            }
+            channel.truncate(0);
+            if (fsync) {
+                channel.force(true);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(Entry entry) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        lock.lock();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,352 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.dto.ProductSaleDTO;
+import com.example.campusaura.dto.RevenueBucketDTO;
+import com.example.campusaura.dto.TicketSaleDTO;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.UpdateBuilder;
+import com.google.cloud.firestore.WriteBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hourly, daily and monthly sales rollups for the revenue analytics API.
+ *
+ * Each bucket document (ID = period, so IDs sort chronologically) holds:
+ * ticketRevenue, productRevenue, ticketsSold, itemsSold, orders, plus
+ * events.{eventId}.{revenue,tickets,orders}, ticketCategories.{category}.{revenue,count}
+ * and productCategories.{category}.{revenue,count}.
+ *
+ * Buckets are incremented in the same Firestore transaction that stores the sale.
+ * A single document sustains roughly one write per second, so each bucket is split into
+ * shards: shard 0 is the document {period} itself, shard n is {period}_n. Every sale
+ * increments one random shard and queries sum the shards of each period.
+ */
+@Service
+public class SalesRollups {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollups.class);
+
+    static final String UNCATEGORIZED = "Uncategorized";
+    private static final int BATCH_SIZE = 400;
+    private static final String SHARD_SEPARATOR = "_";
+    private static final Set<String> COUNT_FIELDS = Set.of("ticketsSold", "itemsSold", "orders", "tickets", "count");
+
+    public enum Granularity {
+        HOUR("sales_rollups_hourly", DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH"), ChronoUnit.HOURS, 24 * 31),
+        DAY("sales_rollups_daily", DateTimeFormatter.ofPattern("yyyy-MM-dd"), ChronoUnit.DAYS, 366),
+        MONTH("sales_rollups_monthly", DateTimeFormatter.ofPattern("yyyy-MM"), ChronoUnit.MONTHS, 120);
+
+        private final String collection;
+        private final DateTimeFormatter format;
+        private final ChronoUnit unit;
+        private final int maxBuckets;
+
+        Granularity(String collection, DateTimeFormatter format, ChronoUnit unit, int maxBuckets) {
+            this.collection = collection;
+            this.format = format;
+            this.unit = unit;
+            this.maxBuckets = maxBuckets;
+        }
+
+        public static Granularity from(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unsupported granularity: " + value);
+            }
+        }
+
+        String periodOf(ZonedDateTime time) {
+            return format.format(time);
+        }
+
+        // Start of the bucket containing time
+        ZonedDateTime truncate(ZonedDateTime time) {
+            return switch (this) {
+                case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+                case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+                case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            };
+        }
+    }
+
+    @Autowired
+    private Firestore firestore;
+
+    @Value("${campusaura.analytics.time-zone:Asia/Colombo}")
+    private String timeZone;
+
+    @Value("${campusaura.analytics.rollup-shards:8}")
+    private int shards;
+
+    // ==================== CONTRIBUTIONS ====================
+
+    Rollup forTicketSale(TicketSaleDTO sale, String eventCategory) {
+        Rollup rollup = new Rollup(zone());
+        Instant at = Instant.parse(sale.getPurchasedAt());
+        double amount = sale.getTotalAmount();
+        long tickets = sale.getTicketCount();
+
+        rollup.add(at, List.of("ticketRevenue"), amount);
+        rollup.add(at, List.of("ticketsSold"), tickets);
+        rollup.add(at, List.of("orders"), 1);
+        if (sale.getEventId() != null) {
+            rollup.add(at, List.of("events", sale.getEventId(), "revenue"), amount);
+            rollup.add(at, List.of("events", sale.getEventId(), "tickets"), tickets);
+            rollup.add(at, List.of("events", sale.getEventId(), "orders"), 1);
+        }
+        String category = eventCategory != null ? eventCategory : UNCATEGORIZED;
+        rollup.add(at, List.of("ticketCategories", category, "revenue"), amount);
+        rollup.add(at, List.of("ticketCategories", category, "count"), tickets);
+        return rollup;
+    }
+
+    Rollup forProductSale(ProductSaleDTO sale, Map<String, String> productCategories) {
+        Rollup rollup = new Rollup(zone());
+        Instant at = Instant.parse(sale.getPurchasedAt());
+
+        rollup.add(at, List.of("productRevenue"), sale.getTotalAmount());
+        rollup.add(at, List.of("orders"), 1);
+        if (sale.getItems() != null) {
+            for (ProductSaleDTO.SaleItem item : sale.getItems()) {
+                String category = productCategories.getOrDefault(item.getProductId(), UNCATEGORIZED);
+                rollup.add(at, List.of("itemsSold"), item.getQuantity());
+                rollup.add(at, List.of("productCategories", category, "revenue"), item.getPrice() * item.getQuantity());
+                rollup.add(at, List.of("productCategories", category, "count"), item.getQuantity());
+            }
+        }
+        return rollup;
+    }
+
+    // Stage increments for every bucket the sale falls into, on one random shard of each
+    void apply(UpdateBuilder<?> writes, Rollup rollup) {
+        String shard = shardSuffix(ThreadLocalRandom.current().nextInt(Math.max(1, shards)));
+        rollup.documents().forEach((path, fields) ->
+                writes.set(firestore.document(path + shard), Rollup.toNestedMap(fields, true), SetOptions.merge()));
+    }
+
+    static String shardSuffix(int shard) {
+        return shard == 0 ? "" : SHARD_SEPARATOR + shard;
+    }
+
+    // id -> category for events or products (missing documents/categories are left out)
+    Map<String, String> categoriesOf(String collection, Collection<String> ids)
+            throws ExecutionException, InterruptedException {
+        Map<String, String> categories = new HashMap<>();
+        if (ids.isEmpty()) {
+            return categories;
+        }
+        DocumentReference[] refs = ids.stream().distinct()
+                .map(id -> firestore.collection(collection).document(id))
+                .toArray(DocumentReference[]::new);
+        for (DocumentSnapshot doc : firestore.getAll(refs, FieldMask.of("category")).get()) {
+            String category = doc.exists() ? doc.getString("category") : null;
+            if (category != null && !category.isBlank()) {
+                categories.put(doc.getId(), category);
+            }
+        }
+        return categories;
+    }
+
+    // ==================== QUERIES ====================
+
+    /**
+     * Buckets covering [from, to] (whole days in the analytics time zone), zero-filled.
+     * eventId or category narrows the figures to that event / category.
+     */
+    public List<RevenueBucketDTO> getRevenue(Granularity granularity, LocalDate from, LocalDate to,
+                                             String eventId, String category)
+            throws ExecutionException, InterruptedException {
+        ZonedDateTime first = granularity.truncate(from.atStartOfDay(zone()));
+        ZonedDateTime last = granularity.truncate(to.plusDays(1).atStartOfDay(zone()).minusNanos(1));
+        long buckets = granularity.unit.between(first, last) + 1;
+        if (buckets < 1 || buckets > granularity.maxBuckets) {
+            throw new IllegalArgumentException("Range must cover 1 to " + granularity.maxBuckets + " "
+                    + granularity.name().toLowerCase(Locale.ROOT) + " buckets");
+        }
+
+        // Bucket IDs sort chronologically with their shards right after them,
+        // so a document ID range reads only the buckets asked for
+        List<QueryDocumentSnapshot> docs = firestore.collection(granularity.collection)
+                .whereGreaterThanOrEqualTo(FieldPath.documentId(), granularity.periodOf(first))
+                .whereLessThanOrEqualTo(FieldPath.documentId(), granularity.periodOf(last) + SHARD_SEPARATOR + "~")
+                .get().get().getDocuments();
+        Map<String, List<DocumentSnapshot>> byPeriod = new HashMap<>();
+        for (QueryDocumentSnapshot doc : docs) {
+            String id = doc.getId();
+            int separator = id.indexOf(SHARD_SEPARATOR);
+            String period = separator < 0 ? id : id.substring(0, separator);
+            byPeriod.computeIfAbsent(period, p -> new ArrayList<>()).add(doc);
+        }
+
+        List<RevenueBucketDTO> series = new ArrayList<>((int) buckets);
+        for (ZonedDateTime time = first; !time.isAfter(last); time = time.plus(1, granularity.unit)) {
+            String period = granularity.periodOf(time);
+            series.add(toBucket(period, byPeriod.getOrDefault(period, List.of()), eventId, category));
+        }
+        return series;
+    }
+
+    private static RevenueBucketDTO toBucket(String period, List<DocumentSnapshot> shards,
+                                             String eventId, String category) {
+        if (eventId != null) {
+            return new RevenueBucketDTO(period,
+                    number(shards, "events", eventId, "revenue"), 0,
+                    (long) number(shards, "events", eventId, "tickets"), 0,
+                    (long) number(shards, "events", eventId, "orders"));
+        }
+        if (category != null) {
+            return new RevenueBucketDTO(period,
+                    number(shards, "ticketCategories", category, "revenue"),
+                    number(shards, "productCategories", category, "revenue"),
+                    (long) number(shards, "ticketCategories", category, "count"),
+                    (long) number(shards, "productCategories", category, "count"), 0);
+        }
+        return new RevenueBucketDTO(period,
+                number(shards, "ticketRevenue"), number(shards, "productRevenue"),
+                (long) number(shards, "ticketsSold"), (long) number(shards, "itemsSold"),
+                (long) number(shards, "orders"));
+    }
+
+    // Sum of the field over a bucket's shards
+    private static double number(List<DocumentSnapshot> shards, String... path) {
+        double sum = 0;
+        for (DocumentSnapshot shard : shards) {
+            Object value = shard.get(FieldPath.of(path));
+            if (value instanceof Number) {
+                sum += ((Number) value).doubleValue();
+            }
+        }
+        return sum;
+    }
+
+    // ==================== BACKFILL ====================
+
+    /** Replaces every rollup bucket with the given totals (on shard 0), removing other shards and empty buckets. */
+    void replaceWith(Rollup rebuilt) throws ExecutionException, InterruptedException {
+        Map<String, Map<List<String>, Double>> documents = rebuilt.documents();
+
+        WriteBatch batch = firestore.batch();
+        int pending = 0;
+        int stale = 0;
+        for (Granularity granularity : Granularity.values()) {
+            for (DocumentReference ref : firestore.collection(granularity.collection).listDocuments()) {
+                if (!documents.containsKey(ref.getPath())) {
+                    batch.delete(ref);
+                    stale++;
+                    if (++pending == BATCH_SIZE) {
+                        batch.commit().get();
+                        batch = firestore.batch();
+                        pending = 0;
+                    }
+                }
+            }
+        }
+        for (Map.Entry<String, Map<List<String>, Double>> entry : documents.entrySet()) {
+            Map<String, Object> fields = Rollup.toNestedMap(entry.getValue(), false);
+            fields.put("rebuiltAt", Timestamp.now());
+            batch.set(firestore.document(entry.getKey()), fields);
+            if (++pending == BATCH_SIZE) {
+                batch.commit().get();
+                batch = firestore.batch();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            batch.commit().get();
+        }
+        logger.info("Sales rollups rebuilt: {} buckets written, {} stale buckets removed", documents.size(), stale);
+    }
+
+    Rollup newRollup() {
+        return new Rollup(zone());
+    }
+
+    private ZoneId zone() {
+        return ZoneId.of(timeZone);
+    }
+
+    /**
+     * Field deltas per bucket document, keyed by field path segments
+     * (segments may contain dots, e.g. category names).
+     */
+    static final class Rollup {
+
+        private final ZoneId zone;
+        private final Map<String, Map<List<String>, Double>> documents = new LinkedHashMap<>();
+
+        Rollup(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        void add(Instant at, List<String> field, double delta) {
+            ZonedDateTime time = at.atZone(zone);
+            for (Granularity granularity : Granularity.values()) {
+                String path = granularity.collection + "/" + granularity.periodOf(time);
+                documents.computeIfAbsent(path, p -> new LinkedHashMap<>()).merge(field, delta, Double::sum);
+            }
+        }
+
+        // Folds another sale into this one (used by the backfill)
+        void addAll(Rollup other) {
+            other.documents.forEach((path, fields) -> {
+                Map<List<String>, Double> target = documents.computeIfAbsent(path, p -> new LinkedHashMap<>());
+                fields.forEach((field, delta) -> target.merge(field, delta, Double::sum));
+            });
+        }
+
+        Map<String, Map<List<String>, Double>> documents() {
+            return documents;
+        }
+
+        @SuppressWarnings("unchecked")
+        static Map<String, Object> toNestedMap(Map<List<String>, Double> fields, boolean increments) {
+            Map<String, Object> root = new HashMap<>();
+            fields.forEach((path, value) -> {
+                Map<String, Object> node = root;
+                for (int i = 0; i < path.size() - 1; i++) {
+                    node = (Map<String, Object>) node.computeIfAbsent(path.get(i), k -> new HashMap<String, Object>());
+                }
+                String leaf = path.get(path.size() - 1);
+                boolean count = COUNT_FIELDS.contains(leaf);
+                Object stored;
+                if (increments) {
+                    stored = count ? FieldValue.increment(value.longValue()) : FieldValue.increment(value);
+                } else {
+                    stored = count ? (Object) value.longValue() : value;
+                }
+                node.put(leaf, stored);
+            });
+            return root;
+        }
+    }
+}
@@ -1,35 +1,104 @@
 package com.example.campusaura.service;
 
+import com.example.campusaura.dto.PageResponse;
 import com.example.campusaura.dto.ProductSaleDTO;
 import com.example.campusaura.dto.TicketSaleDTO;
+import com.example.campusaura.util.CompletableFutures;
 import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 public class SalesService {
 
+    private static final Logger logger = LoggerFactory.getLogger(SalesService.class);
+
     @Autowired
     private Firestore firestore;
 
-    private static final String TICKET_SALES_COLLECTION = "ticket_sales";
-    private static final String PRODUCT_SALES_COLLECTION = "product_sales";
+    @Autowired
+    private SalesRollups salesRollups;
+
+    @Autowired
+    private SalesWriteBehind salesWriteBehind;
+
+    @Autowired
+    private RecentSaleConfirmations recentConfirmations;
+
+    static final String TICKET_SALES_COLLECTION = "ticket_sales";
+    static final String PRODUCT_SALES_COLLECTION = "product_sales";
+    static final String EVENTS_COLLECTION = "events";
+    static final String PRODUCTS_COLLECTION = "products";
+    private static final String PURCHASED_AT = "purchasedAt";
+    private static final int ROLLUP_PAGE_SIZE = 500;
+    private static final int MAX_DOCUMENT_ID_BYTES = 1500;
+    private static final Pattern STRIPE_PAYMENT_ID = Pattern.compile("[A-Za-z0-9_-]{1,255}");
+
+    /** Receives one page of sales at a time, e.g. to write it to a response stream. */
+    @FunctionalInterface
+    public interface PageConsumer<T> {
+        void accept(List<T> page) throws IOException;
+    }
 
     // ==================== TICKET SALES ====================
 
+    /**
+     * Records a confirmed ticket purchase. The sale is keyed by its Stripe PaymentIntent ID,
+     * so a repeated confirm returns the sale already recorded instead of writing a second one.
+     * With write-behind on, a repeat that is no longer in memory is acknowledged and then
+     * skipped by the writer, which creates sale documents only if they do not exist.
+     */
     public TicketSaleDTO saveTicketSale(TicketSaleDTO sale) throws ExecutionException, InterruptedException {
-        String saleId = UUID.randomUUID().toString();
+        String saleId = saleIdFor(sale.getStripePaymentId());
+        requireDocumentId(sale.getEventId(), "eventId");
+        TicketSaleDTO recent = recentConfirmations.get(PendingSale.Kind.TICKET, saleId, TicketSaleDTO.class);
+        if (recent != null) {
+            return ownedBy(recent, recent.getUserId(), sale.getUserId());
+        }
+
+        DocumentReference ref = firestore.collection(TICKET_SALES_COLLECTION).document(saleId);
         sale.setSaleId(saleId);
-        if (sale.getPurchasedAt() == null) {
-            sale.setPurchasedAt(Instant.now().toString());
+        sale.setPurchasedAt(toIsoString(toTimestamp(sale.getPurchasedAt())));
+
+        TicketSaleDTO saved;
+        if (salesWriteBehind.isEnabled()) {
+            // No pre-read: the writer skips a payment that is already stored (dead-lettering it if another user's)
+            saved = salesWriteBehind.submit(PendingSale.ticket(sale)).ticket();
+        } else {
+            Map<String, Object> data = ticketSaleData(sale);
+            Map<String, String> eventCategories = sale.getEventId() != null
+                    ? salesRollups.categoriesOf(EVENTS_COLLECTION, List.of(sale.getEventId())) : Map.of();
+            SalesRollups.Rollup rollup = salesRollups.forTicketSale(sale, eventCategories.get(sale.getEventId()));
+
+            saved = firestore.runTransaction(tx -> {
+                DocumentSnapshot existing = tx.get(ref).get();
+                if (existing.exists()) {
+                    return docToTicketSale(existing);
+                }
+                tx.create(ref, data);
+                salesRollups.apply(tx, rollup);
+                return sale;
+            }).get();
         }
+        recentConfirmations.put(PendingSale.Kind.TICKET, saleId, saved);
+        return ownedBy(saved, saved.getUserId(), sale.getUserId());
+    }
 
+    static Map<String, Object> ticketSaleData(TicketSaleDTO sale) {
         Map<String, Object> data = new HashMap<>();
         data.put("saleId", sale.getSaleId());
         data.put("eventId", sale.getEventId());
@@ -42,26 +111,44 @@ public class SalesService {
         data.put("pricePerTicket", sale.getPricePerTicket());
         data.put("totalAmount", sale.getTotalAmount());
         data.put("stripePaymentId", sale.getStripePaymentId());
-        data.put("purchasedAt", sale.getPurchasedAt());
-
-        firestore.collection(TICKET_SALES_COLLECTION).document(saleId).set(data).get();
-        return sale;
+        data.put(PURCHASED_AT, Timestamp.parseTimestamp(sale.getPurchasedAt()));
+        return data;
     }
 
+    // Newest first, sorted by Firestore on purchasedAt (un-migrated string values sort first)
     public List<TicketSaleDTO> getAllTicketSales() throws ExecutionException, InterruptedException {
-        List<QueryDocumentSnapshot> docs = firestore.collection(TICKET_SALES_COLLECTION)
-                .get().get().getDocuments();
+        return CompletableFutures.await(getAllTicketSalesAsync());
+    }
+
+    public CompletableFuture<List<TicketSaleDTO>> getAllTicketSalesAsync() {
+        Query query = firestore.collection(TICKET_SALES_COLLECTION).orderBy(PURCHASED_AT, Query.Direction.DESCENDING);
+        return CompletableFutures.of(query.get()).thenApply(snapshot -> snapshot.getDocuments().stream()
+                .map(this::docToTicketSale)
+                .collect(Collectors.toList()));
+    }
+
+    public PageResponse<TicketSaleDTO> getTicketSalesPage(int limit, String cursor)
+            throws ExecutionException, InterruptedException {
+        return CompletableFutures.await(getTicketSalesPageAsync(limit, cursor));
+    }
+
+    public CompletableFuture<PageResponse<TicketSaleDTO>> getTicketSalesPageAsync(int limit, String cursor) {
+        return FirestorePages.byTimestampDescendingAsync(firestore.collection(TICKET_SALES_COLLECTION), PURCHASED_AT,
+                limit, cursor, this::docToTicketSale);
+    }
 
-        return docs.stream().map(this::docToTicketSale)
-                .sorted((a, b) -> {
-                    String dateA = a.getPurchasedAt() != null ? a.getPurchasedAt() : "";
-                    String dateB = b.getPurchasedAt() != null ? b.getPurchasedAt() : "";
-                    return dateB.compareTo(dateA); // DESC
-                })
-                .collect(Collectors.toList());
+    // Walks every ticket sale page by page (newest first) without holding the full list
+    public void forEachTicketSalePage(int pageSize, PageConsumer<TicketSaleDTO> consumer)
+            throws ExecutionException, InterruptedException, IOException {
+        String cursor = null;
+        do {
+            PageResponse<TicketSaleDTO> page = getTicketSalesPage(pageSize, cursor);
+            consumer.accept(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
     }
 
-    private TicketSaleDTO docToTicketSale(QueryDocumentSnapshot doc) {
+    private TicketSaleDTO docToTicketSale(DocumentSnapshot doc) {
         Map<String, Object> data = doc.getData();
         TicketSaleDTO dto = new TicketSaleDTO();
         dto.setSaleId((String) data.get("saleId"));
@@ -78,24 +165,55 @@ public class SalesService {
         Object totalAmount = data.get("totalAmount");
         dto.setTotalAmount(totalAmount instanceof Number ? ((Number) totalAmount).doubleValue() : 0);
         dto.setStripePaymentId((String) data.get("stripePaymentId"));
-        Object purchasedAt = data.get("purchasedAt");
-        if (purchasedAt instanceof com.google.cloud.Timestamp) {
-            dto.setPurchasedAt(((com.google.cloud.Timestamp) purchasedAt).toDate().toInstant().toString());
-        } else {
-            dto.setPurchasedAt((String) purchasedAt);
-        }
+        dto.setPurchasedAt(purchasedAtToString(data.get(PURCHASED_AT)));
         return dto;
     }
 
     // ==================== PRODUCT SALES ====================
 
+    /**
+     * Records a confirmed marketplace purchase, keyed by its Stripe PaymentIntent ID like ticket sales.
+     */
     public ProductSaleDTO saveProductSale(ProductSaleDTO sale) throws ExecutionException, InterruptedException {
-        String saleId = UUID.randomUUID().toString();
+        String saleId = saleIdFor(sale.getStripePaymentId());
+        if (sale.getItems() != null) {
+            for (ProductSaleDTO.SaleItem item : sale.getItems()) {
+                requireDocumentId(item.getProductId(), "productId");
+            }
+        }
+        ProductSaleDTO recent = recentConfirmations.get(PendingSale.Kind.PRODUCT, saleId, ProductSaleDTO.class);
+        if (recent != null) {
+            return ownedBy(recent, recent.getUserId(), sale.getUserId());
+        }
+
+        DocumentReference ref = firestore.collection(PRODUCT_SALES_COLLECTION).document(saleId);
         sale.setSaleId(saleId);
-        if (sale.getPurchasedAt() == null) {
-            sale.setPurchasedAt(Instant.now().toString());
+        sale.setPurchasedAt(toIsoString(toTimestamp(sale.getPurchasedAt())));
+
+        ProductSaleDTO saved;
+        if (salesWriteBehind.isEnabled()) {
+            // No pre-read: the writer skips a payment that is already stored (dead-lettering it if another user's)
+            saved = salesWriteBehind.submit(PendingSale.product(sale)).product();
+        } else {
+            Map<String, Object> data = productSaleData(sale);
+            SalesRollups.Rollup rollup = salesRollups.forProductSale(sale,
+                    salesRollups.categoriesOf(PRODUCTS_COLLECTION, productIds(sale)));
+
+            saved = firestore.runTransaction(tx -> {
+                DocumentSnapshot existing = tx.get(ref).get();
+                if (existing.exists()) {
+                    return docToProductSale(existing);
+                }
+                tx.create(ref, data);
+                salesRollups.apply(tx, rollup);
+                return sale;
+            }).get();
         }
+        recentConfirmations.put(PendingSale.Kind.PRODUCT, saleId, saved);
+        return ownedBy(saved, saved.getUserId(), sale.getUserId());
+    }
 
+    static Map<String, Object> productSaleData(ProductSaleDTO sale) {
         Map<String, Object> data = new HashMap<>();
         data.put("saleId", sale.getSaleId());
         data.put("userId", sale.getUserId());
@@ -103,7 +221,7 @@ public class SalesService {
         data.put("userEmail", sale.getUserEmail());
         data.put("totalAmount", sale.getTotalAmount());
         data.put("stripePaymentId", sale.getStripePaymentId());
-        data.put("purchasedAt", sale.getPurchasedAt());
+        data.put(PURCHASED_AT, Timestamp.parseTimestamp(sale.getPurchasedAt()));
 
         // Convert items
         List<Map<String, Object>> itemsList = new ArrayList<>();
@@ -118,27 +236,44 @@ public class SalesService {
             }
         }
         data.put("items", itemsList);
-
-        firestore.collection(PRODUCT_SALES_COLLECTION).document(saleId).set(data).get();
-        return sale;
+        return data;
     }
 
-    @SuppressWarnings("unchecked")
+    // Newest first, sorted by Firestore on purchasedAt (un-migrated string values sort first)
     public List<ProductSaleDTO> getAllProductSales() throws ExecutionException, InterruptedException {
-        List<QueryDocumentSnapshot> docs = firestore.collection(PRODUCT_SALES_COLLECTION)
-                .get().get().getDocuments();
+        return CompletableFutures.await(getAllProductSalesAsync());
+    }
+
+    public CompletableFuture<List<ProductSaleDTO>> getAllProductSalesAsync() {
+        Query query = firestore.collection(PRODUCT_SALES_COLLECTION).orderBy(PURCHASED_AT, Query.Direction.DESCENDING);
+        return CompletableFutures.of(query.get()).thenApply(snapshot -> snapshot.getDocuments().stream()
+                .map(this::docToProductSale)
+                .collect(Collectors.toList()));
+    }
 
-        return docs.stream().map(this::docToProductSale)
-                .sorted((a, b) -> {
-                    String dateA = a.getPurchasedAt() != null ? a.getPurchasedAt() : "";
-                    String dateB = b.getPurchasedAt() != null ? b.getPurchasedAt() : "";
-                    return dateB.compareTo(dateA); // DESC
-                })
-                .collect(Collectors.toList());
+    public PageResponse<ProductSaleDTO> getProductSalesPage(int limit, String cursor)
+            throws ExecutionException, InterruptedException {
+        return CompletableFutures.await(getProductSalesPageAsync(limit, cursor));
+    }
+
+    public CompletableFuture<PageResponse<ProductSaleDTO>> getProductSalesPageAsync(int limit, String cursor) {
+        return FirestorePages.byTimestampDescendingAsync(firestore.collection(PRODUCT_SALES_COLLECTION), PURCHASED_AT,
+                limit, cursor, this::docToProductSale);
+    }
+
+    // Walks every product sale page by page (newest first) without holding the full list
+    public void forEachProductSalePage(int pageSize, PageConsumer<ProductSaleDTO> consumer)
+            throws ExecutionException, InterruptedException, IOException {
+        String cursor = null;
+        do {
+            PageResponse<ProductSaleDTO> page = getProductSalesPage(pageSize, cursor);
+            consumer.accept(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
     }
 
     @SuppressWarnings("unchecked")
-    private ProductSaleDTO docToProductSale(QueryDocumentSnapshot doc) {
+    private ProductSaleDTO docToProductSale(DocumentSnapshot doc) {
         Map<String, Object> data = doc.getData();
         ProductSaleDTO dto = new ProductSaleDTO();
         dto.setSaleId((String) data.get("saleId"));
@@ -148,12 +283,7 @@ public class SalesService {
         Object totalAmount = data.get("totalAmount");
         dto.setTotalAmount(totalAmount instanceof Number ? ((Number) totalAmount).doubleValue() : 0);
         dto.setStripePaymentId((String) data.get("stripePaymentId"));
-        Object purchasedAt = data.get("purchasedAt");
-        if (purchasedAt instanceof com.google.cloud.Timestamp) {
-            dto.setPurchasedAt(((com.google.cloud.Timestamp) purchasedAt).toDate().toInstant().toString());
-        } else {
-            dto.setPurchasedAt((String) purchasedAt);
-        }
+        dto.setPurchasedAt(purchasedAtToString(data.get(PURCHASED_AT)));
 
         // Convert items
         List<ProductSaleDTO.SaleItem> items = new ArrayList<>();
@@ -177,4 +307,131 @@ public class SalesService {
 
         return dto;
     }
+
+    // ==================== IDEMPOTENCY ====================
+
+    // Stripe PaymentIntent IDs (pi_...) are used as document IDs as-is
+    private static String saleIdFor(String stripePaymentId) {
+        if (stripePaymentId == null || !STRIPE_PAYMENT_ID.matcher(stripePaymentId).matches()) {
+            throw new IllegalArgumentException("A valid stripePaymentId is required");
+        }
+        return stripePaymentId;
+    }
+
+    /**
+     * Rejects IDs that are not valid Firestore document IDs. Sale IDs are looked up as
+     * documents (rollup categories) by the write-behind writer, which cannot reject a sale
+     * after it has been acknowledged. Null is allowed (the sale is stored uncategorized).
+     */
+    static void requireDocumentId(String id, String field) {
+        if (id == null) {
+            return;
+        }
+        if (id.isEmpty() || id.contains("/") || id.equals(".") || id.equals("..")
+                || (id.startsWith("__") && id.endsWith("__"))
+                || id.getBytes(StandardCharsets.UTF_8).length > MAX_DOCUMENT_ID_BYTES) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + id);
+        }
+    }
+
+    // A payment can only be confirmed by the user who made it
+    private static <T> T ownedBy(T sale, String ownerId, String userId) {
+        if (ownerId != null && !ownerId.equals(userId)) {
+            throw new IllegalStateException("This payment has already been confirmed by another user");
+        }
+        return sale;
+    }
+
+    // ==================== ROLLUPS ====================
+
+    /**
+     * Recompute every sales rollup bucket from the sales collections (history backfill).
+     * Pages by document ID so legacy documents with string timestamps are included.
+     */
+    public int rebuildSalesRollups() throws ExecutionException, InterruptedException {
+        SalesRollups.Rollup rebuilt = salesRollups.newRollup();
+        Map<String, String> eventCategories = new HashMap<>();
+        Map<String, String> productCategories = new HashMap<>();
+        int scanned = 0;
+
+        String cursor = null;
+        do {
+            PageResponse<TicketSaleDTO> page = FirestorePages.byDocumentId(
+                    firestore.collection(TICKET_SALES_COLLECTION), ROLLUP_PAGE_SIZE, cursor, this::docToTicketSale);
+            List<String> missing = page.getItems().stream().map(TicketSaleDTO::getEventId)
+                    .filter(id -> id != null && !eventCategories.containsKey(id)).distinct().toList();
+            Map<String, String> found = salesRollups.categoriesOf(EVENTS_COLLECTION, missing);
+            missing.forEach(id -> eventCategories.put(id, found.get(id)));
+            for (TicketSaleDTO sale : page.getItems()) {
+                if (hasPurchaseTime(sale.getPurchasedAt(), sale.getSaleId())) {
+                    rebuilt.addAll(salesRollups.forTicketSale(sale, eventCategories.get(sale.getEventId())));
+                }
+            }
+            scanned += page.getItems().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        do {
+            PageResponse<ProductSaleDTO> page = FirestorePages.byDocumentId(
+                    firestore.collection(PRODUCT_SALES_COLLECTION), ROLLUP_PAGE_SIZE, cursor, this::docToProductSale);
+            List<String> missing = page.getItems().stream().flatMap(sale -> productIds(sale).stream())
+                    .filter(id -> !productCategories.containsKey(id)).distinct().toList();
+            Map<String, String> found = salesRollups.categoriesOf(PRODUCTS_COLLECTION, missing);
+            missing.forEach(id -> productCategories.put(id, found.getOrDefault(id, SalesRollups.UNCATEGORIZED)));
+            for (ProductSaleDTO sale : page.getItems()) {
+                if (hasPurchaseTime(sale.getPurchasedAt(), sale.getSaleId())) {
+                    rebuilt.addAll(salesRollups.forProductSale(sale, productCategories));
+                }
+            }
+            scanned += page.getItems().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        salesRollups.replaceWith(rebuilt);
+        return scanned;
+    }
+
+    private static boolean hasPurchaseTime(String purchasedAt, String saleId) {
+        try {
+            Instant.parse(purchasedAt);
+            return true;
+        } catch (DateTimeException | NullPointerException e) {
+            logger.warn("Skipping sale {} in rollup backfill: unusable purchasedAt {}", saleId, purchasedAt);
+            return false;
+        }
+    }
+
+    static List<String> productIds(ProductSaleDTO sale) {
+        if (sale.getItems() == null) {
+            return List.of();
+        }
+        return sale.getItems().stream().map(ProductSaleDTO.SaleItem::getProductId)
+                .filter(Objects::nonNull).distinct().toList();
+    }
+
+    // ==================== TIMESTAMPS ====================
+
+    // purchasedAt is stored as a Firestore Timestamp; the DTOs carry an ISO-8601 string
+    private static Timestamp toTimestamp(String isoPurchasedAt) {
+        if (isoPurchasedAt != null) {
+            try {
+                return Timestamp.parseTimestamp(isoPurchasedAt);
+            } catch (DateTimeException e) {
+                // Fall back to the server time for unparseable client values
+            }
+        }
+        return Timestamp.now();
+    }
+
+    private static String toIsoString(Timestamp timestamp) {
+        return timestamp.toDate().toInstant().toString();
+    }
+
+    // Legacy documents may still hold the ISO string (see SalesTimestampMigration)
+    private static String purchasedAtToString(Object purchasedAt) {
+        if (purchasedAt instanceof Timestamp timestamp) {
+            return toIsoString(timestamp);
+        }
+        return (String) purchasedAt;
+    }
 }
@@ -0,0 +1,143 @@
+package com.example.campusaura.service;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.WriteBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * One-off migration of legacy sales documents whose purchasedAt is an ISO-8601
+ * string (or missing) to a native Firestore Timestamp. Until it has run, string
+ * values sort ahead of every Timestamp in the purchasedAt-ordered sales lists and
+ * exports (Firestore orders values by type before value), and sales without the
+ * field are left out of them entirely. Missing values fall back to the document's
+ * create time.
+ *
+ * Rollout: it runs by itself on the first start-up after the upgrade, before the web
+ * server accepts requests, and then writes the marker document migrations/sales-timestamps.
+ * Later start-ups only read the marker. A failed run is logged and retried on the next
+ * start-up. Delete the marker to run it again (re-running is harmless); set
+ * MIGRATE_SALES_TIMESTAMPS=false to skip it entirely. Documents are streamed in pages
+ * ordered by document ID and rewritten in batches.
+ */
+@Component
+@ConditionalOnProperty(name = "campusaura.migrations.sales-timestamps.enabled", havingValue = "true",
+        matchIfMissing = true)
+public class SalesTimestampMigration implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesTimestampMigration.class);
+
+    private static final String[] COLLECTIONS = {"ticket_sales", "product_sales"};
+    private static final String PURCHASED_AT = "purchasedAt";
+    private static final int PAGE_SIZE = 400; // below Firestore's 500 writes per batch
+    static final String MARKER_COLLECTION = "migrations";
+    static final String MARKER_ID = "sales-timestamps";
+
+    private final Firestore firestore;
+
+    public SalesTimestampMigration(Firestore firestore) {
+        this.firestore = firestore;
+    }
+
+    // Runs once all beans exist, which is before the embedded web server starts
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            runOnce();
+        } catch (ExecutionException | RuntimeException e) {
+            logger.error("Sales timestamp migration failed, it will be retried on the next start-up", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Migrates every sales collection unless the marker says it was done already; true if it ran
+    boolean runOnce() throws ExecutionException, InterruptedException {
+        DocumentReference marker = firestore.collection(MARKER_COLLECTION).document(MARKER_ID);
+        if (marker.get().get().exists()) {
+            logger.debug("Sales timestamps already migrated");
+            return false;
+        }
+        for (String collection : COLLECTIONS) {
+            migrate(collection);
+        }
+        marker.set(Map.of("completedAt", Timestamp.now())).get();
+        return true;
+    }
+
+    void migrate(String collection) throws ExecutionException, InterruptedException {
+        logger.info("Migrating {}.{} to Firestore Timestamps", collection, PURCHASED_AT);
+        int scanned = 0;
+        int migrated = 0;
+        int skipped = 0;
+        QueryDocumentSnapshot last = null;
+
+        while (true) {
+            Query page = firestore.collection(collection)
+                    .orderBy(FieldPath.documentId())
+                    .limit(PAGE_SIZE);
+            if (last != null) {
+                page = page.startAfter(last);
+            }
+            List<QueryDocumentSnapshot> docs = page.get().get().getDocuments();
+            if (docs.isEmpty()) {
+                break;
+            }
+
+            WriteBatch batch = firestore.batch();
+            int pending = 0;
+            for (QueryDocumentSnapshot doc : docs) {
+                Object value = doc.get(PURCHASED_AT);
+                if (value instanceof Timestamp) {
+                    continue;
+                }
+                Timestamp purchasedAt = legacyTimestamp(doc, value);
+                if (purchasedAt == null) {
+                    logger.warn("Skipping {}/{}: unusable {} {}", collection, doc.getId(), PURCHASED_AT, value);
+                    skipped++;
+                    continue;
+                }
+                batch.update(doc.getReference(), PURCHASED_AT, purchasedAt);
+                pending++;
+            }
+            if (pending > 0) {
+                batch.commit().get();
+            }
+
+            scanned += docs.size();
+            migrated += pending;
+            last = docs.get(docs.size() - 1);
+            logger.info("{}: scanned {}, migrated {}, skipped {}", collection, scanned, migrated, skipped);
+
+            if (docs.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+        logger.info("Finished {}: scanned {}, migrated {}, skipped {}", collection, scanned, migrated, skipped);
+    }
+
+    // Parse the stored string; documents without one fall back to their create time
+    private static Timestamp legacyTimestamp(QueryDocumentSnapshot doc, Object value) {
+        if (value instanceof String iso) {
+            try {
+                return Timestamp.parseTimestamp(iso);
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+        return value == null ? doc.getCreateTime() : null;
+    }
+}
@@ -0,0 +1,454 @@
+package com.example.campusaura.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteBatch;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind pipeline for ticket and product sales.
+ *
+ * Confirming a sale appends it to a local journal and queues it; the request returns
+ * without waiting for Firestore. A single writer thread coalesces queued sales into
+ * WriteBatch commits (sale documents plus their rollup increments, atomically).
+ *
+ * - Bounded: at most capacity sales may be uncommitted; further submits wait up to
+ *   offer-timeout-ms and then fail with BacklogFullException (back-pressure).
+ * - Durable: uncommitted journal entries are replayed on start-up.
+ * - Non-blocking: transient Firestore errors are retried; a sale that fails for any other
+ *   reason is moved to the dead-letter file and settled, so it cannot hold up later sales.
+ * - Idempotent: sale documents are written with create semantics, so a replayed sale
+ *   that already reached Firestore is skipped along with its rollup increments, and a
+ *   sale whose Stripe payment is already queued is not queued twice. A sale whose payment
+ *   is already stored for another user is dead-lettered instead (confirms are not
+ *   pre-read, so that conflict is only detected here).
+ */
+@Service
+public class SalesWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesWriteBehind.class);
+
+    private static final long MAX_RETRY_DELAY_MS = 5_000;
+
+    // gRPC codes worth retrying; anything else fails the same way on every attempt
+    private static final Set<StatusCode.Code> RETRYABLE = Set.of(StatusCode.Code.UNAVAILABLE,
+            StatusCode.Code.DEADLINE_EXCEEDED, StatusCode.Code.ABORTED, StatusCode.Code.RESOURCE_EXHAUSTED);
+
+    /** Thrown when the pipeline is full; callers should ask the client to retry shortly. */
+    public static class BacklogFullException extends RuntimeException {
+        public BacklogFullException(String message) {
+            super(message);
+        }
+    }
+
+    private final Firestore firestore;
+    private final SalesRollups salesRollups;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerMs;
+    private final long offerTimeoutMs;
+    private final Path journalPath;
+    private final Path deadLetterPath;
+    private final boolean fsync;
+
+    private final Capacity capacity;
+    private final BlockingQueue<PendingSale> queue = new LinkedBlockingQueue<>();
+    // Idempotency key -> sale, for every accepted sale not yet committed
+    private final Map<String, PendingSale> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter committed;
+    private final Counter skipped;
+    private final Counter deadLettered;
+    private final Timer flushTimer;
+
+    private SalesJournal journal;
+    private SalesJournal deadLetters;
+    private Thread writer;
+    private volatile boolean running;
+
+    public SalesWriteBehind(Firestore firestore,
+                            SalesRollups salesRollups,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${campusaura.sales.write-behind.enabled:true}") boolean enabled,
+                            @Value("${campusaura.sales.write-behind.capacity:5000}") int capacity,
+                            @Value("${campusaura.sales.write-behind.batch-size:100}") int batchSize,
+                            @Value("${campusaura.sales.write-behind.linger-ms:20}") long lingerMs,
+                            @Value("${campusaura.sales.write-behind.offer-timeout-ms:2000}") long offerTimeoutMs,
+                            @Value("${campusaura.sales.journal.path:data/sales-journal.ndjson}") String journalPath,
+                            @Value("${campusaura.sales.dead-letter.path:data/sales-dead-letter.ndjson}") String deadLetterPath,
+                            @Value("${campusaura.sales.journal.fsync:true}") boolean fsync) {
+        this.firestore = firestore;
+        this.salesRollups = salesRollups;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.journalPath = Path.of(journalPath);
+        this.deadLetterPath = Path.of(deadLetterPath);
+        this.fsync = fsync;
+        this.capacity = new Capacity(capacity);
+
+        Gauge.builder("campusaura.sales.write_behind.pending", inFlight, Map::size).register(meterRegistry);
+        this.committed = meterRegistry.counter("campusaura.sales.write_behind.committed");
+        this.skipped = meterRegistry.counter("campusaura.sales.write_behind.duplicates");
+        this.deadLettered = meterRegistry.counter("campusaura.sales.write_behind.dead_lettered");
+        this.flushTimer = meterRegistry.timer("campusaura.sales.write_behind.flush");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            logger.info("Sales write-behind disabled, sales are written synchronously");
+            return;
+        }
+        journal = new SalesJournal(journalPath, objectMapper, fsync);
+        deadLetters = new SalesJournal(deadLetterPath, objectMapper, fsync);
+        List<PendingSale> recovered = journal.uncommitted();
+        for (PendingSale sale : recovered) {
+            if (inFlight.putIfAbsent(sale.idempotencyKey(), sale) == null) {
+                capacity.take();
+                queue.add(sale);
+            }
+        }
+        if (!recovered.isEmpty()) {
+            logger.info("Replaying {} uncommitted sales from {}", queue.size(), journalPath.toAbsolutePath());
+        }
+
+        running = true;
+        writer = new Thread(this::run, "sales-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Accepts a sale once it is journaled. Returns the sale that will be written, which is
+     * the already-queued one if the same Stripe payment was submitted before.
+     */
+    PendingSale submit(PendingSale sale) throws InterruptedException {
+        PendingSale existing = inFlight.get(sale.idempotencyKey());
+        if (existing != null) {
+            skipped.increment();
+            return existing;
+        }
+        if (!capacity.tryAcquire(offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new BacklogFullException("Too many sales are waiting to be saved, please retry shortly");
+        }
+
+        existing = inFlight.putIfAbsent(sale.idempotencyKey(), sale);
+        if (existing != null) {
+            capacity.release();
+            skipped.increment();
+            return existing;
+        }
+        try {
+            // Registered as in flight before appending, so the journal cannot be truncated under it
+            journal.appendSale(sale);
+        } catch (IOException e) {
+            inFlight.remove(sale.idempotencyKey());
+            capacity.release();
+            throw new UncheckedIOException("Could not journal sale " + sale.saleId(), e);
+        }
+        queue.add(sale);
+        return sale;
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        writer.join(30_000);
+        journal.close();
+        deadLetters.close();
+        if (!inFlight.isEmpty()) {
+            logger.warn("{} sales not yet in Firestore, they stay journaled for the next start", inFlight.size());
+        }
+    }
+
+    // ==================== WRITER ====================
+
+    private void run() {
+        List<PendingSale> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (!nextBatch(batch)) {
+                    journal.truncateIfIdle(inFlight::isEmpty);
+                    continue;
+                }
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                // Shutting down: one last attempt for what is left, without waiting or retrying
+                queue.drainTo(batch);
+                if (!batch.isEmpty()) {
+                    writeOnce(batch);
+                }
+            } catch (IOException e) {
+                logger.error("Sales journal maintenance failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Waits for a first sale, then lingers briefly so concurrent confirms share one commit
+    private boolean nextBatch(List<PendingSale> batch) throws InterruptedException {
+        PendingSale first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+            return false;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            PendingSale next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return true;
+    }
+
+    // A permanent batch failure is narrowed down to the sales at fault by writing one by one
+    private void writeWithRetry(List<PendingSale> batch) throws InterruptedException {
+        Exception failure = writeRetryingTransient(batch);
+        if (failure == null) {
+            return;
+        }
+        if (batch.size() == 1) {
+            deadLetter(batch.get(0), failure);
+            return;
+        }
+        logger.warn("Writing {} sales failed permanently, writing them one by one: {}", batch.size(), failure.getMessage());
+        for (PendingSale sale : batch) {
+            // Skip sales the batch attempt already settled (stored before the failure)
+            if (inFlight.get(sale.idempotencyKey()) != sale) {
+                continue;
+            }
+            Exception saleFailure = writeRetryingTransient(List.of(sale));
+            if (saleFailure != null) {
+                deadLetter(sale, saleFailure);
+            }
+        }
+    }
+
+    // Retries transient errors until Firestore accepts the sales; returns the first permanent error, or null
+    private Exception writeRetryingTransient(List<PendingSale> batch) throws InterruptedException {
+        long delay = 100;
+        while (true) {
+            try {
+                write(batch);
+                return null;
+            } catch (ExecutionException | RuntimeException e) {
+                if (!isRetryable(e)) {
+                    return e;
+                }
+                logger.warn("Writing {} sales failed, retrying in {} ms: {}", batch.size(), delay, e.getMessage());
+                Thread.sleep(delay);
+                delay = Math.min(delay * 2, MAX_RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    // Keeps the sale for an operator and settles it, so the journal no longer replays it
+    private void deadLetter(PendingSale sale, Exception failure) {
+        String error = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+        try {
+            deadLetters.appendDeadLetter(sale, error);
+            logger.error("Sale {} rejected by Firestore, moved to {}: {}", sale.saleId(),
+                    deadLetterPath.toAbsolutePath(), error);
+        } catch (IOException e) {
+            logger.error("Sale {} rejected by Firestore and could not be dead-lettered ({}), sale: {}",
+                    sale.saleId(), error, sale, e);
+        }
+        settle(List.of(sale));
+        deadLettered.increment();
+    }
+
+    private void writeOnce(List<PendingSale> batch) {
+        try {
+            write(batch);
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            logger.warn("Could not write {} sales during shutdown, they stay journaled", batch.size(), e);
+        }
+    }
+
+    private void write(List<PendingSale> batch) throws ExecutionException, InterruptedException {
+        Timer.Sample sample = Timer.start();
+        try {
+            Categories categories = lookupCategories(batch);
+            try {
+                commit(batch, categories);
+                return;
+            } catch (ExecutionException e) {
+                if (!isAlreadyExists(e)) {
+                    throw e;
+                }
+            }
+            // A replayed or repeated sale is already stored: write one by one and skip the stored ones
+            for (PendingSale sale : batch) {
+                // Settled by an earlier attempt of this batch
+                if (inFlight.get(sale.idempotencyKey()) != sale) {
+                    continue;
+                }
+                try {
+                    commit(List.of(sale), categories);
+                } catch (ExecutionException e) {
+                    if (!isAlreadyExists(e)) {
+                        throw e;
+                    }
+                    String owner = storedOwner(sale);
+                    if (owner != null && !owner.equals(sale.userId())) {
+                        deadLetter(sale, new IllegalStateException(
+                                "Payment already confirmed by another user (" + owner + ")"));
+                        continue;
+                    }
+                    skipped.increment();
+                    markCommitted(List.of(sale));
+                }
+            }
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    // One atomic batch: create every sale document and merge the combined rollup increments into one shard per bucket
+    private void commit(List<PendingSale> sales, Categories categories) throws ExecutionException, InterruptedException {
+        WriteBatch writeBatch = firestore.batch();
+        SalesRollups.Rollup rollup = salesRollups.newRollup();
+        for (PendingSale sale : sales) {
+            if (sale.kind() == PendingSale.Kind.TICKET) {
+                writeBatch.create(firestore.collection(SalesService.TICKET_SALES_COLLECTION).document(sale.saleId()),
+                        SalesService.ticketSaleData(sale.ticket()));
+                rollup.addAll(salesRollups.forTicketSale(sale.ticket(), categories.events.get(sale.ticket().getEventId())));
+            } else {
+                writeBatch.create(firestore.collection(SalesService.PRODUCT_SALES_COLLECTION).document(sale.saleId()),
+                        SalesService.productSaleData(sale.product()));
+                rollup.addAll(salesRollups.forProductSale(sale.product(), categories.products));
+            }
+        }
+        salesRollups.apply(writeBatch, rollup);
+        writeBatch.commit().get();
+        markCommitted(sales);
+    }
+
+    private String storedOwner(PendingSale sale) throws ExecutionException, InterruptedException {
+        return firestore.collection(sale.collection()).document(sale.saleId()).get().get().getString("userId");
+    }
+
+    private void markCommitted(List<PendingSale> sales) {
+        settle(sales);
+        committed.increment(sales.size());
+    }
+
+    // Journals the sales as done and frees their capacity
+    private void settle(List<PendingSale> sales) {
+        Set<String> saleIds = new HashSet<>();
+        sales.forEach(sale -> saleIds.add(sale.saleId()));
+        try {
+            journal.appendCommit(saleIds);
+        } catch (IOException e) {
+            // Harmless: a replay finds the documents already created and skips them
+            logger.warn("Could not journal commit of {} sales", saleIds.size(), e);
+        }
+        for (PendingSale sale : sales) {
+            inFlight.remove(sale.idempotencyKey());
+            capacity.release();
+        }
+    }
+
+    // Replayed sales take capacity even when that leaves none (or less than none) for new submits
+    private static final class Capacity extends Semaphore {
+        Capacity(int permits) {
+            super(permits);
+        }
+
+        void take() {
+            reducePermits(1);
+        }
+    }
+
+    private record Categories(Map<String, String> events, Map<String, String> products) {
+    }
+
+    private Categories lookupCategories(List<PendingSale> batch) throws ExecutionException, InterruptedException {
+        Set<String> eventIds = new HashSet<>();
+        Set<String> productIds = new HashSet<>();
+        for (PendingSale sale : batch) {
+            if (sale.kind() == PendingSale.Kind.TICKET) {
+                if (sale.ticket().getEventId() != null) {
+                    eventIds.add(sale.ticket().getEventId());
+                }
+            } else {
+                productIds.addAll(SalesService.productIds(sale.product()));
+            }
+        }
+        return new Categories(salesRollups.categoriesOf(SalesService.EVENTS_COLLECTION, eventIds),
+                salesRollups.categoriesOf(SalesService.PRODUCTS_COLLECTION, productIds));
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException api) {
+                return RETRYABLE.contains(api.getStatusCode().getCode());
+            }
+            if (cause instanceof StatusRuntimeException grpc) {
+                return RETRYABLE.contains(StatusCode.Code.valueOf(grpc.getStatus().getCode().name()));
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAlreadyExists(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException api
+                    && api.getStatusCode().getCode() == StatusCode.Code.ALREADY_EXISTS) {
+                return true;
+            }
+            if (cause.getMessage() != null && cause.getMessage().contains("ALREADY_EXISTS")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
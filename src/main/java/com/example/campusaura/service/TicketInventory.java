@@ -0,0 +1,678 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.model.Event;
+import com.example.campusaura.model.TicketCategory;
+import com.example.campusaura.util.CompletableFutures;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-category ticket inventory for events, with reserve / commit / release tied to
+ * the Stripe PaymentIntent lifecycle.
+ *
+ * Each event's capacity is split across N shard documents
+ * (ticket_inventory/{eventId}/shards/{n}, fields categories.{name}.{capacity,reserved,sold}),
+ * so concurrent buyers update different documents instead of queueing on one.
+ * A reservation takes seats from one random shard with room, falling back to a
+ * transaction over all shards when the remaining seats are spread thin. Capacity is
+ * never exceeded: every shard enforces reserved + sold <= capacity for its slice.
+ *
+ * Reservations live in ticket_reservations/{paymentIntentId} and remember which
+ * shards they took seats from, so commit and release are blind increments.
+ *
+ * A reservation is a hold with a TTL. Holds made on this instance are tracked in a
+ * hashed timing wheel and released when they expire; holds left behind by a stopped
+ * instance are picked up again at startup.
+ */
+@Service
+public class TicketInventory {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketInventory.class);
+
+    static final String INVENTORY_COLLECTION = "ticket_inventory";
+    static final String SHARDS_COLLECTION = "shards";
+    static final String RESERVATIONS_COLLECTION = "ticket_reservations";
+
+    public enum ReservationStatus { RESERVED, COMMITTED, RELEASED }
+
+    /** Thrown when a category does not have enough seats left for a reservation. */
+    public static class SoldOutException extends RuntimeException {
+        public SoldOutException(String message) {
+            super(message);
+        }
+    }
+
+    /** Seats of one ticket category, summed over all shards. */
+    public record CategoryAvailability(long capacity, long reserved, long sold) {
+        public long remaining() {
+            return Math.max(0, capacity - reserved - sold);
+        }
+    }
+
+    /** Availability of every ticket category of an event (empty when the event has no capacity set). */
+    public record Availability(Map<String, CategoryAvailability> categories) {
+        public long capacity() {
+            return categories.values().stream().mapToLong(CategoryAvailability::capacity).sum();
+        }
+
+        public long remaining() {
+            return categories.values().stream().mapToLong(CategoryAvailability::remaining).sum();
+        }
+
+        public long held() {
+            return categories.values().stream().mapToLong(CategoryAvailability::reserved).sum();
+        }
+    }
+
+    /** Availability as read from the shards at readAt (epoch millis). */
+    public record CachedAvailability(Availability availability, long readAt, long expiresAt) {
+    }
+
+    private static final int WHEEL_SIZE = 512;
+    private static final long EXPIRY_RETRY_MS = 30_000;
+
+    private final Firestore firestore;
+    private final int shardCount;
+    private final long availabilityTtlMs;
+    private final long holdTtlMs;
+    private final boolean expiryEnabled;
+
+    private final Map<String, CachedAvailability> availabilityCache = new ConcurrentHashMap<>();
+    // Events whose shards are known to exist, so reservations skip the existence check
+    private final Set<String> initialized = ConcurrentHashMap.newKeySet();
+
+    // Hold expiry, keyed by PaymentIntent ID
+    private final HashedTimingWheel<String> holdExpiry;
+    private final ReentrantLock holdExpiryLock = new ReentrantLock();
+    private Thread expiryThread;
+    private volatile boolean running;
+
+    private final Counter oversold;
+    private final Counter expired;
+
+    @Autowired
+    public TicketInventory(Firestore firestore,
+                           MeterRegistry meterRegistry,
+                           @Value("${campusaura.tickets.inventory.shards:8}") int shardCount,
+                           @Value("${campusaura.tickets.availability.ttl-ms:5000}") long availabilityTtlMs,
+                           @Value("${campusaura.tickets.holds.ttl-ms:600000}") long holdTtlMs,
+                           @Value("${campusaura.tickets.holds.tick-ms:1000}") long tickMs,
+                           @Value("${campusaura.tickets.holds.expiry.enabled:true}") boolean expiryEnabled) {
+        this.firestore = firestore;
+        this.shardCount = shardCount;
+        this.availabilityTtlMs = availabilityTtlMs;
+        this.holdTtlMs = holdTtlMs;
+        this.expiryEnabled = expiryEnabled;
+        this.holdExpiry = new HashedTimingWheel<>(tickMs, WHEEL_SIZE, System.currentTimeMillis());
+
+        Gauge.builder("campusaura.tickets.holds.scheduled", this, inventory -> inventory.scheduledHolds())
+                .description("Ticket holds waiting for expiry on this instance")
+                .register(meterRegistry);
+        this.oversold = meterRegistry.counter("campusaura.tickets.oversold");
+        this.expired = meterRegistry.counter("campusaura.tickets.holds.expired");
+    }
+
+    @PostConstruct
+    void start() {
+        if (!expiryEnabled) {
+            logger.info("Ticket hold expiry disabled");
+            return;
+        }
+        try {
+            // Holds of instances that stopped before their expiry
+            int recovered = 0;
+            for (QueryDocumentSnapshot reservation : firestore.collection(RESERVATIONS_COLLECTION)
+                    .whereEqualTo("status", ReservationStatus.RESERVED.name()).get().get().getDocuments()) {
+                Timestamp expiresAt = reservation.getTimestamp("expiresAt");
+                scheduleExpiry(reservation.getId(), expiresAt != null ? expiresAt.toDate().getTime() : 0);
+                recovered++;
+            }
+            if (recovered > 0) {
+                logger.info("Scheduled expiry for {} open ticket holds", recovered);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not load open ticket holds: {}", e.getMessage());
+        }
+
+        running = true;
+        expiryThread = new Thread(this::runExpiry, "ticket-hold-expiry");
+        expiryThread.setDaemon(true);
+        expiryThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (expiryThread == null) {
+            return;
+        }
+        running = false;
+        expiryThread.interrupt();
+        expiryThread.join(5_000);
+    }
+
+    // ==================== AVAILABILITY ====================
+
+    /**
+     * Live availability from the shard aggregate, cached for a few seconds per event
+     */
+    public Availability getAvailability(Event event) throws ExecutionException, InterruptedException {
+        return CompletableFutures.await(getAvailabilityAsync(event));
+    }
+
+    /**
+     * Non-blocking variant of getAvailability. An event whose shards were never created
+     * (nothing reserved yet) reports its full capacity without writing anything.
+     */
+    public CompletableFuture<Availability> getAvailabilityAsync(Event event) {
+        CachedAvailability cached = peekAvailability(event.getEventId());
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.availability());
+        }
+        Map<String, Long> capacities = capacities(event);
+        if (capacities.isEmpty()) {
+            return CompletableFuture.completedFuture(cacheAvailability(event.getEventId(), new Availability(Map.of())));
+        }
+
+        return CompletableFutures.of(shards(event.getEventId()).get()).thenApply(snapshot -> {
+            Map<String, long[]> totals = new LinkedHashMap<>();
+            if (snapshot.isEmpty()) {
+                capacities.forEach((category, capacity) -> totals.put(category, new long[]{capacity, 0, 0}));
+            }
+            for (QueryDocumentSnapshot shard : snapshot.getDocuments()) {
+                readShard(shard).forEach((category, seats) -> {
+                    long[] sum = totals.computeIfAbsent(category, c -> new long[3]);
+                    sum[0] += seats.capacity;
+                    sum[1] += seats.reserved;
+                    sum[2] += seats.sold;
+                });
+            }
+            Map<String, CategoryAvailability> categories = new LinkedHashMap<>();
+            totals.forEach((category, sum) -> categories.put(category, new CategoryAvailability(sum[0], sum[1], sum[2])));
+
+            return cacheAvailability(event.getEventId(), new Availability(categories));
+        });
+    }
+
+    /**
+     * The availability getAvailability would return right now if it needs no read, else null
+     */
+    public CachedAvailability peekAvailability(String eventId) {
+        CachedAvailability cached = availabilityCache.get(eventId);
+        return cached != null && cached.expiresAt() > System.currentTimeMillis() ? cached : null;
+    }
+
+    private Availability cacheAvailability(String eventId, Availability availability) {
+        long now = System.currentTimeMillis();
+        availabilityCache.put(eventId, new CachedAvailability(availability, now, now + availabilityTtlMs));
+        return availability;
+    }
+
+    // ==================== RESERVE / COMMIT / RELEASE ====================
+
+    /**
+     * Hold quantity seats of a category for a PaymentIntent until the returned expiry.
+     * Idempotent per paymentIntentId. Throws SoldOutException when the category does not
+     * have enough seats left.
+     */
+    public Instant reserve(Event event, String category, int quantity, String paymentIntentId, String userId)
+            throws ExecutionException, InterruptedException {
+        return reserve(event, category, quantity, paymentIntentId, userId, false);
+    }
+
+    private Instant reserve(Event event, String category, int quantity, String paymentIntentId, String userId,
+                            boolean replaceReleased) throws ExecutionException, InterruptedException {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Ticket count must be positive");
+        }
+        if (!capacities(event).containsKey(category)) {
+            throw new IllegalArgumentException("Unknown ticket category: " + category);
+        }
+        ensureShards(event);
+        String eventId = event.getEventId();
+        DocumentReference reservationRef = reservationRef(paymentIntentId);
+        Timestamp expiresAt = Timestamp.ofTimeMicroseconds((System.currentTimeMillis() + holdTtlMs) * 1000);
+
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order);
+
+        for (int shard : order) {
+            DocumentReference shardRef = shardRef(eventId, shard);
+            Timestamp held = firestore.runTransaction(tx -> {
+                DocumentSnapshot existing = tx.get(reservationRef).get();
+                if (isActive(existing, replaceReleased)) {
+                    return existing.getTimestamp("expiresAt");
+                }
+                Seats seats = readShard(tx.get(shardRef).get()).get(category);
+                if (seats == null || seats.free() < quantity) {
+                    return null;
+                }
+                tx.update(shardRef, FieldPath.of("categories", category, "reserved"), seats.reserved + quantity);
+                tx.set(reservationRef, reservationData(eventId, category, quantity, userId, expiresAt,
+                        Map.of(String.valueOf(shard), (long) quantity)));
+                return expiresAt;
+            }).get();
+            if (held != null) {
+                return held(eventId, paymentIntentId, held);
+            }
+        }
+
+        // No single shard has enough left: take the seats from several shards at once
+        List<DocumentReference> shardRefs = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shardRefs.add(shardRef(eventId, i));
+        }
+        Timestamp held = firestore.runTransaction(tx -> {
+            DocumentSnapshot existing = tx.get(reservationRef).get();
+            if (isActive(existing, replaceReleased)) {
+                return existing.getTimestamp("expiresAt");
+            }
+            List<DocumentSnapshot> snapshots = tx.getAll(shardRefs.toArray(new DocumentReference[0])).get();
+            long free = 0;
+            for (DocumentSnapshot snapshot : snapshots) {
+                Seats seats = readShard(snapshot).get(category);
+                free += seats != null ? seats.free() : 0;
+            }
+            if (free < quantity) {
+                return null;
+            }
+            Map<String, Long> allocations = new HashMap<>();
+            long needed = quantity;
+            for (int i = 0; i < snapshots.size() && needed > 0; i++) {
+                Seats seats = readShard(snapshots.get(i)).get(category);
+                long take = seats != null ? Math.min(seats.free(), needed) : 0;
+                if (take > 0) {
+                    tx.update(shardRefs.get(i), FieldPath.of("categories", category, "reserved"), seats.reserved + take);
+                    allocations.put(String.valueOf(i), take);
+                    needed -= take;
+                }
+            }
+            tx.set(reservationRef, reservationData(eventId, category, quantity, userId, expiresAt, allocations));
+            return expiresAt;
+        }).get();
+        if (held == null) {
+            throw new SoldOutException("Not enough " + category + " tickets left");
+        }
+        return held(eventId, paymentIntentId, held);
+    }
+
+    // An existing reservation counts as made, except a released one that is being taken again
+    private static boolean isActive(DocumentSnapshot reservation, boolean replaceReleased) {
+        return reservation.exists()
+                && !(replaceReleased && ReservationStatus.RELEASED.name().equals(reservation.getString("status")));
+    }
+
+    private Instant held(String eventId, String paymentIntentId, Timestamp expiresAt) {
+        availabilityCache.remove(eventId);
+        Instant expiry = expiresAt != null ? expiresAt.toDate().toInstant() : Instant.now();
+        scheduleExpiry(paymentIntentId, expiry.toEpochMilli());
+        return expiry;
+    }
+
+    /**
+     * Turn a PaymentIntent's held seats into sold seats once payment succeeded.
+     * Returns false when there is no active reservation (none made, or already released).
+     */
+    public boolean commit(String paymentIntentId) throws ExecutionException, InterruptedException {
+        return finish(paymentIntentId, ReservationStatus.COMMITTED, false);
+    }
+
+    /**
+     * Return a PaymentIntent's held seats (payment cancelled or failed).
+     * Returns false when there is nothing to release.
+     */
+    public boolean release(String paymentIntentId) throws ExecutionException, InterruptedException {
+        return finish(paymentIntentId, ReservationStatus.RELEASED, false);
+    }
+
+    /**
+     * Record seats for a payment that succeeded without a reservation (older clients,
+     * or a hold that expired or was released before the payment finished). The money has already
+     * been taken, so a sold-out category is counted and logged rather than refused.
+     */
+    public void commitWithoutReservation(Event event, String category, int quantity, String paymentIntentId,
+                                         String userId) throws ExecutionException, InterruptedException {
+        if (quantity <= 0 || !capacities(event).containsKey(category)) {
+            return;
+        }
+        try {
+            reserve(event, category, quantity, paymentIntentId, userId, true);
+            commit(paymentIntentId);
+        } catch (SoldOutException e) {
+            oversold.increment(quantity);
+            logger.warn("Payment {} sold {} {} tickets for event {} beyond capacity",
+                    paymentIntentId, quantity, category, event.getEventId());
+        }
+    }
+
+    private boolean finish(String paymentIntentId, ReservationStatus target, boolean onlyIfExpired)
+            throws ExecutionException, InterruptedException {
+        DocumentReference reservationRef = reservationRef(paymentIntentId);
+        Timestamp now = Timestamp.now();
+        String eventId = firestore.runTransaction(tx -> {
+            DocumentSnapshot reservation = tx.get(reservationRef).get();
+            if (!reservation.exists()) {
+                return null;
+            }
+            String status = reservation.getString("status");
+            if (target.name().equals(status)) {
+                return reservation.getString("eventId");
+            }
+            if (!ReservationStatus.RESERVED.name().equals(status)) {
+                return null;
+            }
+            Timestamp expiresAt = reservation.getTimestamp("expiresAt");
+            if (onlyIfExpired && expiresAt != null && expiresAt.compareTo(now) > 0) {
+                return null;
+            }
+            String reservedEventId = reservation.getString("eventId");
+            String category = reservation.getString("category");
+            Map<String, Object> allocations = allocations(reservation);
+            for (Map.Entry<String, Object> allocation : allocations.entrySet()) {
+                long seats = ((Number) allocation.getValue()).longValue();
+                DocumentReference shardRef = shardRef(reservedEventId, Integer.parseInt(allocation.getKey()));
+                if (target == ReservationStatus.COMMITTED) {
+                    tx.update(shardRef,
+                            FieldPath.of("categories", category, "reserved"), FieldValue.increment(-seats),
+                            FieldPath.of("categories", category, "sold"), FieldValue.increment(seats));
+                } else {
+                    tx.update(shardRef, FieldPath.of("categories", category, "reserved"), FieldValue.increment(-seats));
+                }
+            }
+            tx.update(reservationRef, "status", target.name(), "finishedAt", now);
+            return reservedEventId;
+        }).get();
+        cancelExpiry(paymentIntentId);
+        if (eventId == null) {
+            return false;
+        }
+        availabilityCache.remove(eventId);
+        return true;
+    }
+
+    // ==================== HOLD EXPIRY ====================
+
+    private void scheduleExpiry(String paymentIntentId, long expiresAtMs) {
+        if (!expiryEnabled) {
+            return;
+        }
+        holdExpiryLock.lock();
+        try {
+            holdExpiry.schedule(paymentIntentId, expiresAtMs);
+        } finally {
+            holdExpiryLock.unlock();
+        }
+    }
+
+    private void cancelExpiry(String paymentIntentId) {
+        holdExpiryLock.lock();
+        try {
+            holdExpiry.cancel(paymentIntentId);
+        } finally {
+            holdExpiryLock.unlock();
+        }
+    }
+
+    private int scheduledHolds() {
+        holdExpiryLock.lock();
+        try {
+            return holdExpiry.size();
+        } finally {
+            holdExpiryLock.unlock();
+        }
+    }
+
+    private void runExpiry() {
+        while (running) {
+            List<String> due;
+            long sleepMs;
+            holdExpiryLock.lock();
+            try {
+                due = holdExpiry.advanceTo(System.currentTimeMillis());
+                sleepMs = holdExpiry.nextTickAt() - System.currentTimeMillis();
+            } finally {
+                holdExpiryLock.unlock();
+            }
+
+            for (String paymentIntentId : due) {
+                try {
+                    // Re-checked in the transaction: another instance may have committed or extended it
+                    if (finish(paymentIntentId, ReservationStatus.RELEASED, true)) {
+                        expired.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    logger.warn("Could not release expired ticket hold {}, retrying later: {}",
+                            paymentIntentId, e.getMessage());
+                    scheduleExpiry(paymentIntentId, System.currentTimeMillis() + EXPIRY_RETRY_MS);
+                }
+            }
+
+            if (sleepMs > 0) {
+                try {
+                    Thread.sleep(sleepMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // ==================== CAPACITY ====================
+
+    /**
+     * Apply changed ticket category capacities after an event update. Seats already
+     * reserved or sold are kept, so capacity cannot drop below them. An event nobody
+     * has reserved yet has no shards and needs no write: the first reservation creates
+     * them from the capacities current at that point.
+     */
+    public void syncCapacity(Event event) throws ExecutionException, InterruptedException {
+        Map<String, Long> capacities = capacities(event);
+        String eventId = event.getEventId();
+        availabilityCache.remove(eventId);
+        if (!shardRef(eventId, 0).get().get().exists()) {
+            initialized.remove(eventId);
+            return;
+        }
+
+        List<DocumentReference> shardRefs = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shardRefs.add(shardRef(eventId, i));
+        }
+        firestore.runTransaction(tx -> {
+            List<Map<String, Seats>> shards = new ArrayList<>();
+            for (DocumentSnapshot snapshot : tx.getAll(shardRefs.toArray(new DocumentReference[0])).get()) {
+                shards.add(readShard(snapshot));
+            }
+            Set<String> categories = new HashSet<>(capacities.keySet());
+            shards.forEach(shard -> categories.addAll(shard.keySet()));
+
+            for (String category : categories) {
+                long target = capacities.getOrDefault(category, 0L);
+                long current = 0;
+                for (Map<String, Seats> shard : shards) {
+                    Seats seats = shard.get(category);
+                    current += seats != null ? seats.capacity : 0;
+                }
+                long delta = target - current;
+                for (int i = 0; i < shards.size(); i++) {
+                    Seats seats = shards.get(i).computeIfAbsent(category, c -> new Seats());
+                    if (delta > 0) {
+                        seats.capacity += slice(target - current, i);
+                    } else if (delta < 0) {
+                        // Only seats nobody holds can be taken away
+                        long remove = Math.min(seats.free(), -delta);
+                        seats.capacity -= remove;
+                        delta += remove;
+                    }
+                }
+            }
+            for (int i = 0; i < shards.size(); i++) {
+                tx.set(shardRefs.get(i), shardData(shards.get(i)));
+            }
+            return null;
+        }).get();
+        availabilityCache.remove(eventId);
+    }
+
+    // Creates the shard documents the first time an event's inventory is used
+    private void ensureShards(Event event) throws ExecutionException, InterruptedException {
+        String eventId = event.getEventId();
+        if (initialized.contains(eventId)) {
+            return;
+        }
+        DocumentReference first = shardRef(eventId, 0);
+        Map<String, Long> capacities = capacities(event);
+        firestore.runTransaction(tx -> {
+            if (tx.get(first).get().exists()) {
+                return null;
+            }
+            for (int i = 0; i < shardCount; i++) {
+                Map<String, Seats> shard = new LinkedHashMap<>();
+                for (Map.Entry<String, Long> capacity : capacities.entrySet()) {
+                    Seats seats = new Seats();
+                    seats.capacity = slice(capacity.getValue(), i);
+                    shard.put(capacity.getKey(), seats);
+                }
+                tx.set(shardRef(eventId, i), shardData(shard));
+            }
+            return null;
+        }).get();
+        initialized.add(eventId);
+    }
+
+    // Shard i's share of a capacity (the remainder goes to the first shards)
+    long slice(long capacity, int shard) {
+        return capacity / shardCount + (shard < capacity % shardCount ? 1 : 0);
+    }
+
+    // Category name -> capacity, from the event's ticket categories
+    static Map<String, Long> capacities(Event event) {
+        Map<String, Long> capacities = new LinkedHashMap<>();
+        if (event.getTicketCategories() != null) {
+            for (TicketCategory category : event.getTicketCategories()) {
+                if (category.getCategoryName() != null && category.getAvailableCount() != null) {
+                    capacities.merge(category.getCategoryName(), (long) Math.max(0, category.getAvailableCount()), Long::sum);
+                }
+            }
+        }
+        return capacities;
+    }
+
+    // ==================== DOCUMENTS ====================
+
+    private static final class Seats {
+        long capacity;
+        long reserved;
+        long sold;
+
+        long free() {
+            return capacity - reserved - sold;
+        }
+    }
+
+    private DocumentReference shardRef(String eventId, int shard) {
+        return firestore.collection(INVENTORY_COLLECTION).document(eventId)
+                .collection(SHARDS_COLLECTION).document(String.valueOf(shard));
+    }
+
+    private CollectionReference shards(String eventId) {
+        return firestore.collection(INVENTORY_COLLECTION).document(eventId).collection(SHARDS_COLLECTION);
+    }
+
+    private DocumentReference reservationRef(String paymentIntentId) {
+        return firestore.collection(RESERVATIONS_COLLECTION).document(paymentIntentId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Seats> readShard(DocumentSnapshot shard) {
+        Map<String, Seats> categories = new LinkedHashMap<>();
+        Object value = shard.exists() ? shard.get("categories") : null;
+        if (value instanceof Map) {
+            ((Map<String, Object>) value).forEach((category, fields) -> {
+                if (fields instanceof Map) {
+                    Map<String, Object> map = (Map<String, Object>) fields;
+                    Seats seats = new Seats();
+                    seats.capacity = number(map.get("capacity"));
+                    seats.reserved = number(map.get("reserved"));
+                    seats.sold = number(map.get("sold"));
+                    categories.put(category, seats);
+                }
+            });
+        }
+        return categories;
+    }
+
+    private static Map<String, Object> shardData(Map<String, Seats> shard) {
+        Map<String, Object> categories = new HashMap<>();
+        shard.forEach((category, seats) -> {
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("capacity", seats.capacity);
+            fields.put("reserved", seats.reserved);
+            fields.put("sold", seats.sold);
+            categories.put(category, fields);
+        });
+        Map<String, Object> data = new HashMap<>();
+        data.put("categories", categories);
+        return data;
+    }
+
+    private static Map<String, Object> reservationData(String eventId, String category, int quantity,
+                                                       String userId, Timestamp expiresAt,
+                                                       Map<String, Long> allocations) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("eventId", eventId);
+        data.put("category", category);
+        data.put("quantity", quantity);
+        data.put("userId", userId);
+        data.put("allocations", allocations);
+        data.put("status", ReservationStatus.RESERVED.name());
+        data.put("createdAt", Timestamp.now());
+        data.put("expiresAt", expiresAt);
+        return data;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> allocations(DocumentSnapshot reservation) {
+        Object value = reservation.get("allocations");
+        return value instanceof Map ? (Map<String, Object>) value : Map.of();
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
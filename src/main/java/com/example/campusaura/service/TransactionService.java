@@ -1,25 +1,51 @@
 package com.example.campusaura.service;
 
+import com.example.campusaura.dto.PageResponse;
 import com.example.campusaura.dto.PaymentStatsDTO;
+import com.example.campusaura.dto.RevenuePointDTO;
 import com.example.campusaura.dto.TransactionResponseDTO;
 import com.example.campusaura.model.Transaction;
 import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 @Service
 public class TransactionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
+
     @Autowired
     private Firestore firestore;
 
+    @Autowired
+    private RevenueLedger revenueLedger;
+
+    @Autowired
+    private DocumentCounter documentCounter;
+
+    @Value("${campusaura.payments.ledger.max-age-ms:3600000}")
+    private long ledgerMaxAgeMs;
+
+    // Serializes ledger rebuilds (scheduled check, admin endpoint, first stats read)
+    private final ReentrantLock ledgerLock = new ReentrantLock();
+
     private static final String COLLECTION_NAME = "transactions";
+    private static final int LEDGER_REBUILD_PAGE_SIZE = 500;
 
     // Get all transactions
     public List<TransactionResponseDTO> getAllTransactions() throws ExecutionException, InterruptedException {
@@ -32,6 +58,13 @@ public class TransactionService {
                 .collect(Collectors.toList());
     }
 
+    // Get one page of transactions (ordered by transaction ID)
+    public PageResponse<TransactionResponseDTO> getTransactionsPage(int limit, String cursor)
+            throws ExecutionException, InterruptedException {
+        return FirestorePages.byDocumentId(firestore.collection(COLLECTION_NAME), limit, cursor,
+                doc -> transactionToDTO(documentToTransaction(doc)));
+    }
+
     // Get recent transactions
     public List<TransactionResponseDTO> getRecentTransactions(int limit) throws ExecutionException, InterruptedException {
         Query query = firestore.collection(COLLECTION_NAME)
@@ -47,53 +80,199 @@ public class TransactionService {
                 .collect(Collectors.toList());
     }
 
-    // Get payment statistics
+    // Get payment statistics (one ledger document read plus the recent-transactions query)
     public PaymentStatsDTO getPaymentStats() throws ExecutionException, InterruptedException {
-        List<Transaction> allTransactions = getAllTransactionsInternal();
-        
-        // Calculate ticket revenue
-        double ticketRevenue = allTransactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.TICKET 
-                        && t.getStatus() == Transaction.TransactionStatus.COMPLETED)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
-        
-        // Calculate marketplace revenue
-        double marketplaceRevenue = allTransactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.MARKETPLACE 
-                        && t.getStatus() == Transaction.TransactionStatus.COMPLETED)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
-        
-        // Get recent transactions
+        ApiFuture<DocumentSnapshot> totalsFuture = revenueLedger.getTotalsAsync();
         List<TransactionResponseDTO> recentTransactions = getRecentTransactions(10);
-        
+
+        DocumentSnapshot totals = totalsFuture.get();
+        if (!totals.exists()) {
+            rebuildRevenueLedger();
+            totals = revenueLedger.getTotalsAsync().get();
+        }
+
+        double ticketRevenue = RevenueLedger.amount(totals,
+                Transaction.TransactionType.TICKET, Transaction.TransactionStatus.COMPLETED);
+        double marketplaceRevenue = RevenueLedger.amount(totals,
+                Transaction.TransactionType.MARKETPLACE, Transaction.TransactionStatus.COMPLETED);
+
         return new PaymentStatsDTO(ticketRevenue, marketplaceRevenue, recentTransactions);
     }
 
     // Get revenue by type
     public double getRevenueByType(Transaction.TransactionType type) throws ExecutionException, InterruptedException {
-        Query query = firestore.collection(COLLECTION_NAME)
-                .whereEqualTo("type", type.toString())
-                .whereEqualTo("status", Transaction.TransactionStatus.COMPLETED.toString());
-        
-        ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
+        return RevenueLedger.amount(revenueLedger.getTotalsAsync().get(), type, Transaction.TransactionStatus.COMPLETED);
+    }
 
-        return documents.stream()
-                .map(this::documentToTransaction)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+    // Completed revenue per day / per month, zero-filled for charts
+    public List<RevenuePointDTO> getDailyRevenue(LocalDate from, LocalDate to)
+            throws ExecutionException, InterruptedException {
+        return revenueLedger.getDailySeries(from, to);
     }
 
-    // Helper methods
-    private List<Transaction> getAllTransactionsInternal() throws ExecutionException, InterruptedException {
-        ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME).get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
+    public List<RevenuePointDTO> getMonthlyRevenue(YearMonth from, YearMonth to)
+            throws ExecutionException, InterruptedException {
+        return revenueLedger.getMonthlySeries(from, to);
+    }
 
-        return documents.stream()
-                .map(this::documentToTransaction)
-                .collect(Collectors.toList());
+    // Record a new transaction together with its revenue ledger entries
+    public TransactionResponseDTO createTransaction(Transaction transaction)
+            throws ExecutionException, InterruptedException {
+        CollectionReference collection = firestore.collection(COLLECTION_NAME);
+        DocumentReference ref = transaction.getId() != null
+                ? collection.document(transaction.getId()) : collection.document();
+        transaction.setId(ref.getId());
+
+        firestore.runTransaction(tx -> {
+            tx.create(ref, transactionToMap(transaction));
+            revenueLedger.apply(tx, null, transaction);
+            return null;
+        }).get();
+        return transactionToDTO(transaction);
+    }
+
+    // Change a transaction's status (e.g. COMPLETED, REFUNDED) and move its revenue in the ledger
+    public TransactionResponseDTO updateTransactionStatus(String id, Transaction.TransactionStatus status)
+            throws ExecutionException, InterruptedException {
+        DocumentReference ref = firestore.collection(COLLECTION_NAME).document(id);
+        if (!ref.get().get().exists()) {
+            throw new RuntimeException("Transaction not found: " + id);
+        }
+
+        Transaction updated = firestore.runTransaction(tx -> {
+            DocumentSnapshot snapshot = tx.get(ref).get();
+            if (!snapshot.exists()) {
+                throw new RuntimeException("Transaction not found: " + id);
+            }
+            Transaction previous = documentToTransaction(snapshot);
+            Transaction next = documentToTransaction(snapshot);
+            next.setStatus(status);
+
+            // Only the changed fields: the document may carry fields this service does not map
+            Map<String, Object> changes = new HashMap<>();
+            changes.put("status", status.toString());
+            if (status == Transaction.TransactionStatus.COMPLETED && next.getCompletedAt() == null) {
+                next.setCompletedAt(LocalDateTime.now());
+                // Same representation as the document's createdAt
+                changes.put("completedAt", snapshot.get("createdAt") instanceof Timestamp
+                        ? Timestamp.of(Date.from(next.getCompletedAt().atZone(ZoneId.systemDefault()).toInstant()))
+                        : next.getCompletedAt().toString());
+            }
+
+            tx.update(ref, changes);
+            revenueLedger.apply(tx, previous, next);
+            return next;
+        }).get();
+        return transactionToDTO(updated);
+    }
+
+    /**
+     * Keeps the ledger current while transactions are written outside this service.
+     * Rebuilds when the transaction count per type and status (server-side aggregation)
+     * no longer matches the ledger, and once the last rebuild is older than max-age-ms,
+     * which picks up edits that leave the counts unchanged (amounts, dates).
+     */
+    @Scheduled(fixedDelayString = "${campusaura.payments.ledger.check-ms:60000}",
+            initialDelayString = "${campusaura.payments.ledger.initial-delay-ms:30000}")
+    public void refreshRevenueLedger() {
+        try {
+            if (isLedgerStale()) {
+                rebuildRevenueLedger();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Failed to refresh the revenue ledger: {}", e.getMessage());
+        }
+    }
+
+    boolean isLedgerStale() throws ExecutionException, InterruptedException {
+        DocumentSnapshot totals = revenueLedger.getTotalsAsync().get();
+        if (!totals.exists()) {
+            return true;
+        }
+        Timestamp rebuiltAt = totals.getTimestamp("rebuiltAt");
+        if (rebuiltAt == null || System.currentTimeMillis() - rebuiltAt.toDate().getTime() >= ledgerMaxAgeMs) {
+            return true;
+        }
+
+        // Issued together; equality filters on two fields need no composite index
+        Map<Transaction.TransactionType, Map<Transaction.TransactionStatus, ApiFuture<Long>>> counts =
+                new EnumMap<>(Transaction.TransactionType.class);
+        for (Transaction.TransactionType type : Transaction.TransactionType.values()) {
+            Map<Transaction.TransactionStatus, ApiFuture<Long>> byStatus = new EnumMap<>(Transaction.TransactionStatus.class);
+            for (Transaction.TransactionStatus status : Transaction.TransactionStatus.values()) {
+                byStatus.put(status, documentCounter.countAsync(CountQuery.of(COLLECTION_NAME)
+                        .where("type", type.name()).where("status", status.name())));
+            }
+            counts.put(type, byStatus);
+        }
+        for (Transaction.TransactionType type : Transaction.TransactionType.values()) {
+            for (Transaction.TransactionStatus status : Transaction.TransactionStatus.values()) {
+                long actual = counts.get(type).get(status).get();
+                long recorded = RevenueLedger.count(totals, type, status);
+                if (actual != recorded) {
+                    logger.info("Revenue ledger out of date ({}.{}: {} transactions, ledger has {})",
+                            type, status, actual, recorded);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recompute the revenue ledger from the transactions collection.
+     * Runs on first use, from the scheduled check above, and on demand from the admin API.
+     */
+    public int rebuildRevenueLedger() throws ExecutionException, InterruptedException {
+        ledgerLock.lockInterruptibly();
+        try {
+            return rebuildRevenueLedgerLocked();
+        } finally {
+            ledgerLock.unlock();
+        }
+    }
+
+    private int rebuildRevenueLedgerLocked() throws ExecutionException, InterruptedException {
+        RevenueLedger.Delta ledger = new RevenueLedger.Delta();
+        int scanned = 0;
+        QueryDocumentSnapshot last = null;
+        while (true) {
+            Query page = firestore.collection(COLLECTION_NAME).orderBy(FieldPath.documentId()).limit(LEDGER_REBUILD_PAGE_SIZE);
+            if (last != null) {
+                page = page.startAfter(last);
+            }
+            List<QueryDocumentSnapshot> documents = page.get().get().getDocuments();
+            for (QueryDocumentSnapshot document : documents) {
+                ledger.add(documentToTransaction(document), 1);
+            }
+            scanned += documents.size();
+            if (documents.size() < LEDGER_REBUILD_PAGE_SIZE) {
+                break;
+            }
+            last = documents.get(documents.size() - 1);
+        }
+        revenueLedger.replaceWith(ledger);
+        return scanned;
+    }
+
+    // Helper methods
+    private Map<String, Object> transactionToMap(Transaction transaction) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("type", transaction.getType() != null ? transaction.getType().toString() : null);
+        data.put("userId", transaction.getUserId());
+        data.put("userName", transaction.getUserName());
+        data.put("eventId", transaction.getEventId());
+        data.put("eventName", transaction.getEventName());
+        data.put("productId", transaction.getProductId());
+        data.put("productName", transaction.getProductName());
+        data.put("amount", transaction.getAmount());
+        data.put("paymentMethod", transaction.getPaymentMethod());
+        data.put("status", transaction.getStatus() != null ? transaction.getStatus().toString() : null);
+        data.put("createdAt", transaction.getCreatedAt() != null ? transaction.getCreatedAt().toString() : null);
+        data.put("completedAt", transaction.getCompletedAt() != null ? transaction.getCompletedAt().toString() : null);
+        return data;
     }
 
     private Transaction documentToTransaction(DocumentSnapshot document) {
@@ -124,19 +303,21 @@ public class TransactionService {
             transaction.setStatus(Transaction.TransactionStatus.valueOf(statusStr));
         }
         
-        String createdAtStr = document.getString("createdAt");
-        if (createdAtStr != null) {
-            transaction.setCreatedAt(LocalDateTime.parse(createdAtStr));
-        }
-        
-        String completedAtStr = document.getString("completedAt");
-        if (completedAtStr != null) {
-            transaction.setCompletedAt(LocalDateTime.parse(completedAtStr));
-        }
+        transaction.setCreatedAt(dateTime(document, "createdAt"));
+        transaction.setCompletedAt(dateTime(document, "completedAt"));
         
         return transaction;
     }
 
+    // Dates are ISO strings when written here, Timestamps when written by other clients
+    private static LocalDateTime dateTime(DocumentSnapshot document, String field) {
+        Object value = document.get(field);
+        if (value instanceof Timestamp timestamp) {
+            return LocalDateTime.ofInstant(timestamp.toDate().toInstant(), ZoneId.systemDefault());
+        }
+        return value instanceof String string ? LocalDateTime.parse(string) : null;
+    }
+
     private TransactionResponseDTO transactionToDTO(Transaction transaction) {
         TransactionResponseDTO dto = new TransactionResponseDTO();
         dto.setId(transaction.getId());
@@ -1,16 +1,23 @@
 package com.example.campusaura.service;
 
+import com.example.campusaura.config.CacheConfig;
+import com.example.campusaura.dto.PageResponse;
 import com.example.campusaura.dto.UserResponseDTO;
 import com.example.campusaura.dto.UserStatsDTO;
 import com.example.campusaura.model.User;
+import com.example.campusaura.repository.CachingUserRepository;
 import com.example.campusaura.security.Roles;
+import com.example.campusaura.util.CompletableFutures;
 import com.google.api.core.ApiFuture;
 import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
@@ -25,6 +32,15 @@ public class UserManagementService {
     @Autowired
     private Firestore firestore;
 
+    @Autowired
+    private CountService countService;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private CachingUserRepository userRepository;
+
     private static final String COLLECTION_NAME = "users";
 
     // ─────────────────────────────────────────────────────────────────────────
@@ -33,7 +49,23 @@ public class UserManagementService {
 
     /** Get all users */
     public List<UserResponseDTO> getAllUsers() throws ExecutionException, InterruptedException {
-        return fetchByQuery(firestore.collection(COLLECTION_NAME));
+        return CompletableFutures.await(getAllUsersAsync());
+    }
+
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "'all'", sync = true)
+    public CompletableFuture<List<UserResponseDTO>> getAllUsersAsync() {
+        return fetchByQueryAsync(firestore.collection(COLLECTION_NAME));
+    }
+
+    /** Get one page of users (ordered by UID) */
+    public PageResponse<UserResponseDTO> getUsersPage(int limit, String cursor)
+            throws ExecutionException, InterruptedException {
+        return CompletableFutures.await(getUsersPageAsync(limit, cursor));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "'page:' + #limit + ':' + #cursor", sync = true)
+    public CompletableFuture<PageResponse<UserResponseDTO>> getUsersPageAsync(int limit, String cursor) {
+        return FirestorePages.byDocumentIdAsync(firestore.collection(COLLECTION_NAME), limit, cursor, this::documentToDTO);
     }
 
     /**
@@ -41,11 +73,16 @@ public class UserManagementService {
      * @param role one of Roles.STUDENT, Roles.EXTERNAL_USER, Roles.COORDINATOR, Roles.ADMIN
      */
     public List<UserResponseDTO> getUsersByRole(String role) throws ExecutionException, InterruptedException {
-        Query query = firestore.collection(COLLECTION_NAME).whereEqualTo("role", role);
-        return fetchByQuery(query);
+        return CompletableFutures.await(getUsersByRoleAsync(role));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "'role:' + #role", sync = true)
+    public CompletableFuture<List<UserResponseDTO>> getUsersByRoleAsync(String role) {
+        return fetchByQueryAsync(firestore.collection(COLLECTION_NAME).whereEqualTo("role", role));
     }
 
     /** Get users whose student ID is not yet verified (verified = false AND role = STUDENT) */
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "'pending'", sync = true)
     public List<UserResponseDTO> getPendingVerificationUsers() throws ExecutionException, InterruptedException {
         Query query = firestore.collection(COLLECTION_NAME)
                 .whereEqualTo("role", Roles.STUDENT)
@@ -57,6 +94,7 @@ public class UserManagementService {
     // Statistics
     // ─────────────────────────────────────────────────────────────────────────
 
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "'stats'", sync = true)
     public UserStatsDTO getUserStats() throws ExecutionException, InterruptedException {
         List<User> allUsers = getAllUsersInternal();
 
@@ -78,6 +116,7 @@ public class UserManagementService {
      * @param uid      Firebase UID (document ID)
      * @param verified true = verified, false = rejected / unverified
      */
+    @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true)
     public UserResponseDTO verifyStudent(String uid, boolean verified)
             throws ExecutionException, InterruptedException {
 
@@ -89,16 +128,21 @@ public class UserManagementService {
         updates.put("verified", verified);
         updates.put("updatedAt", Timestamp.now());
         docRef.update(updates).get();
+        userRepository.invalidate(uid);
 
         return documentToDTO(docRef.get().get());
     }
 
     /** Delete user document */
+    @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true)
     public void deleteUser(String uid) throws ExecutionException, InterruptedException {
         if (uid == null || uid.isBlank()) throw new IllegalArgumentException("uid must not be null or blank");
         DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(uid);
         assertExists(docRef, uid);
         docRef.delete().get();
+        userRepository.invalidate(uid);
+        countService.invalidate(COLLECTION_NAME);
+        dashboardCounters.record(DashboardCounters.Metric.USERS, -1);
     }
 
     // ─────────────────────────────────────────────────────────────────────────
@@ -107,10 +151,13 @@ public class UserManagementService {
 
     private List<UserResponseDTO> fetchByQuery(Query query)
             throws ExecutionException, InterruptedException {
-        ApiFuture<QuerySnapshot> future = query.get();
-        return future.get().getDocuments().stream()
+        return CompletableFutures.await(fetchByQueryAsync(query));
+    }
+
+    private CompletableFuture<List<UserResponseDTO>> fetchByQueryAsync(Query query) {
+        return CompletableFutures.of(query.get()).thenApply(snapshot -> snapshot.getDocuments().stream()
                 .map(this::documentToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     private List<User> getAllUsersInternal() throws ExecutionException, InterruptedException {
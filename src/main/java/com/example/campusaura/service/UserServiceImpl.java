@@ -1,5 +1,6 @@
 package com.example.campusaura.service;
 
+import com.example.campusaura.config.CacheConfig;
 import com.example.campusaura.model.User;
 import com.example.campusaura.repository.UserRepository;
 import com.example.campusaura.security.Roles;
@@ -8,6 +9,9 @@ import com.example.campusaura.util.EmailValidator;
 import com.google.cloud.Timestamp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
 /**
@@ -21,9 +25,14 @@ public class UserServiceImpl implements UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
 
     private final UserRepository userRepository;
+    private final DashboardCounters dashboardCounters;
+    private final Cache usersCache;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, DashboardCounters dashboardCounters,
+                           CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.dashboardCounters = dashboardCounters;
+        this.usersCache = cacheManager.getCache(CacheConfig.USERS);
     }
 
     @Override
@@ -53,6 +62,9 @@ public class UserServiceImpl implements UserService {
                             .build();
 
                     userRepository.save(newUser);
+                    dashboardCounters.record(DashboardCounters.Metric.USERS, 1);
+                    // Evicted here rather than by annotation: most calls find an existing user
+                    usersCache.clear();
                     logger.info("New user created successfully: {} with role: {}", uid, role);
 
                     return newUser;
@@ -71,6 +83,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true)
     public void updateUserRole(String uid, String newRole) {
         logger.info("Attempting to update role for user: {} to {}", uid, newRole);
 
@@ -110,6 +123,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true)
     public User updateStudentProfile(String uid, String degreeProgram, String studentIdUrl) {
         logger.info("Updating student profile for user: {}", uid);
 
@@ -0,0 +1,76 @@
+package com.example.campusaura.util;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Adapters from the Firestore client's ApiFuture to CompletableFuture, which Spring MVC
+ * accepts as a controller return value: the servlet thread is released while the
+ * Firestore call is in flight and the response is written when the future completes.
+ */
+public final class CompletableFutures {
+
+    private CompletableFutures() {
+        // Prevent instantiation
+    }
+
+    /**
+     * A CompletableFuture completed by the given ApiFuture. Cancelling the returned
+     * future cancels the underlying call.
+     */
+    public static <T> CompletableFuture<T> of(ApiFuture<T> future) {
+        CompletableFuture<T> result = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                future.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        ApiFutures.addCallback(future, new ApiFutureCallback<>() {
+            @Override
+            public void onSuccess(T value) {
+                result.complete(value);
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                result.completeExceptionally(error);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    /**
+     * Blocking wait with the same failure surface as the blocking service methods: runtime
+     * exceptions (not found, bad input) are rethrown as-is, Firestore failures stay wrapped
+     * in ExecutionException.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws ExecutionException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The original failure behind the CompletionException / ExecutionException wrappers
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.campusaura.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque continuation tokens for cursor pagination.
+ * A cursor carries the sort values of the last item of a page; clients must
+ * treat it as an opaque string and pass it back unchanged.
+ */
+public final class PageCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private PageCursor() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Encodes the sort values of the last item of a page.
+     *
+     * @param values Sort values, in query order
+     * @return URL-safe cursor string
+     */
+    public static String encode(String... values) {
+        StringBuilder cursor = new StringBuilder();
+        for (String value : values) {
+            if (cursor.length() > 0) {
+                cursor.append('.');
+            }
+            cursor.append(ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8)));
+        }
+        return ENCODER.encodeToString(cursor.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes a cursor created by encode().
+     *
+     * @param cursor Cursor string from a previous page
+     * @param expectedValues Number of sort values the query uses
+     * @return Sort values, in query order
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static List<String> decode(String cursor, int expectedValues) {
+        try {
+            String joined = new String(DECODER.decode(cursor), StandardCharsets.US_ASCII);
+            List<String> values = new ArrayList<>();
+            for (String part : joined.split("\\.", -1)) {
+                values.add(new String(DECODER.decode(part), StandardCharsets.UTF_8));
+            }
+            if (values.size() != expectedValues) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return values;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
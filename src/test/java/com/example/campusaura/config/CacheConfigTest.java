@@ -0,0 +1,149 @@
+package com.example.campusaura.config;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    static class Catalog {
+        private final AtomicInteger loads = new AtomicInteger();
+
+        public int loads() {
+            return loads.get();
+        }
+
+        @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "'id:' + #id", sync = true)
+        public String product(String id) {
+            loads.incrementAndGet();
+            if (id.isEmpty()) {
+                throw new RuntimeException("Product not found with id: " + id);
+            }
+            return "product-" + id;
+        }
+
+        @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "'all'", sync = true)
+        public CompletableFuture<String> allProducts() {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("all");
+        }
+
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)
+        public void updateProduct() {
+        }
+    }
+
+    @Configuration
+    @EnableCaching
+    static class LocalOnly {
+        @Bean
+        CacheManager cacheManager() {
+            return CacheConfig.createCacheManager(name -> "maximumSize=100", null);
+        }
+
+        @Bean
+        Catalog catalog() {
+            return new Catalog();
+        }
+    }
+
+    static final ConcurrentMapCache SHARED = new ConcurrentMapCache(CacheConfig.PRODUCTS);
+
+    @Configuration
+    @EnableCaching
+    static class WithSharedTier {
+        @Bean
+        CacheManager cacheManager() {
+            return CacheConfig.createCacheManager(name -> "maximumSize=100", name -> SHARED);
+        }
+
+        @Bean
+        Catalog catalog() {
+            return new Catalog();
+        }
+    }
+
+    @Test
+    void cachesBlockingAndAsyncReadsUntilEvicted() {
+        try (var context = new AnnotationConfigApplicationContext(LocalOnly.class)) {
+            Catalog catalog = context.getBean(Catalog.class);
+
+            assertEquals("product-1", catalog.product("1"));
+            assertEquals("product-1", catalog.product("1"));
+            assertEquals("all", catalog.allProducts().join());
+            assertEquals("all", catalog.allProducts().join());
+            assertEquals(2, catalog.loads());
+
+            // Not-found is not cached and surfaces unwrapped
+            assertEquals("Product not found with id: ",
+                    assertThrows(RuntimeException.class, () -> catalog.product("")).getMessage());
+            assertThrows(RuntimeException.class, () -> catalog.product(""));
+            assertEquals(4, catalog.loads());
+
+            catalog.updateProduct();
+            catalog.product("1");
+            catalog.allProducts().join();
+            assertEquals(6, catalog.loads());
+        }
+    }
+
+    @Test
+    void exportsHitsMissesAndLoadTimes() {
+        try (var context = new AnnotationConfigApplicationContext(LocalOnly.class)) {
+            Catalog catalog = context.getBean(Catalog.class);
+            CacheManager cacheManager = context.getBean(CacheManager.class);
+            CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CacheConfig.PRODUCTS);
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            CaffeineCacheMetrics.monitor(registry, cache.getNativeCache(), CacheConfig.PRODUCTS);
+            new CacheConfig().cacheStatistics(cacheManager).bindTo(registry);
+
+            catalog.product("1");
+            catalog.product("1");
+            catalog.product("1");
+
+            assertEquals(2, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+            assertEquals(1, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+            assertEquals(2.0 / 3, registry.get("cache.hit.ratio").tag("cache", CacheConfig.PRODUCTS).gauge().value(), 1e-9);
+            FunctionTimer loads = registry.get("cache.load.latency").tag("cache", CacheConfig.PRODUCTS).functionTimer();
+            assertEquals(1, loads.count());
+            assertTrue(loads.totalTime(TimeUnit.NANOSECONDS) > 0);
+        }
+    }
+
+    @Test
+    void sharedTierIsReadThroughAndInvalidatedWithTheLocalTier() {
+        SHARED.clear();
+        SHARED.put("id:7", "product-7 (from another replica)");
+        try (var context = new AnnotationConfigApplicationContext(WithSharedTier.class)) {
+            Catalog catalog = context.getBean(Catalog.class);
+
+            assertEquals("product-7 (from another replica)", catalog.product("7"));
+            assertEquals("product-1", catalog.product("1"));
+            assertEquals("all", catalog.allProducts().join());
+            assertEquals(2, catalog.loads());
+            assertEquals("product-1", SHARED.get("id:1").get());
+            assertEquals("all", SHARED.get("all").get());
+
+            catalog.updateProduct();
+            assertNull(SHARED.get("id:1"));
+            catalog.product("1");
+            assertEquals(3, catalog.loads());
+        }
+    }
+}
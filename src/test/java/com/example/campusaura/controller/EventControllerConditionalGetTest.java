@@ -0,0 +1,145 @@
+package com.example.campusaura.controller;
+
+import com.example.campusaura.dto.LandingPageEventDTO;
+import com.example.campusaura.service.EventService;
+import com.example.campusaura.service.PublicEventResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class EventControllerConditionalGetTest {
+
+    @Mock
+    private EventService eventService;
+
+    @Spy
+    private PublicEventResponseCache responseCache =
+            new PublicEventResponseCache(new ObjectMapper(), new SimpleMeterRegistry(), 256);
+
+    @InjectMocks
+    private EventController controller;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void currentETagIsAnsweredWithoutReadingEvents() throws Exception {
+        when(eventService.publicCatalogValidators()).thenReturn(new EventService.Validators("k3x-42", 1_700_000_000_000L));
+        LandingPageEventDTO event = new LandingPageEventDTO();
+        event.setEventId("e1");
+        when(eventService.getPublicEvents(any(), any())).thenReturn(List.of(event));
+
+        mvc.perform(get("/api/events/public"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"k3x-42\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(jsonPath("$[0].eventId").value("e1"));
+
+        mvc.perform(get("/api/events/public").header("If-None-Match", "\"k3x-42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(eventService, times(1)).getPublicEvents(any(), any());
+
+        // A stale copy gets the body again, served from the response cache
+        mvc.perform(get("/api/events/public").header("If-None-Match", "\"k3x-41\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].eventId").value("e1"));
+        verify(eventService, times(1)).getPublicEvents(any(), any());
+    }
+
+    @Test
+    void gzipClientsGetThePreEncodedBodyUntilTheCatalogChanges() throws Exception {
+        when(eventService.publicCatalogValidators()).thenReturn(new EventService.Validators("k3x-42", 1_700_000_000_000L));
+        LandingPageEventDTO event = new LandingPageEventDTO();
+        event.setEventId("e1");
+        when(eventService.getLatestEvents(3)).thenReturn(List.of(event));
+
+        byte[] gzip = mvc.perform(get("/api/events/latest").header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                .andExpect(header().string("ETag", "\"k3x-42-gzip\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        String json = new String(new GZIPInputStream(new ByteArrayInputStream(gzip)).readAllBytes(), StandardCharsets.UTF_8);
+        mvc.perform(get("/api/events/latest").header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().json(json, true));
+        verify(eventService, times(1)).getLatestEvents(3);
+
+        // The plain ETag does not validate the gzip representation
+        mvc.perform(get("/api/events/latest").header("Accept-Encoding", "gzip").header("If-None-Match", "\"k3x-42\""))
+                .andExpect(status().isOk());
+
+        when(eventService.publicCatalogValidators()).thenReturn(new EventService.Validators("k3x-43", 1_700_000_001_000L));
+        mvc.perform(get("/api/events/latest"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"k3x-43\""));
+        verify(eventService, times(2)).getLatestEvents(3);
+    }
+
+    @Test
+    void acceptEncodingParsing() {
+        assertTrue(EventController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(EventController.acceptsGzip("*"));
+        assertFalse(EventController.acceptsGzip("gzip;q=0, br"));
+        assertFalse(EventController.acceptsGzip("identity"));
+        assertFalse(EventController.acceptsGzip(null));
+    }
+
+    @Test
+    void noValidatorsWhileTheCatalogIsNotLive() throws Exception {
+        when(eventService.publicCatalogValidators()).thenReturn(null);
+        when(eventService.getLatestEvents(3)).thenReturn(List.of());
+
+        mvc.perform(get("/api/events/latest").header("If-None-Match", "*"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @Test
+    void randomLandingPageSampleIsNeverRevalidated() throws Exception {
+        when(eventService.publicCatalogValidators()).thenReturn(new EventService.Validators("k3x-42", 1_700_000_000_000L));
+        when(eventService.getRandomOngoingEvents(5)).thenReturn(List.of());
+
+        mvc.perform(get("/api/events/landing-page").param("limit", "5").header("If-None-Match", "\"k3x-42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().doesNotExist("Last-Modified"));
+    }
+
+    @Test
+    void eventDetailIsAnsweredFromItsValidators() throws Exception {
+        when(eventService.publicEventValidators("e1")).thenReturn(new EventService.Validators("k3x-7-1f", 1_700_000_000_000L));
+
+        mvc.perform(get("/api/events/public/e1").header("If-None-Match", "\"k3x-7-1f\""))
+                .andExpect(status().isNotModified());
+        verify(eventService, never()).getEventDetailByIdAsync(any());
+    }
+}
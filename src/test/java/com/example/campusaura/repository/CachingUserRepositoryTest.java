@@ -0,0 +1,88 @@
+package com.example.campusaura.repository;
+
+import com.example.campusaura.model.User;
+import com.example.campusaura.security.Roles;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingUserRepositoryTest {
+
+    private FirestoreUserRepository delegate;
+    private CachingUserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(FirestoreUserRepository.class);
+        repository = new CachingUserRepository(delegate, 60_000, 100);
+        when(delegate.findByUid("u1")).thenAnswer(invocation -> Optional.of(user("u1", Roles.STUDENT)));
+        when(delegate.findByUid("missing")).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readsUserDocumentOncePerRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertEquals(Roles.STUDENT, repository.findByUid("u1").orElseThrow().getRole());
+        assertTrue(repository.existsByUid("u1"));
+        assertEquals("u1", repository.findByUid("u1").orElseThrow().getUid());
+
+        verify(delegate, times(1)).findByUid("u1");
+        assertNotNull(request.getAttribute(CachingUserRepository.class.getName() + ".u1"));
+    }
+
+    @Test
+    void servesLaterRequestsFromCacheUntilSaved() {
+        repository.findByUid("u1");
+        repository.findByUid("u1");
+        verify(delegate, times(1)).findByUid("u1");
+
+        User admin = repository.findByUid("u1").orElseThrow();
+        admin.setRole(Roles.ADMIN);
+        assertEquals(Roles.STUDENT, repository.findByUid("u1").orElseThrow().getRole());
+
+        repository.save(admin);
+        repository.findByUid("u1");
+        verify(delegate).save(admin);
+        verify(delegate, times(2)).findByUid("u1");
+    }
+
+    @Test
+    void readOverlappingASaveDoesNotCacheTheOldDocument() {
+        User demoted = user("u1", Roles.STUDENT);
+        // The old document is read while the demotion is being written
+        when(delegate.findByUid("u1")).thenAnswer(invocation -> {
+            repository.save(demoted);
+            return Optional.of(user("u1", Roles.ADMIN));
+        }).thenAnswer(invocation -> Optional.of(demoted));
+
+        assertEquals(Roles.ADMIN, repository.findByUid("u1").orElseThrow().getRole());
+        assertEquals(Roles.STUDENT, repository.findByUid("u1").orElseThrow().getRole());
+        verify(delegate, times(2)).findByUid("u1");
+    }
+
+    @Test
+    void doesNotCacheMissingUsers() {
+        assertTrue(repository.findByUid("missing").isEmpty());
+        assertTrue(repository.findByUid("missing").isEmpty());
+        verify(delegate, times(2)).findByUid("missing");
+    }
+
+    private static User user(String uid, String role) {
+        return User.builder().uid(uid).email(uid + "@std.uwu.ac.lk").role(role).build();
+    }
+}
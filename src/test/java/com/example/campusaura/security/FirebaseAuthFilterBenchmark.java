@@ -0,0 +1,138 @@
+package com.example.campusaura.security;
+
+import com.example.campusaura.model.User;
+import com.example.campusaura.service.UserService;
+import com.google.firebase.auth.FirebaseToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of FirebaseAuthFilter with and without the verified-token cache.
+ *
+ * Token verification is simulated with a real SHA256withRSA signature check
+ * (what verifyIdToken does per request once Google's public keys are cached);
+ * a fixed pool of users replays their tokens, as browsers do between refreshes.
+ *
+ * Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *       org.openjdk.jmh.Main FirebaseAuthFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FirebaseAuthFilterBenchmark {
+
+    private static final int USERS = 100;
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private FirebaseAuthFilter filter;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPair keys = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        Signature signer = Signature.getInstance("SHA256withRSA");
+        signer.initSign(keys.getPrivate());
+
+        Map<String, byte[]> signatures = new java.util.HashMap<>();
+        tokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            tokens[i] = "header.payload-user-" + i;
+            signer.update(tokens[i].getBytes(StandardCharsets.UTF_8));
+            signatures.put(tokens[i], signer.sign());
+        }
+
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        FirebaseAuthFilter.IdTokenVerifier verifier = idToken -> {
+            try {
+                Signature verification = Signature.getInstance("SHA256withRSA");
+                verification.initVerify(keys.getPublic());
+                verification.update(idToken.getBytes(StandardCharsets.UTF_8));
+                if (!verification.verify(signatures.get(idToken))) {
+                    throw new IllegalStateException("Bad signature");
+                }
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+            String uid = idToken.substring(idToken.lastIndexOf('-') + 1);
+            return firebaseToken(Map.of("sub", uid, "email", uid + "@example.com", "exp", exp));
+        };
+
+        User user = User.builder().uid("benchmark").role(Roles.STUDENT).build();
+        UserService userService = new StubUserService(user);
+        VerifiedTokenCache cache = new VerifiedTokenCache(new SimpleMeterRegistry(), cacheEnabled, 10_000);
+        filter = new FirebaseAuthFilter(userService, cache, verifier);
+    }
+
+    @Benchmark
+    public int authenticate() throws Exception {
+        String token = tokens[next++ % USERS];
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        return response.getStatus();
+    }
+
+    // FirebaseToken has no public constructor
+    private static FirebaseToken firebaseToken(Map<String, Object> claims) {
+        try {
+            Constructor<FirebaseToken> constructor = FirebaseToken.class.getDeclaredConstructor(Map.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(claims);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record StubUserService(User user) implements UserService {
+        @Override
+        public User getOrCreateUser(String uid, String email, String name) {
+            return user;
+        }
+
+        @Override
+        public User getUserByUid(String uid) {
+            return user;
+        }
+
+        @Override
+        public void updateUserRole(String uid, String newRole) {
+        }
+
+        @Override
+        public boolean canHaveRole(String email, String role) {
+            return true;
+        }
+
+        @Override
+        public User updateStudentProfile(String uid, String degreeProgram, String studentIdUrl) {
+            return user;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FirebaseAuthFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.campusaura.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of getting the caller's UID in a controller: re-verifying
+ * the bearer token (what extractUserIdFromToken used to do) versus resolving
+ * the FirebasePrincipal that FirebaseAuthFilter already stored on the request.
+ *
+ * Token verification is simulated with a SHA256withRSA signature check, the
+ * dominant cost of verifyIdToken once Google's public keys are cached.
+ *
+ * Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *       org.openjdk.jmh.Main PrincipalResolutionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrincipalResolutionBenchmark {
+
+    private static final String TOKEN = "header.payload-user-42";
+
+    private PublicKey publicKey;
+    private byte[] signature;
+    private ServletWebRequest webRequest;
+    private FirebasePrincipalArgumentResolver resolver;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        KeyPair keys = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        Signature signer = Signature.getInstance("SHA256withRSA");
+        signer.initSign(keys.getPrivate());
+        signer.update(TOKEN.getBytes(StandardCharsets.UTF_8));
+        signature = signer.sign();
+        publicKey = keys.getPublic();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/payments/confirm-ticket");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        request.setAttribute(FirebasePrincipal.REQUEST_ATTRIBUTE,
+                new FirebasePrincipal("42", "user42@example.com", "User 42", Roles.STUDENT, Map.of()));
+        webRequest = new ServletWebRequest(request);
+        resolver = new FirebasePrincipalArgumentResolver();
+    }
+
+    @Benchmark
+    public String reverifyToken() throws GeneralSecurityException {
+        String authHeader = webRequest.getHeader("Authorization");
+        String token = authHeader.substring(7);
+        Signature verification = Signature.getInstance("SHA256withRSA");
+        verification.initVerify(publicKey);
+        verification.update(token.getBytes(StandardCharsets.UTF_8));
+        if (!verification.verify(signature)) {
+            throw new IllegalStateException("Bad signature");
+        }
+        return token.substring(token.lastIndexOf('-') + 1);
+    }
+
+    @Benchmark
+    public String resolvePrincipal() {
+        return resolver.resolveArgument(null, null, webRequest, null).getUid();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PrincipalResolutionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
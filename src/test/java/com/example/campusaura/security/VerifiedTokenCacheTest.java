@@ -0,0 +1,72 @@
+package com.example.campusaura.security;
+
+import com.google.firebase.auth.FirebaseToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(meterRegistry, true, 2);
+    }
+
+    @Test
+    void returnsVerifiedTokenUntilExpiry() {
+        FirebaseToken token = token("u1", inSeconds(3600));
+        assertNull(cache.get("t1"));
+
+        cache.put("t1", token);
+        assertSame(token, cache.get("t1"));
+        assertNull(cache.get("t2"));
+
+        assertEquals(1.0, meterRegistry.get("campusaura.auth.token_cache").tag("result", "hit").counter().count());
+        assertEquals(2.0, meterRegistry.get("campusaura.auth.token_cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void neverServesExpiredTokens() {
+        cache.put("expired", token("u1", inSeconds(-1)));
+        assertNull(cache.get("expired"));
+
+        cache.put("no-exp", token("u2", null));
+        assertNull(cache.get("no-exp"));
+    }
+
+    @Test
+    void staysWithinMaxSize() {
+        cache.put("t1", token("u1", inSeconds(3600)));
+        cache.put("t2", token("u2", inSeconds(3600)));
+        cache.put("t3", token("u3", inSeconds(3600)));
+
+        assertNotNull(cache.get("t1"));
+        assertNotNull(cache.get("t2"));
+        assertNull(cache.get("t3"));
+        assertEquals(2.0, meterRegistry.get("campusaura.auth.token_cache.size").gauge().value());
+    }
+
+    private static Long inSeconds(long seconds) {
+        return System.currentTimeMillis() / 1000 + seconds;
+    }
+
+    private static FirebaseToken token(String uid, Long exp) {
+        Map<String, Object> claims = exp != null ? Map.of("sub", uid, "exp", exp) : Map.of("sub", uid);
+        try {
+            Constructor<FirebaseToken> constructor = FirebaseToken.class.getDeclaredConstructor(Map.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(claims);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.campusaura.service;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Count tests against an in-memory document counter (no Firebase required)
+ */
+class CountServiceTest {
+
+    private InMemoryDocumentCounter counter;
+    private CountService countService;
+
+    @BeforeEach
+    void setUp() {
+        counter = new InMemoryDocumentCounter();
+        counter.add("events", Map.of("status", "PENDING", "coordinatorId", "c1"));
+        counter.add("events", Map.of("status", "PUBLISHED", "coordinatorId", "c1"));
+        counter.add("events", Map.of("status", "PENDING", "coordinatorId", "c2"));
+        counter.add("products", Map.of("status", "SOLD"));
+        countService = new CountService(counter, 60_000);
+    }
+
+    @Test
+    void countsMatchingDocuments() throws Exception {
+        assertEquals(3, countService.count(CountQuery.of("events")));
+        assertEquals(2, countService.count(CountQuery.of("events").where("status", "PENDING")));
+        assertEquals(1, countService.count(CountQuery.of("events").where("status", "PENDING").where("coordinatorId", "c2")));
+        assertEquals(0, countService.count(CountQuery.of("users")));
+    }
+
+    @Test
+    void cachesCountsUntilInvalidated() throws Exception {
+        CountQuery pending = CountQuery.of("events").where("status", "PENDING");
+        assertEquals(2, countService.count(pending));
+
+        counter.add("events", Map.of("status", "PENDING", "coordinatorId", "c3"));
+        assertEquals(2, countService.count(CountQuery.of("events").where("status", "PENDING")));
+        assertEquals(1, counter.calls);
+
+        countService.invalidate("products");
+        assertEquals(2, countService.count(pending));
+
+        countService.invalidate("events");
+        assertEquals(3, countService.count(pending));
+        assertEquals(2, counter.calls);
+    }
+
+    @Test
+    void expiredCountsAreRecomputed() throws Exception {
+        CountService shortLived = new CountService(counter, 0);
+        assertEquals(1, shortLived.count(CountQuery.of("products")));
+        counter.add("products", Map.of("status", "PENDING"));
+        assertEquals(2, shortLived.count(CountQuery.of("products")));
+        assertEquals(2, counter.calls);
+    }
+
+    /**
+     * Local stand-in for the Firestore count() aggregation: evaluates the
+     * equality filters over in-memory documents
+     */
+    static class InMemoryDocumentCounter implements DocumentCounter {
+
+        private final Map<String, List<Map<String, Object>>> collections = new HashMap<>();
+        int calls;
+
+        void add(String collection, Map<String, Object> document) {
+            collections.computeIfAbsent(collection, c -> new ArrayList<>()).add(document);
+        }
+
+        @Override
+        public ApiFuture<Long> countAsync(CountQuery query) {
+            calls++;
+            return ApiFutures.immediateFuture(collections.getOrDefault(query.collection(), List.of()).stream()
+                    .filter(doc -> query.filters().entrySet().stream()
+                            .allMatch(filter -> Objects.equals(doc.get(filter.getKey()), filter.getValue())))
+                    .count());
+        }
+    }
+}
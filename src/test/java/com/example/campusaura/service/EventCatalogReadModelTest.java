@@ -0,0 +1,255 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.dto.LandingPageEventDTO;
+import com.example.campusaura.model.Event;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Read model tests against an in-memory change feed (no Firebase required)
+ */
+class EventCatalogReadModelTest {
+
+    private InMemoryEventChangeFeed feed;
+    private EventCatalogIndex index;
+    private SimpleMeterRegistry meterRegistry;
+    private EventCatalogReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        feed = new InMemoryEventChangeFeed();
+        index = new EventCatalogIndex();
+        meterRegistry = new SimpleMeterRegistry();
+        readModel = new EventCatalogReadModel(feed, index, meterRegistry, true, 10, 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        readModel.stop();
+    }
+
+    @Test
+    void initialSnapshotOpensReadinessGate() throws InterruptedException {
+        feed.put("e1", event("Hackathon", "PUBLISHED", "Technology", "2026-01-01T00:00:00Z"));
+        feed.put("e2", event("Career Fair", "PENDING", "Career", "2026-01-02T00:00:00Z"));
+
+        assertFalse(readModel.isReady());
+        readModel.start(EventCatalogReadModelTest::decode, EventCatalogReadModelTest::toDto);
+
+        assertTrue(readModel.awaitReady(Duration.ofSeconds(1)));
+        assertEquals(List.of("e1"), ids(index.publicEvents("All", EventCatalogIndex.SortOrder.LATEST)));
+        assertEquals(Duration.ZERO, readModel.staleness());
+    }
+
+    @Test
+    void appliesDeltasWithoutFullReload() {
+        feed.put("e1", event("Hackathon", "PUBLISHED", "Technology", "2026-01-01T00:00:00Z"));
+        readModel.start(EventCatalogReadModelTest::decode, EventCatalogReadModelTest::toDto);
+
+        feed.put("e2", event("Cricket Finals", "ONGOING", "Sports", "2026-01-03T00:00:00Z"));
+        assertEquals(List.of("e2", "e1"), ids(index.publicEvents("All", EventCatalogIndex.SortOrder.LATEST)));
+        assertEquals(List.of("e2"), ids(index.publicEvents("sports", EventCatalogIndex.SortOrder.LATEST)));
+
+        feed.put("e2", event("Cricket Finals", "CANCELLED", "Sports", "2026-01-03T00:00:00Z"));
+        assertEquals(List.of("e1"), ids(index.publicEvents("All", EventCatalogIndex.SortOrder.LATEST)));
+
+        feed.remove("e1");
+        assertTrue(index.publicEvents("All", EventCatalogIndex.SortOrder.LATEST).isEmpty());
+        assertEquals(1, feed.fullSnapshots);
+    }
+
+    @Test
+    void resubscribesWithBackoffAfterListenerError() throws InterruptedException {
+        feed.put("e1", event("Hackathon", "PUBLISHED", "Technology", "2026-01-01T00:00:00Z"));
+        readModel.start(EventCatalogReadModelTest::decode, EventCatalogReadModelTest::toDto);
+
+        feed.fail(new IllegalStateException("stream reset"));
+        assertTrue(readModel.staleness().compareTo(Duration.ZERO) >= 0);
+
+        // While disconnected the document is removed; the next full snapshot must reconcile it
+        feed.removeSilently("e1");
+        feed.putSilently("e3", event("Art Expo", "PUBLISHED", "Culture", "2026-01-05T00:00:00Z"));
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (feed.fullSnapshots < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(2, feed.fullSnapshots);
+        assertEquals(List.of("e3"), ids(index.publicEvents("All", EventCatalogIndex.SortOrder.LATEST)));
+        assertEquals(Duration.ZERO, readModel.staleness());
+        assertEquals(1.0, meterRegistry.get("campusaura.events.read_model.resubscribes").counter().count());
+    }
+
+    @Test
+    void versionTagsChangeWithTheCatalogAndOnlyTheChangedEventsStamp() {
+        feed.put("e1", event("Hackathon", "PUBLISHED", "Technology", "2026-01-01T00:00:00Z"));
+        feed.put("e2", event("Art Expo", "PUBLISHED", "Culture", "2026-01-02T00:00:00Z"));
+        assertFalse(readModel.isLive());
+        readModel.start(EventCatalogReadModelTest::decode, EventCatalogReadModelTest::toDto);
+        assertTrue(readModel.isLive());
+
+        String catalogTag = index.versionTag();
+        String e1 = index.stamp("e1").tag();
+        String e2 = index.stamp("e2").tag();
+
+        feed.put("e2", event("Art Expo", "ONGOING", "Culture", "2026-01-02T00:00:00Z"));
+        assertNotEquals(catalogTag, index.versionTag());
+        assertEquals(e1, index.stamp("e1").tag());
+        assertNotEquals(e2, index.stamp("e2").tag());
+        assertNull(index.stamp("missing"));
+
+        // Another process starts from the same counter but never issues the same tags
+        assertNotEquals(new EventCatalogIndex().versionTag(), new EventCatalogIndex().versionTag());
+
+        feed.fail(new IllegalStateException("stream reset"));
+        assertFalse(readModel.isLive());
+    }
+
+    @Test
+    void carouselSamplesDistinctPublishedAndOngoingEvents() {
+        feed.put("e1", event("Hackathon", "PUBLISHED", "Technology", "2026-01-01T00:00:00Z"));
+        feed.put("e2", event("Art Expo", "ONGOING", "Culture", "2026-01-02T00:00:00Z"));
+        feed.put("e3", event("Career Fair", "DRAFT", "Career", "2026-01-03T00:00:00Z"));
+        readModel.start(EventCatalogReadModelTest::decode, EventCatalogReadModelTest::toDto);
+        feed.put("e4", event("Cricket Finals", "ONGOING", "Sports", "2026-01-04T00:00:00Z"));
+
+        assertEquals(Set.of("e1", "e2", "e4"), new HashSet<>(ids(index.randomCarouselEvents(10))));
+        for (int i = 0; i < 50; i++) {
+            List<String> sample = ids(index.randomCarouselEvents(2));
+            assertEquals(2, new HashSet<>(sample).size());
+            assertTrue(Set.of("e1", "e2", "e4").containsAll(sample));
+        }
+
+        // Status transitions move events in and out of the pool
+        feed.put("e1", event("Hackathon", "COMPLETED", "Technology", "2026-01-01T00:00:00Z"));
+        feed.put("e3", event("Career Fair", "PUBLISHED", "Career", "2026-01-03T00:00:00Z"));
+        feed.remove("e4");
+        assertEquals(Set.of("e2", "e3"), new HashSet<>(ids(index.randomCarouselEvents(10))));
+        assertTrue(index.randomCarouselEvents(0).isEmpty());
+    }
+
+    @Test
+    void eventWithoutStatusIsListedButNotInTheCarousel() throws InterruptedException {
+        Map<String, Object> statusLess = new HashMap<>(event("Open Day", "PUBLISHED", "Culture", "2026-01-01T00:00:00Z"));
+        statusLess.remove("status");
+        feed.put("e1", statusLess);
+        feed.put("e2", event("Hackathon", "PUBLISHED", "Technology", "2026-01-02T00:00:00Z"));
+        readModel.start(EventCatalogReadModelTest::decode, EventCatalogReadModelTest::toDto);
+
+        assertTrue(readModel.awaitReady(Duration.ofSeconds(1)));
+        assertEquals(List.of("e2", "e1"), ids(index.publicEvents("All", EventCatalogIndex.SortOrder.LATEST)));
+        assertEquals(List.of("e2"), ids(index.randomCarouselEvents(10)));
+
+        // Deltas and full reloads take the same path
+        feed.put("e3", statusLess);
+        index.replaceAll(List.of(decode("e1", statusLess), decode("e2", event("Hackathon", "PUBLISHED",
+                "Technology", "2026-01-02T00:00:00Z"))), EventCatalogReadModelTest::toDto);
+        assertEquals(List.of("e2"), ids(index.randomCarouselEvents(10)));
+    }
+
+    @Test
+    void disabledReadModelNeverBecomesReady() throws InterruptedException {
+        EventCatalogReadModel disabled = new EventCatalogReadModel(feed, index, new SimpleMeterRegistry(), false, 10, 50);
+        disabled.start(EventCatalogReadModelTest::decode, EventCatalogReadModelTest::toDto);
+
+        assertFalse(disabled.awaitReady(Duration.ofMillis(10)));
+        assertEquals(0, feed.fullSnapshots);
+        disabled.stop();
+    }
+
+    // ==================== HELPERS ====================
+
+    private static Map<String, Object> event(String title, String status, String category, String createdAt) {
+        return Map.of("title", title, "status", status, "category", category, "createdAt", createdAt);
+    }
+
+    private static Event decode(String eventId, Map<String, Object> data) {
+        Event event = new Event();
+        event.setEventId(eventId);
+        event.setTitle((String) data.get("title"));
+        event.setStatus((String) data.get("status"));
+        event.setCategory((String) data.get("category"));
+        event.setCreatedAt((String) data.get("createdAt"));
+        event.setAttendeeCount(0);
+        return event;
+    }
+
+    private static LandingPageEventDTO toDto(Event event) {
+        LandingPageEventDTO dto = new LandingPageEventDTO();
+        dto.setEventId(event.getEventId());
+        dto.setTitle(event.getTitle());
+        dto.setCategory(event.getCategory());
+        return dto;
+    }
+
+    private static List<String> ids(List<LandingPageEventDTO> events) {
+        return events.stream().map(LandingPageEventDTO::getEventId).toList();
+    }
+
+    /**
+     * Local stand-in for the Firestore snapshot listener. Delivers changes
+     * synchronously on the calling thread.
+     */
+    static class InMemoryEventChangeFeed implements EventChangeFeed {
+
+        private final Map<String, Map<String, Object>> documents = new java.util.LinkedHashMap<>();
+        private final List<Listener> listeners = new ArrayList<>();
+        volatile int fullSnapshots;
+
+        @Override
+        public synchronized Subscription subscribe(Listener listener) {
+            listeners.add(listener);
+            List<EventChange> snapshot = new ArrayList<>();
+            documents.forEach((id, data) -> snapshot.add(new EventChange(ChangeType.ADDED, id, data)));
+            listener.onChanges(snapshot, true);
+            fullSnapshots++;
+            return () -> {
+                synchronized (this) {
+                    listeners.remove(listener);
+                }
+            };
+        }
+
+        synchronized void put(String id, Map<String, Object> data) {
+            ChangeType type = documents.containsKey(id) ? ChangeType.MODIFIED : ChangeType.ADDED;
+            documents.put(id, data);
+            for (Listener listener : List.copyOf(listeners)) {
+                listener.onChanges(List.of(new EventChange(type, id, data)), false);
+            }
+        }
+
+        synchronized void remove(String id) {
+            documents.remove(id);
+            for (Listener listener : List.copyOf(listeners)) {
+                listener.onChanges(List.of(new EventChange(ChangeType.REMOVED, id, null)), false);
+            }
+        }
+
+        synchronized void putSilently(String id, Map<String, Object> data) {
+            documents.put(id, data);
+        }
+
+        synchronized void removeSilently(String id) {
+            documents.remove(id);
+        }
+
+        synchronized void fail(Throwable error) {
+            for (Listener listener : List.copyOf(listeners)) {
+                listener.onError(error);
+            }
+        }
+    }
+}
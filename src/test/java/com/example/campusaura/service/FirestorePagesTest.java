@@ -0,0 +1,52 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.dto.PageResponse;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FirestorePagesTest {
+
+    @Test
+    void legacyStringTimestampsPageWithoutLosingTheirType() throws Exception {
+        Query query = mock(Query.class);
+        when(query.orderBy(anyString(), any(Query.Direction.class))).thenReturn(query);
+        when(query.orderBy(any(FieldPath.class), any(Query.Direction.class))).thenReturn(query);
+        when(query.limit(anyInt())).thenReturn(query);
+        when(query.startAfter(any(Object[].class))).thenReturn(query);
+
+        // Strings sort after Timestamps, so a descending page can end on an un-migrated sale
+        QueryDocumentSnapshot legacy = doc("s2", "2026-01-02T00:00:00Z");
+        QueryDocumentSnapshot migrated = doc("s1", Timestamp.parseTimestamp("2026-01-01T00:00:00Z"));
+        QuerySnapshot snapshot = mock(QuerySnapshot.class);
+        when(snapshot.getDocuments()).thenReturn(List.of(legacy, migrated), List.of(migrated));
+        when(query.get()).thenReturn(ApiFutures.immediateFuture(snapshot));
+
+        PageResponse<String> first = FirestorePages.byTimestampDescending(query, "purchasedAt", 1, null,
+                QueryDocumentSnapshot::getId);
+        assertEquals(List.of("s2"), first.getItems());
+
+        PageResponse<String> second = FirestorePages.byTimestampDescending(query, "purchasedAt", 1,
+                first.getNextCursor(), QueryDocumentSnapshot::getId);
+        verify(query).startAfter("2026-01-02T00:00:00Z", "s2");
+        assertEquals(List.of("s1"), second.getItems());
+        assertNull(second.getNextCursor());
+    }
+
+    private static QueryDocumentSnapshot doc(String id, Object purchasedAt) {
+        QueryDocumentSnapshot doc = mock(QueryDocumentSnapshot.class);
+        when(doc.getId()).thenReturn(id);
+        when(doc.get("purchasedAt")).thenReturn(purchasedAt);
+        return doc;
+    }
+}
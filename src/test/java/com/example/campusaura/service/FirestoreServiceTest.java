@@ -0,0 +1,77 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.config.CacheConfig;
+import com.example.campusaura.repository.CachingUserRepository;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FirestoreServiceTest {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+            CacheConfig.EVENTS, CacheConfig.PRODUCTS, CacheConfig.COORDINATORS, CacheConfig.USERS, CacheConfig.FEEDBACK);
+    private final CachingUserRepository userRepository = mock(CachingUserRepository.class);
+    private final CountService countService = mock(CountService.class);
+    private FirestoreService service;
+
+    @BeforeEach
+    void setUp() {
+        Firestore firestore = mock(Firestore.class);
+        CollectionReference collection = mock(CollectionReference.class);
+        DocumentReference document = mock(DocumentReference.class);
+        WriteResult result = mock(WriteResult.class);
+        when(firestore.collection(anyString())).thenReturn(collection);
+        when(collection.document(anyString())).thenReturn(document);
+        when(result.getUpdateTime()).thenReturn(Timestamp.now());
+        when(document.set(anyMap())).thenReturn(ApiFutures.immediateFuture(result));
+        when(document.delete()).thenReturn(ApiFutures.immediateFuture(result));
+
+        service = new FirestoreService();
+        ReflectionTestUtils.setField(service, "firestore", firestore);
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(service, "countService", countService);
+
+        for (String name : cacheManager.getCacheNames()) {
+            cacheManager.getCache(name).put("k", "v");
+        }
+    }
+
+    @Test
+    void genericWritesEvictTheCachesOfTheirCollection() throws Exception {
+        service.saveDocument("products", "p1", Map.of("name", "Mug"));
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTS).get("k"));
+        assertNotNull(cacheManager.getCache(CacheConfig.EVENTS).get("k"));
+        verify(countService).invalidate("products");
+
+        service.deleteDocument("event_feedback", "f1");
+        assertNull(cacheManager.getCache(CacheConfig.FEEDBACK).get("k"));
+
+        service.saveDocument("events", "e1", Map.of("name", "Gala"));
+        assertNull(cacheManager.getCache(CacheConfig.EVENTS).get("k"));
+        assertNull(cacheManager.getCache(CacheConfig.COORDINATORS).get("k"));
+        assertNotNull(cacheManager.getCache(CacheConfig.USERS).get("k"));
+        verify(userRepository, never()).invalidate(anyString());
+    }
+
+    @Test
+    void userWritesStillInvalidateTheUserRepository() throws Exception {
+        service.deleteDocument("users", "u1");
+        verify(userRepository).invalidate("u1");
+        assertNull(cacheManager.getCache(CacheConfig.USERS).get("k"));
+        verify(countService).invalidate("users");
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.campusaura.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    @Test
+    void expiresNoEarlierThanDeadline() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 1_050); // more than one turn of the wheel away
+
+        assertEquals(List.of(), wheel.advanceTo(249));
+        assertEquals(List.of("a"), wheel.advanceTo(300));
+        assertEquals(List.of(), wheel.advanceTo(1_000));
+        assertEquals(List.of("b"), wheel.advanceTo(1_100));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledAndRescheduledKeysDoNotFireEarly() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+        wheel.schedule("a", 150);
+        wheel.schedule("b", 150);
+        assertTrue(wheel.cancel("a"));
+        wheel.schedule("b", 450);
+
+        assertEquals(List.of(), wheel.advanceTo(400));
+        assertEquals(List.of("b"), wheel.advanceTo(500));
+        assertFalse(wheel.cancel("a"));
+    }
+
+    @Test
+    void pastDeadlinesFireOnNextTick() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+        wheel.advanceTo(1_000);
+        wheel.schedule("late", 10);
+
+        assertEquals(1_100, wheel.nextTickAt());
+        assertEquals(List.of("late"), wheel.advanceTo(1_100));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.campusaura.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicEventResponseCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PublicEventResponseCache cache = new PublicEventResponseCache(new ObjectMapper(), registry, 2);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private PublicEventResponseCache.BodyLoader loader(Object body) {
+        return () -> {
+            loads.incrementAndGet();
+            return body;
+        };
+    }
+
+    @Test
+    void encodesOncePerKeyAndVersion() throws Exception {
+        PublicEventResponseCache.Key key = new PublicEventResponseCache.Key("public", "all", "DATE");
+
+        PublicEventResponseCache.Payload first = cache.get(key, "k3x-1", loader(List.of("a", "b")));
+        assertSame(first, cache.get(key, "k3x-1", loader(List.of("stale"))));
+        assertEquals("[\"a\",\"b\"]", new String(first.json()));
+        assertArrayEquals(first.json(), new GZIPInputStream(new ByteArrayInputStream(first.gzip())).readAllBytes());
+        assertEquals(1, loads.get());
+
+        // A new catalog version drops every body built from the old one
+        assertEquals("[\"c\"]", new String(cache.get(key, "k3x-2", loader(List.of("c"))).json()));
+        assertEquals(2, loads.get());
+        assertEquals(1, registry.get("campusaura.events.response_cache").tag("result", "hit").counter().count());
+        assertEquals(2, registry.get("campusaura.events.response_cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void keysPastTheBoundAreEncodedPerRequest() throws Exception {
+        for (int round = 0; round < 2; round++) {
+            for (String category : List.of("music", "sports", "tech")) {
+                cache.get(new PublicEventResponseCache.Key("public", category, "DATE"), "k3x-1", loader(category));
+            }
+        }
+        // music and sports were kept; tech is loaded on every request
+        assertEquals(4, loads.get());
+    }
+}
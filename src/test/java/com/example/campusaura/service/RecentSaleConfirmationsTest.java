@@ -0,0 +1,44 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.dto.TicketSaleDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentSaleConfirmationsTest {
+
+    @Test
+    void returnsConfirmedSaleForSameKindAndPayment() {
+        RecentSaleConfirmations confirmations = new RecentSaleConfirmations(new SimpleMeterRegistry(), 60_000, 10);
+        TicketSaleDTO sale = new TicketSaleDTO();
+        sale.setSaleId("pi_1");
+
+        confirmations.put(PendingSale.Kind.TICKET, "pi_1", sale);
+
+        assertSame(sale, confirmations.get(PendingSale.Kind.TICKET, "pi_1", TicketSaleDTO.class));
+        assertNull(confirmations.get(PendingSale.Kind.PRODUCT, "pi_1", TicketSaleDTO.class));
+        assertNull(confirmations.get(PendingSale.Kind.TICKET, "pi_2", TicketSaleDTO.class));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxSize() {
+        RecentSaleConfirmations confirmations = new RecentSaleConfirmations(new SimpleMeterRegistry(), 60_000, 2);
+        confirmations.put(PendingSale.Kind.TICKET, "pi_1", new TicketSaleDTO());
+        confirmations.put(PendingSale.Kind.TICKET, "pi_2", new TicketSaleDTO());
+        confirmations.get(PendingSale.Kind.TICKET, "pi_1", TicketSaleDTO.class);
+        confirmations.put(PendingSale.Kind.TICKET, "pi_3", new TicketSaleDTO());
+
+        assertNotNull(confirmations.get(PendingSale.Kind.TICKET, "pi_1", TicketSaleDTO.class));
+        assertNull(confirmations.get(PendingSale.Kind.TICKET, "pi_2", TicketSaleDTO.class));
+        assertNotNull(confirmations.get(PendingSale.Kind.TICKET, "pi_3", TicketSaleDTO.class));
+    }
+
+    @Test
+    void expiredEntriesAreMisses() {
+        RecentSaleConfirmations confirmations = new RecentSaleConfirmations(new SimpleMeterRegistry(), -1, 10);
+        confirmations.put(PendingSale.Kind.TICKET, "pi_1", new TicketSaleDTO());
+
+        assertNull(confirmations.get(PendingSale.Kind.TICKET, "pi_1", TicketSaleDTO.class));
+    }
+}
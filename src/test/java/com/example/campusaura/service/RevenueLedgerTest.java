@@ -0,0 +1,69 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevenueLedgerTest {
+
+    private static final String TOTALS = "revenue_ledger/totals";
+
+    @Test
+    void newCompletedTransactionUpdatesTotalsAndBuckets() {
+        RevenueLedger.Delta delta = new RevenueLedger.Delta();
+        delta.add(transaction(Transaction.TransactionStatus.COMPLETED, 1500), 1);
+
+        Map<String, Map<String, Double>> documents = delta.documents();
+        assertEquals(Map.of("TICKET.COMPLETED.amount", 1500.0, "TICKET.COMPLETED.count", 1.0), documents.get(TOTALS));
+        assertEquals(Map.of("TICKET.amount", 1500.0, "TICKET.count", 1.0),
+                documents.get("revenue_ledger_daily/2026-03-14"));
+        assertEquals(Map.of("TICKET.amount", 1500.0, "TICKET.count", 1.0),
+                documents.get("revenue_ledger_monthly/2026-03"));
+    }
+
+    @Test
+    void refundMovesTotalsAndRemovesRevenueFromCompletionBuckets() {
+        RevenueLedger.Delta delta = new RevenueLedger.Delta();
+        delta.add(transaction(Transaction.TransactionStatus.COMPLETED, 1500), -1);
+        delta.add(transaction(Transaction.TransactionStatus.REFUNDED, 1500), 1);
+
+        Map<String, Map<String, Double>> documents = delta.documents();
+        assertEquals(-1500.0, documents.get(TOTALS).get("TICKET.COMPLETED.amount"));
+        assertEquals(1500.0, documents.get(TOTALS).get("TICKET.REFUNDED.amount"));
+        assertEquals(-1500.0, documents.get("revenue_ledger_daily/2026-03-14").get("TICKET.amount"));
+    }
+
+    @Test
+    void unchangedTransactionWritesNothing() {
+        RevenueLedger.Delta delta = new RevenueLedger.Delta();
+        delta.add(transaction(Transaction.TransactionStatus.PENDING, 800), -1);
+        delta.add(transaction(Transaction.TransactionStatus.PENDING, 800), 1);
+
+        assertTrue(delta.documents().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void nestsDottedFieldsAndStoresCountsAsIntegers() {
+        Map<String, Object> nested = RevenueLedger.Delta.toNestedMap(
+                Map.of("TICKET.COMPLETED.amount", 1500.0, "TICKET.COMPLETED.count", 2.0), false);
+
+        Map<String, Object> completed = (Map<String, Object>) ((Map<String, Object>) nested.get("TICKET")).get("COMPLETED");
+        assertEquals(1500.0, completed.get("amount"));
+        assertEquals(2L, completed.get("count"));
+    }
+
+    private static Transaction transaction(Transaction.TransactionStatus status, double amount) {
+        Transaction transaction = new Transaction();
+        transaction.setType(Transaction.TransactionType.TICKET);
+        transaction.setStatus(status);
+        transaction.setAmount(amount);
+        transaction.setCreatedAt(LocalDateTime.of(2026, 3, 14, 9, 30));
+        transaction.setCompletedAt(LocalDateTime.of(2026, 3, 14, 9, 31));
+        return transaction;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.dto.TicketSaleDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class SalesExportServiceTest {
+
+    private SalesExportService exportService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        SalesService salesService = mock(SalesService.class);
+        doAnswer(invocation -> {
+            SalesService.PageConsumer<TicketSaleDTO> consumer = invocation.getArgument(1);
+            consumer.accept(List.of(sale("s1", "Spring Fest, Day 1")));
+            consumer.accept(List.of(sale("s2", "=HYPERLINK(\"x\")")));
+            return null;
+        }).when(salesService).forEachTicketSalePage(anyInt(), any(SalesService.PageConsumer.class));
+
+        exportService = new SalesExportService();
+        ReflectionTestUtils.setField(exportService, "salesService", salesService);
+        ReflectionTestUtils.setField(exportService, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    void writesOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportTicketSales(SalesExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("s1", new ObjectMapper().readTree(lines[0]).get("saleId").asText());
+        assertEquals("s2", new ObjectMapper().readTree(lines[1]).get("saleId").asText());
+    }
+
+    @Test
+    void writesHeaderAndEscapedCsvRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportTicketSales(SalesExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("saleId,purchasedAt,eventId,eventTitle,"));
+        assertTrue(lines[1].contains(",\"Spring Fest, Day 1\","));
+        assertTrue(lines[2].contains(",\"'=HYPERLINK(\"\"x\"\")\","));
+    }
+
+    @Test
+    void csvFieldKeepsNegativeNumbersAndEmptyValues() {
+        assertEquals("-12.5", SalesExportService.csvField("-12.5"));
+        assertEquals("'-cmd", SalesExportService.csvField("-cmd"));
+        assertEquals("", SalesExportService.csvField(null));
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> SalesExportService.Format.from("xml"));
+        assertEquals(SalesExportService.Format.CSV, SalesExportService.Format.from("csv"));
+    }
+
+    private static TicketSaleDTO sale(String saleId, String eventTitle) {
+        TicketSaleDTO sale = new TicketSaleDTO();
+        sale.setSaleId(saleId);
+        sale.setEventId("e1");
+        sale.setEventTitle(eventTitle);
+        sale.setTicketCount(2);
+        sale.setPurchasedAt("2026-03-01T10:00:00Z");
+        return sale;
+    }
+}
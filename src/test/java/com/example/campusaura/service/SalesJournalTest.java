@@ -0,0 +1,106 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.dto.ProductSaleDTO;
+import com.example.campusaura.dto.TicketSaleDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalesJournalTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysOnlyUncommittedSales() throws Exception {
+        Path path = dir.resolve("journal.ndjson");
+        try (SalesJournal journal = new SalesJournal(path, objectMapper, false)) {
+            journal.appendSale(PendingSale.ticket(ticketSale("s1", "pi_1")));
+            journal.appendSale(PendingSale.product(productSale("s2", "pi_2")));
+            journal.appendSale(PendingSale.ticket(ticketSale("s3", "pi_3")));
+            journal.appendCommit(List.of("s1", "s3"));
+        }
+
+        try (SalesJournal reopened = new SalesJournal(path, objectMapper, false)) {
+            List<PendingSale> pending = reopened.uncommitted();
+            assertEquals(1, pending.size());
+            PendingSale sale = pending.get(0);
+            assertEquals(PendingSale.Kind.PRODUCT, sale.kind());
+            assertEquals("s2", sale.saleId());
+            assertEquals("pi_2", sale.stripePaymentId());
+            assertEquals(2, sale.product().getItems().get(0).getQuantity());
+        }
+    }
+
+    @Test
+    void ignoresTornLastLine() throws Exception {
+        Path path = dir.resolve("journal.ndjson");
+        try (SalesJournal journal = new SalesJournal(path, objectMapper, false)) {
+            journal.appendSale(PendingSale.ticket(ticketSale("s1", "pi_1")));
+        }
+        Files.writeString(path, "{\"op\":\"SALE\",\"sale\":{\"kind\":\"TI", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        try (SalesJournal reopened = new SalesJournal(path, objectMapper, false)) {
+            assertEquals(List.of("s1"), reopened.uncommitted().stream().map(PendingSale::saleId).toList());
+        }
+    }
+
+    @Test
+    void truncatesOnlyWhenIdle() throws Exception {
+        Path path = dir.resolve("journal.ndjson");
+        try (SalesJournal journal = new SalesJournal(path, objectMapper, false)) {
+            journal.appendSale(PendingSale.ticket(ticketSale("s1", "pi_1")));
+
+            assertFalse(journal.truncateIfIdle(() -> false));
+            assertEquals(1, journal.uncommitted().size());
+
+            assertTrue(journal.truncateIfIdle(() -> true));
+            assertTrue(journal.uncommitted().isEmpty());
+            assertEquals(0, Files.size(path));
+        }
+    }
+
+    @Test
+    void idempotencyKeyUsesStripePayment() {
+        assertEquals(PendingSale.ticket(ticketSale("s1", "pi_1")).idempotencyKey(),
+                PendingSale.ticket(ticketSale("s2", "pi_1")).idempotencyKey());
+        assertNotEquals(PendingSale.ticket(ticketSale("s1", null)).idempotencyKey(),
+                PendingSale.ticket(ticketSale("s2", null)).idempotencyKey());
+    }
+
+    private static TicketSaleDTO ticketSale(String saleId, String paymentId) {
+        TicketSaleDTO sale = new TicketSaleDTO();
+        sale.setSaleId(saleId);
+        sale.setEventId("e1");
+        sale.setTicketCount(1);
+        sale.setTotalAmount(1500);
+        sale.setStripePaymentId(paymentId);
+        sale.setPurchasedAt("2026-03-14T04:00:00Z");
+        return sale;
+    }
+
+    private static ProductSaleDTO productSale(String saleId, String paymentId) {
+        ProductSaleDTO.SaleItem item = new ProductSaleDTO.SaleItem();
+        item.setProductId("p1");
+        item.setQuantity(2);
+        item.setPrice(400);
+        ProductSaleDTO sale = new ProductSaleDTO();
+        sale.setSaleId(saleId);
+        sale.setStripePaymentId(paymentId);
+        sale.setTotalAmount(800);
+        sale.setItems(List.of(item));
+        sale.setPurchasedAt("2026-03-14T04:00:00Z");
+        return sale;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.dto.ProductSaleDTO;
+import com.example.campusaura.dto.RevenueBucketDTO;
+import com.example.campusaura.dto.TicketSaleDTO;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.WriteBatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SalesRollupsTest {
+
+    private SalesRollups rollups;
+
+    @BeforeEach
+    void setUp() {
+        rollups = new SalesRollups();
+        ReflectionTestUtils.setField(rollups, "timeZone", "Asia/Colombo");
+    }
+
+    @Test
+    void ticketSaleLandsInLocalHourDayAndMonthBuckets() {
+        // 20:00 UTC on 31 March is 01:30 on 1 April in Colombo
+        SalesRollups.Rollup rollup = rollups.forTicketSale(ticketSale("2026-03-31T20:00:00Z"), "Technology");
+
+        Map<String, Map<List<String>, Double>> documents = rollup.documents();
+        assertEquals(3, documents.size());
+        Map<List<String>, Double> day = documents.get("sales_rollups_daily/2026-04-01");
+        assertEquals(3000.0, day.get(List.of("ticketRevenue")));
+        assertEquals(2.0, day.get(List.of("ticketsSold")));
+        assertEquals(3000.0, day.get(List.of("events", "e1", "revenue")));
+        assertEquals(2.0, day.get(List.of("ticketCategories", "Technology", "count")));
+        assertTrue(documents.containsKey("sales_rollups_hourly/2026-04-01T01"));
+        assertTrue(documents.containsKey("sales_rollups_monthly/2026-04"));
+    }
+
+    @Test
+    void productItemsAreSplitByCategory() {
+        ProductSaleDTO sale = new ProductSaleDTO();
+        sale.setPurchasedAt("2026-03-14T04:00:00Z");
+        sale.setTotalAmount(1300);
+        sale.setItems(List.of(item("p1", 2, 400), item("p2", 1, 500)));
+
+        SalesRollups.Rollup rollup = rollups.forProductSale(sale, Map.of("p1", "Clothing"));
+
+        Map<List<String>, Double> month = rollup.documents().get("sales_rollups_monthly/2026-03");
+        assertEquals(3.0, month.get(List.of("itemsSold")));
+        assertEquals(800.0, month.get(List.of("productCategories", "Clothing", "revenue")));
+        assertEquals(500.0, month.get(List.of("productCategories", SalesRollups.UNCATEGORIZED, "revenue")));
+    }
+
+    @Test
+    void backfillFoldsSalesIntoSharedBuckets() {
+        SalesRollups.Rollup rebuilt = rollups.newRollup();
+        rebuilt.addAll(rollups.forTicketSale(ticketSale("2026-03-14T04:00:00Z"), null));
+        rebuilt.addAll(rollups.forTicketSale(ticketSale("2026-03-14T05:00:00Z"), null));
+
+        Map<List<String>, Double> day = rebuilt.documents().get("sales_rollups_daily/2026-03-14");
+        assertEquals(2.0, day.get(List.of("orders")));
+        assertEquals(6000.0, day.get(List.of("ticketCategories", SalesRollups.UNCATEGORIZED, "revenue")));
+    }
+
+    @Test
+    void salesSpreadOverShardsThatQueriesSumBack() throws Exception {
+        Firestore firestore = mock(Firestore.class);
+        ReflectionTestUtils.setField(rollups, "firestore", firestore);
+        ReflectionTestUtils.setField(rollups, "shards", 4);
+        Set<String> written = new HashSet<>();
+        when(firestore.document(anyString())).thenAnswer(i -> {
+            written.add(i.getArgument(0));
+            return mock(DocumentReference.class);
+        });
+        WriteBatch batch = mock(WriteBatch.class);
+        for (int i = 0; i < 200; i++) {
+            rollups.apply(batch, rollups.forTicketSale(ticketSale("2026-03-14T04:00:00Z"), null));
+        }
+        assertTrue(written.containsAll(Set.of("sales_rollups_daily/2026-03-14", "sales_rollups_daily/2026-03-14_3")));
+        assertEquals(12, written.size());
+        verify(batch, times(600)).set(any(DocumentReference.class), anyMap(), any(SetOptions.class));
+
+        // Shard 0 of the 14th is a pre-sharding bucket; the range also reaches the 15th's shards
+        Query query = mock(Query.class);
+        CollectionReference daily = mock(CollectionReference.class);
+        when(firestore.collection("sales_rollups_daily")).thenReturn(daily);
+        when(daily.whereGreaterThanOrEqualTo(any(FieldPath.class), eq("2026-03-14"))).thenReturn(query);
+        when(query.whereLessThanOrEqualTo(any(FieldPath.class), eq("2026-03-15_~"))).thenReturn(query);
+        List<QueryDocumentSnapshot> shards = List.of(
+                shard("2026-03-14", 3000, 1), shard("2026-03-14_2", 1500, 1), shard("2026-03-15_1", 500, 2));
+        QuerySnapshot snapshot = mock(QuerySnapshot.class);
+        when(snapshot.getDocuments()).thenReturn(shards);
+        when(query.get()).thenReturn(ApiFutures.immediateFuture(snapshot));
+
+        List<RevenueBucketDTO> series = rollups.getRevenue(SalesRollups.Granularity.DAY,
+                LocalDate.of(2026, 3, 14), LocalDate.of(2026, 3, 15), null, null);
+        assertEquals(4500.0, series.get(0).getTicketRevenue());
+        assertEquals(2, series.get(0).getOrders());
+        assertEquals(500.0, series.get(1).getTicketRevenue());
+        assertEquals(2, series.get(1).getOrders());
+    }
+
+    @Test
+    void rejectsUnknownGranularity() {
+        assertThrows(IllegalArgumentException.class, () -> SalesRollups.Granularity.from("week"));
+    }
+
+    private static TicketSaleDTO ticketSale(String purchasedAt) {
+        TicketSaleDTO sale = new TicketSaleDTO();
+        sale.setEventId("e1");
+        sale.setTicketCount(2);
+        sale.setTotalAmount(3000);
+        sale.setPurchasedAt(purchasedAt);
+        return sale;
+    }
+
+    private static QueryDocumentSnapshot shard(String id, double ticketRevenue, long orders) {
+        QueryDocumentSnapshot doc = mock(QueryDocumentSnapshot.class);
+        when(doc.getId()).thenReturn(id);
+        when(doc.get(any(FieldPath.class))).thenReturn(null);
+        when(doc.get(FieldPath.of("ticketRevenue"))).thenReturn(ticketRevenue);
+        when(doc.get(FieldPath.of("orders"))).thenReturn(orders);
+        return doc;
+    }
+
+    private static ProductSaleDTO.SaleItem item(String productId, int quantity, double price) {
+        ProductSaleDTO.SaleItem item = new ProductSaleDTO.SaleItem();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        item.setPrice(price);
+        return item;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.campusaura.service;
+
+import com.google.api.core.ApiFutures;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteBatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SalesTimestampMigrationTest {
+
+    private final Firestore firestore = mock(Firestore.class);
+    private final DocumentReference marker = mock(DocumentReference.class);
+    private final DocumentSnapshot markerSnapshot = mock(DocumentSnapshot.class);
+    private final WriteBatch batch = mock(WriteBatch.class);
+    private final DocumentReference legacyRef = mock(DocumentReference.class);
+    private final DocumentReference undatedRef = mock(DocumentReference.class);
+    private final Timestamp created = Timestamp.parseTimestamp("2025-12-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        CollectionReference migrations = mock(CollectionReference.class);
+        when(firestore.collection(SalesTimestampMigration.MARKER_COLLECTION)).thenReturn(migrations);
+        when(migrations.document(SalesTimestampMigration.MARKER_ID)).thenReturn(marker);
+        when(marker.get()).thenReturn(ApiFutures.immediateFuture(markerSnapshot));
+        when(marker.set(anyMap())).thenReturn(ApiFutures.immediateFuture(null));
+
+        QueryDocumentSnapshot legacy = sale(legacyRef, "2026-01-02T00:00:00Z");
+        QueryDocumentSnapshot undated = sale(undatedRef, null);
+        when(undated.getCreateTime()).thenReturn(created);
+        for (String name : List.of("ticket_sales", "product_sales")) {
+            CollectionReference sales = mock(CollectionReference.class);
+            Query query = mock(Query.class);
+            QuerySnapshot page = mock(QuerySnapshot.class);
+            when(firestore.collection(name)).thenReturn(sales);
+            when(sales.orderBy(any(FieldPath.class))).thenReturn(query);
+            when(query.limit(anyInt())).thenReturn(query);
+            when(query.get()).thenReturn(ApiFutures.immediateFuture(page));
+            when(page.getDocuments()).thenReturn(name.equals("ticket_sales") ? List.of(legacy, undated) : List.of());
+        }
+        when(firestore.batch()).thenReturn(batch);
+        when(batch.commit()).thenReturn(ApiFutures.immediateFuture(List.of()));
+    }
+
+    @Test
+    void migratesOnceAndRecordsTheMarker() throws Exception {
+        SalesTimestampMigration migration = new SalesTimestampMigration(firestore);
+        assertTrue(migration.runOnce());
+        verify(batch).update(legacyRef, "purchasedAt", Timestamp.parseTimestamp("2026-01-02T00:00:00Z"));
+        verify(batch).update(undatedRef, "purchasedAt", created);
+        verify(marker).set(anyMap());
+
+        when(markerSnapshot.exists()).thenReturn(true);
+        assertFalse(migration.runOnce());
+        verify(batch, times(1)).commit();
+    }
+
+    private static QueryDocumentSnapshot sale(DocumentReference ref, Object purchasedAt) {
+        QueryDocumentSnapshot doc = mock(QueryDocumentSnapshot.class);
+        when(doc.getReference()).thenReturn(ref);
+        when(doc.get("purchasedAt")).thenReturn(purchasedAt);
+        return doc;
+    }
+}
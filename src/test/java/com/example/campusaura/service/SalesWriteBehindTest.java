@@ -0,0 +1,169 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.dto.TicketSaleDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteBatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SalesWriteBehindTest {
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private SalesWriteBehind writeBehind;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (writeBehind != null) {
+            writeBehind.stop();
+        }
+    }
+
+    @Test
+    void poisonSaleIsDeadLetteredWithoutBlockingTheNextOne() throws Exception {
+        Firestore firestore = mock(Firestore.class);
+        WriteBatch batch = mock(WriteBatch.class);
+        when(firestore.batch()).thenReturn(batch);
+        when(firestore.collection(anyString())).thenReturn(mock(CollectionReference.class));
+        when(firestore.document(anyString())).thenReturn(mock(DocumentReference.class));
+        when(batch.commit()).thenReturn(ApiFutures.immediateFuture(List.of()));
+
+        // An event ID that is not a valid document ID fails the category lookup on every attempt
+        SalesRollups rollups = mock(SalesRollups.class);
+        when(rollups.newRollup()).thenAnswer(i -> new SalesRollups.Rollup(ZoneId.of("UTC")));
+        when(rollups.forTicketSale(any(), any())).thenAnswer(i -> new SalesRollups.Rollup(ZoneId.of("UTC")));
+        when(rollups.categoriesOf(anyString(), anyCollection())).thenAnswer(i -> {
+            Collection<String> ids = i.getArgument(1);
+            if (ids.contains("a/b")) {
+                throw new IllegalArgumentException("Invalid document reference: a/b");
+            }
+            return Map.of();
+        });
+
+        writeBehind = new SalesWriteBehind(firestore, rollups, new ObjectMapper(), registry, true, 10, 100, 20, 100,
+                dir.resolve("journal.ndjson").toString(), dir.resolve("dead-letter.ndjson").toString(), false);
+        writeBehind.start();
+        writeBehind.submit(PendingSale.ticket(ticketSale("pi_poison", "a/b")));
+        writeBehind.submit(PendingSale.ticket(ticketSale("pi_good", "e1")));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (committed() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, committed());
+        assertEquals(1, registry.get("campusaura.sales.write_behind.dead_lettered").counter().count());
+        assertEquals(0, registry.get("campusaura.sales.write_behind.pending").gauge().value());
+        assertTrue(Files.readString(dir.resolve("dead-letter.ndjson")).contains("pi_poison"));
+
+        // Both are settled in the journal, so neither is replayed
+        try (SalesJournal journal = new SalesJournal(dir.resolve("journal.ndjson"), new ObjectMapper(), false)) {
+            assertTrue(journal.uncommitted().isEmpty());
+        }
+    }
+
+    @Test
+    void paymentAlreadyStoredIsSkippedForItsOwnerAndDeadLetteredForAnotherUser() throws Exception {
+        Firestore firestore = mock(Firestore.class);
+        CollectionReference sales = mock(CollectionReference.class);
+        when(firestore.collection(anyString())).thenReturn(sales);
+        when(firestore.document(anyString())).thenReturn(mock(DocumentReference.class));
+        // Both payments were stored by u1 earlier (past the in-memory confirmations)
+        Set<DocumentReference> stored = new HashSet<>();
+        for (String saleId : List.of("pi_retry", "pi_taken")) {
+            DocumentReference ref = mock(DocumentReference.class);
+            DocumentSnapshot snapshot = mock(DocumentSnapshot.class);
+            when(snapshot.getString("userId")).thenReturn("u1");
+            when(ref.get()).thenReturn(ApiFutures.immediateFuture(snapshot));
+            when(sales.document(saleId)).thenReturn(ref);
+            stored.add(ref);
+        }
+        when(sales.document("pi_new")).thenReturn(mock(DocumentReference.class));
+        when(firestore.batch()).thenAnswer(i -> {
+            WriteBatch batch = mock(WriteBatch.class);
+            Set<DocumentReference> created = new HashSet<>();
+            when(batch.create(any(DocumentReference.class), anyMap())).thenAnswer(c -> {
+                created.add(c.getArgument(0));
+                return batch;
+            });
+            when(batch.commit()).thenAnswer(c -> created.stream().anyMatch(stored::contains)
+                    ? ApiFutures.immediateFailedFuture(new ExecutionException("ALREADY_EXISTS: sale", null))
+                    : ApiFutures.immediateFuture(List.of()));
+            return batch;
+        });
+        SalesRollups rollups = mock(SalesRollups.class);
+        when(rollups.newRollup()).thenAnswer(i -> new SalesRollups.Rollup(ZoneId.of("UTC")));
+        when(rollups.forTicketSale(any(), any())).thenAnswer(i -> new SalesRollups.Rollup(ZoneId.of("UTC")));
+        when(rollups.categoriesOf(anyString(), anyCollection())).thenReturn(Map.of());
+
+        writeBehind = new SalesWriteBehind(firestore, rollups, new ObjectMapper(), registry, true, 10, 100, 50, 100,
+                dir.resolve("journal.ndjson").toString(), dir.resolve("dead-letter.ndjson").toString(), false);
+        writeBehind.start();
+        writeBehind.submit(PendingSale.ticket(ticketSale("pi_retry", "e1", "u1")));
+        writeBehind.submit(PendingSale.ticket(ticketSale("pi_taken", "e1", "u2")));
+        writeBehind.submit(PendingSale.ticket(ticketSale("pi_new", "e1", "u3")));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (registry.get("campusaura.sales.write_behind.pending").gauge().value() > 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, committed());
+        assertEquals(1, registry.get("campusaura.sales.write_behind.duplicates").counter().count());
+        assertEquals(1, registry.get("campusaura.sales.write_behind.dead_lettered").counter().count());
+        String deadLetters = Files.readString(dir.resolve("dead-letter.ndjson"));
+        assertTrue(deadLetters.contains("pi_taken") && deadLetters.contains("another user"));
+        assertFalse(deadLetters.contains("pi_retry"));
+    }
+
+    @Test
+    void confirmsRejectIdsThatCannotBeDocumentIds() {
+        for (String id : List.of("a/b", "", "..", "__id__")) {
+            assertThrows(IllegalArgumentException.class, () -> SalesService.requireDocumentId(id, "eventId"));
+        }
+        assertDoesNotThrow(() -> SalesService.requireDocumentId("e1", "eventId"));
+        assertDoesNotThrow(() -> SalesService.requireDocumentId(null, "eventId"));
+    }
+
+    private double committed() {
+        return registry.get("campusaura.sales.write_behind.committed").counter().count();
+    }
+
+    private static TicketSaleDTO ticketSale(String paymentId, String eventId) {
+        return ticketSale(paymentId, eventId, null);
+    }
+
+    private static TicketSaleDTO ticketSale(String paymentId, String eventId, String userId) {
+        TicketSaleDTO sale = new TicketSaleDTO();
+        sale.setUserId(userId);
+        sale.setSaleId(paymentId);
+        sale.setEventId(eventId);
+        sale.setTicketCount(1);
+        sale.setTotalAmount(1500);
+        sale.setStripePaymentId(paymentId);
+        sale.setPurchasedAt("2026-03-14T04:00:00Z");
+        return sale;
+    }
+}
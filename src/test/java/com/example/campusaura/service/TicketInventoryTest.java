@@ -0,0 +1,80 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.model.Event;
+import com.example.campusaura.model.TicketCategory;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TicketInventoryTest {
+
+    @Test
+    void slicesAddUpToCapacity() {
+        TicketInventory inventory = new TicketInventory(null, new SimpleMeterRegistry(), 8, 5000, 600_000, 1000, false);
+
+        long total = 0;
+        for (int shard = 0; shard < 8; shard++) {
+            long slice = inventory.slice(101, shard);
+            assertTrue(slice == 12 || slice == 13);
+            total += slice;
+        }
+        assertEquals(101, total);
+        assertEquals(1, inventory.slice(3, 2));
+        assertEquals(0, inventory.slice(3, 3));
+    }
+
+    @Test
+    void capacitiesComeFromTicketCategories() {
+        Event event = new Event();
+        event.setTicketCategories(List.of(
+                new TicketCategory("Normal", 1000.0, 200),
+                new TicketCategory("VIP", 2500.0, 50),
+                new TicketCategory("Free", 0.0, null)));
+
+        assertEquals(Map.of("Normal", 200L, "VIP", 50L), TicketInventory.capacities(event));
+        assertTrue(TicketInventory.capacities(new Event()).isEmpty());
+    }
+
+    @Test
+    void syncingAnEventNobodyReservedWritesNothing() throws Exception {
+        Firestore firestore = mock(Firestore.class);
+        CollectionReference collection = mock(CollectionReference.class);
+        DocumentReference document = mock(DocumentReference.class);
+        DocumentSnapshot missing = mock(DocumentSnapshot.class);
+        when(firestore.collection(anyString())).thenReturn(collection);
+        when(collection.document(anyString())).thenReturn(document);
+        when(document.collection(anyString())).thenReturn(collection);
+        when(document.get()).thenReturn(ApiFutures.immediateFuture(missing));
+
+        TicketInventory inventory = new TicketInventory(firestore, new SimpleMeterRegistry(), 8, 5000, 600_000, 1000, false);
+        Event event = new Event();
+        event.setEventId("e1");
+        event.setTicketCategories(List.of(new TicketCategory("Normal", 1000.0, 200)));
+        inventory.syncCapacity(event);
+
+        verify(firestore, never()).runTransaction(any());
+        verify(document, never()).set(anyMap());
+    }
+
+    @Test
+    void availabilityNeverGoesNegative() {
+        TicketInventory.Availability availability = new TicketInventory.Availability(Map.of(
+                "Normal", new TicketInventory.CategoryAvailability(10, 4, 3),
+                "VIP", new TicketInventory.CategoryAvailability(2, 0, 5)));
+
+        assertEquals(12, availability.capacity());
+        assertEquals(3, availability.remaining());
+        assertEquals(4, availability.held());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.campusaura.service;
+
+import com.example.campusaura.model.Transaction;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TransactionServiceTest {
+
+    private final RevenueLedger revenueLedger = mock(RevenueLedger.class);
+    private final DocumentSnapshot totals = mock(DocumentSnapshot.class);
+    // "TICKET.COMPLETED" -> number of such transactions in the collection
+    private final Map<String, Long> collectionCounts = new HashMap<>();
+    private TransactionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TransactionService();
+        ReflectionTestUtils.setField(service, "revenueLedger", revenueLedger);
+        ReflectionTestUtils.setField(service, "ledgerMaxAgeMs", 3_600_000L);
+        DocumentCounter counter = query -> ApiFutures.immediateFuture(collectionCounts.getOrDefault(
+                query.filters().get("type") + "." + query.filters().get("status"), 0L));
+        ReflectionTestUtils.setField(service, "documentCounter", counter);
+
+        when(revenueLedger.getTotalsAsync()).thenReturn(ApiFutures.immediateFuture(totals));
+        when(totals.exists()).thenReturn(true);
+        when(totals.getTimestamp("rebuiltAt")).thenReturn(Timestamp.now());
+        when(totals.get(any(FieldPath.class))).thenReturn(null);
+        when(totals.get(FieldPath.of("TICKET", "COMPLETED", "count"))).thenReturn(3L);
+        collectionCounts.put("TICKET.COMPLETED", 3L);
+    }
+
+    @Test
+    void ledgerMatchingTheCollectionIsFresh() throws Exception {
+        assertFalse(service.isLedgerStale());
+    }
+
+    @Test
+    void transactionsWrittenByOtherClientsMakeTheLedgerStale() throws Exception {
+        collectionCounts.put("MARKETPLACE.PENDING", 1L);
+        assertTrue(service.isLedgerStale());
+
+        collectionCounts.remove("MARKETPLACE.PENDING");
+        collectionCounts.put("TICKET.COMPLETED", 2L);
+        collectionCounts.put("TICKET.REFUNDED", 1L);
+        assertTrue(service.isLedgerStale());
+    }
+
+    @Test
+    void ledgerIsRebuiltOnceItReachesMaxAge() throws Exception {
+        when(totals.getTimestamp("rebuiltAt")).thenReturn(Timestamp.ofTimeMicroseconds(
+                (System.currentTimeMillis() - 3_600_001L) * 1000));
+        assertTrue(service.isLedgerStale());
+
+        when(totals.exists()).thenReturn(false);
+        assertTrue(service.isLedgerStale());
+        assertEquals(0, RevenueLedger.count(totals, Transaction.TransactionType.MARKETPLACE,
+                Transaction.TransactionStatus.COMPLETED));
+    }
+}
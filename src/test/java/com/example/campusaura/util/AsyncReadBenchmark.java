@@ -0,0 +1,115 @@
+package com.example.campusaura.util;
+
+import com.google.api.core.SettableApiFuture;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Requests served per second by a fixed pool of request threads when every request
+ * waits on one Firestore read: blocking on ApiFuture.get() (the blocking controllers)
+ * versus returning a CompletableFuture built with CompletableFutures.of (the async
+ * controllers), which frees the request thread while the read is in flight.
+ *
+ * Firestore is simulated by a scheduler that completes each read after a fixed
+ * latency. One operation is a burst of concurrent requests, so requests/s is
+ * ops/s x burst. The request pool is sized per core, so the comparison is throughput
+ * per core at equal thread budget.
+ *
+ * Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *       org.openjdk.jmh.Main AsyncReadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsyncReadBenchmark {
+
+    @Param({"2000"})
+    public long firestoreLatencyMicros;
+
+    @Param({"256"})
+    public int burst;
+
+    @Param({"8"})
+    public int requestThreads;
+
+    private ExecutorService requestPool;
+    private ScheduledExecutorService firestore;
+    private List<Map<String, Object>> documents;
+
+    @Setup
+    public void setUp() {
+        requestPool = Executors.newFixedThreadPool(requestThreads);
+        firestore = Executors.newScheduledThreadPool(2);
+        documents = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            documents.add(Map.of("id", "doc-" + i, "title", "Item " + i, "price", i * 100));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        requestPool.shutdownNow();
+        firestore.shutdownNow();
+    }
+
+    @Benchmark
+    public int blocking() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(burst);
+        for (int i = 0; i < burst; i++) {
+            requestPool.execute(() -> {
+                try {
+                    respond(read().get());
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        return burst;
+    }
+
+    @Benchmark
+    public int async() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(burst);
+        for (int i = 0; i < burst; i++) {
+            requestPool.execute(() -> CompletableFutures.of(read())
+                    .thenApply(this::respond)
+                    .thenRun(done::countDown));
+        }
+        done.await();
+        return burst;
+    }
+
+    // One Firestore query, completed by the simulated backend after the configured latency
+    private SettableApiFuture<List<Map<String, Object>>> read() {
+        SettableApiFuture<List<Map<String, Object>>> future = SettableApiFuture.create();
+        firestore.schedule(() -> future.set(documents), firestoreLatencyMicros, TimeUnit.MICROSECONDS);
+        return future;
+    }
+
+    // Mapping documents to response DTOs
+    private List<String> respond(List<Map<String, Object>> docs) {
+        List<String> items = new ArrayList<>(docs.size());
+        for (Map<String, Object> doc : docs) {
+            items.add(doc.get("id") + ":" + doc.get("title"));
+        }
+        return items;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AsyncReadBenchmark.class.getSimpleName()).build()).run();
+    }
+}
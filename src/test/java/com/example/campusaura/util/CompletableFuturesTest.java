@@ -0,0 +1,46 @@
+package com.example.campusaura.util;
+
+import com.google.api.core.SettableApiFuture;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompletableFuturesTest {
+
+    @Test
+    void completesWithTheApiFuture() {
+        SettableApiFuture<String> source = SettableApiFuture.create();
+        CompletableFuture<String> future = CompletableFutures.of(source);
+        assertFalse(future.isDone());
+
+        source.set("value");
+        assertEquals("value", future.join());
+    }
+
+    @Test
+    void failuresAndCancellationPropagate() {
+        SettableApiFuture<String> failing = SettableApiFuture.create();
+        CompletableFuture<String> failed = CompletableFutures.of(failing);
+        IllegalStateException error = new IllegalStateException("unavailable");
+        failing.setException(error);
+        assertSame(error, CompletableFutures.unwrap(assertThrows(CompletionException.class, failed::join)));
+
+        SettableApiFuture<String> pending = SettableApiFuture.create();
+        CompletableFutures.of(pending).cancel(true);
+        assertTrue(pending.isCancelled());
+    }
+
+    @Test
+    void awaitRethrowsRuntimeExceptionsUnwrapped() {
+        CompletableFuture<String> notFound = CompletableFuture.failedFuture(new RuntimeException("Event not found"));
+        assertEquals("Event not found", assertThrows(RuntimeException.class,
+                () -> CompletableFutures.await(notFound)).getMessage());
+
+        CompletableFuture<String> checked = CompletableFuture.failedFuture(new Exception("deadline"));
+        assertThrows(ExecutionException.class, () -> CompletableFutures.await(checked));
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.campusaura.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void roundTripsSortValues() {
+        String cursor = PageCursor.encode("2026-01-01T00:00:00Z", "sale.with|odd/chars");
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+        assertEquals(List.of("2026-01-01T00:00:00Z", "sale.with|odd/chars"), PageCursor.decode(cursor, 2));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not a cursor!", 1));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(PageCursor.encode("a", "b"), 1));
+    }
+}